@@ -0,0 +1,103 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.reccomplex.utils.accessor.RCAccessorDecorateBiomeEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.terraingen.DecorateBiomeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing the amount of a decorate event, which happens for every decoration of every chunk.
+ * {@link #reflective()} is how it was done before {@link RCAccessorDecorateBiomeEvent}: looking the methods up each time.
+ * Forge versions without amount data get a plain event, the others one like {@link AmountDecorate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DecorateEventBenchmark
+{
+    @Param({"plain", "amount"})
+    public String event;
+
+    protected DecorateBiomeEvent.Decorate decorate;
+
+    @Setup
+    public void setup()
+    {
+        decorate = event.equals("amount")
+                ? new AmountDecorate(null, new Random(0), BlockPos.ORIGIN, DecorateBiomeEvent.Decorate.EventType.TREE)
+                : new DecorateBiomeEvent.Decorate(null, new Random(0), BlockPos.ORIGIN, DecorateBiomeEvent.Decorate.EventType.TREE);
+    }
+
+    @Benchmark
+    public int reflective()
+    {
+        int amount;
+        try
+        {
+            decorate.getClass().getDeclaredMethod("getModifiedAmount");
+            decorate.getClass().getDeclaredMethod("setModifiedAmount", int.class);
+            if ((boolean) decorate.getClass().getDeclaredMethod("hasAmountData").invoke(decorate)
+                    && (amount = (int) decorate.getClass().getDeclaredMethod("getModifiedAmount").invoke(decorate)) >= 0)
+            {
+                decorate.getClass().getDeclaredMethod("setModifiedAmount", int.class).invoke(decorate, amount);
+                return amount;
+            }
+        }
+        catch (Exception ignored)
+        {
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int accessor()
+    {
+        int amount;
+        if (RCAccessorDecorateBiomeEvent.hasAmountData(decorate) && (amount = RCAccessorDecorateBiomeEvent.getModifiedAmount(decorate)) >= 0)
+        {
+            RCAccessorDecorateBiomeEvent.setModifiedAmount(decorate, amount);
+            return amount;
+        }
+        return -1;
+    }
+
+    /**
+     * Declares the amount data like the forge versions that have it.
+     */
+    public static class AmountDecorate extends DecorateBiomeEvent.Decorate
+    {
+        private int modifiedAmount = 3;
+
+        public AmountDecorate(World world, Random rand, BlockPos pos, EventType type)
+        {
+            super(world, rand, pos, type);
+        }
+
+        public boolean hasAmountData()
+        {
+            return true;
+        }
+
+        public int getModifiedAmount()
+        {
+            return modifiedAmount;
+        }
+
+        public void setModifiedAmount(int modifiedAmount)
+        {
+            this.modifiedAmount = modifiedAmount;
+        }
+    }
+}
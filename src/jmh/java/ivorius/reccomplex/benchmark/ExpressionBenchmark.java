@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.utils.algebra.ExpressionCache;
+import ivorius.reccomplex.utils.expression.BiomeExpression;
+import ivorius.reccomplex.utils.expression.BlockExpression;
+import ivorius.reccomplex.utils.expression.PositionedBlockExpression;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Biomes;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.biome.Biome;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The matchers placers and transformers evaluate per block, over the surface of noise terrain.
+ * Each invocation evaluates a batch of positions, so scores are per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExpressionBenchmark
+{
+    public static final int BATCH = 4096;
+
+    protected NoiseTerrain terrain;
+    protected BlockPos[] positions;
+    protected IBlockState[] states;
+    protected Biome[] biomes;
+
+    protected BlockExpression blockMatcher;
+    protected PositionedBlockExpression stateMatcher;
+    protected PositionedBlockExpression worldMatcher;
+    protected BiomeExpression biomeMatcher;
+
+    @Setup
+    public void setup()
+    {
+        Headless.init();
+
+        terrain = new NoiseTerrain(0, 128, 96, 128);
+
+        Random random = new Random(0);
+        positions = terrain.surfacePositions(random, BATCH);
+        states = new IBlockState[BATCH];
+        for (int i = 0; i < BATCH; i++)
+            states[i] = terrain.world.getBlockState(positions[i]);
+
+        Biome[] pool = {Biomes.PLAINS, Biomes.FOREST, Biomes.DESERT, Biomes.OCEAN, Biomes.TAIGA, Biomes.SWAMPLAND, Biomes.JUNGLE, Biomes.EXTREME_HILLS};
+        biomes = new Biome[BATCH];
+        for (int i = 0; i < BATCH; i++)
+            biomes[i] = pool[random.nextInt(pool.length)];
+
+        blockMatcher = ExpressionCache.of(new BlockExpression(RecurrentComplex.specialRegistry),
+                BlockExpression.of(RecurrentComplex.specialRegistry, Blocks.STONE) + " | " + BlockExpression.of(RecurrentComplex.specialRegistry, Blocks.DIRT) + " | " + BlockExpression.of(RecurrentComplex.specialRegistry, Blocks.GRASS));
+        // Like the default placer's ground matcher, which only needs the state
+        stateMatcher = ExpressionCache.of(new PositionedBlockExpression(RecurrentComplex.specialRegistry), "is:liquid | is:water");
+        // Like the natural transformer's default destination matcher, which needs the world around the block
+        worldMatcher = ExpressionCache.of(new PositionedBlockExpression(RecurrentComplex.specialRegistry), "is:replaceable | is:foliage");
+        biomeMatcher = ExpressionCache.of(new BiomeExpression(), "($PLAINS | $FOREST) & !$OCEAN");
+    }
+
+    @Benchmark
+    public int blockStates()
+    {
+        int matches = 0;
+        for (IBlockState state : states)
+            if (blockMatcher.evaluate(state))
+                matches++;
+        return matches;
+    }
+
+    @Benchmark
+    public int positionedStateOnly()
+    {
+        int matches = 0;
+        for (BlockPos pos : positions)
+            if (stateMatcher.evaluate(() -> PositionedBlockExpression.Argument.at(terrain.world, pos)))
+                matches++;
+        return matches;
+    }
+
+    @Benchmark
+    public int positionedInWorld()
+    {
+        int matches = 0;
+        for (BlockPos pos : positions)
+            if (worldMatcher.evaluate(() -> PositionedBlockExpression.Argument.at(terrain.world, pos)))
+                matches++;
+        return matches;
+    }
+
+    @Benchmark
+    public int biomes()
+    {
+        int matches = 0;
+        for (Biome biome : biomes)
+            if (biomeMatcher.evaluate(biome))
+                matches++;
+        return matches;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.ivtoolkit.tools.MCRegistryDefault;
+import ivorius.reccomplex.RCRegistryHandler;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.files.loading.LeveledRegistry;
+import ivorius.reccomplex.utils.FMLRemapper;
+import ivorius.reccomplex.utils.MCRegistryRemapping;
+import ivorius.reccomplex.world.gen.feature.selector.NaturalStructureSelector;
+import ivorius.reccomplex.world.gen.feature.structure.registry.MCRegistrySpecial;
+import net.minecraft.init.Bootstrap;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * Sets up just enough of the game and the mod to load, select and inspect structures without a running server.
+ * There is no world, so benchmarks work on {@link ivorius.ivtoolkit.world.MockWorld}s, or on a {@link HeadlessWorld} where they need a real one.
+ */
+public class Headless
+{
+    private static boolean initialized;
+
+    public static synchronized void init()
+    {
+        if (initialized)
+            return;
+        initialized = true;
+
+        Bootstrap.register();
+
+        RecurrentComplex.logger = LogManager.getLogger(RecurrentComplex.MOD_ID);
+
+        RecurrentComplex.remapper = new FMLRemapper();
+        RecurrentComplex.specialRegistry = new MCRegistrySpecial(RecurrentComplex.mcRegistry = new MCRegistryRemapping(new MCRegistryDefault(), RecurrentComplex.remapper), RecurrentComplex.remapper);
+
+        RCRegistryHandler.registerSerialization(RecurrentComplex.specialRegistry);
+        RCRegistryHandler.registerOperations();
+
+        NaturalStructureSelector.SimpleCategory category = new NaturalStructureSelector.SimpleCategory();
+        category.defaultSpawnChance = 0.5;
+        NaturalStructureSelector.CATEGORY_REGISTRY.register(SyntheticStructures.CATEGORY, RecurrentComplex.MOD_ID, category, true, LeveledRegistry.Level.CUSTOM);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import net.minecraft.entity.EnumCreatureType;
+import net.minecraft.init.Biomes;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.dedicated.DedicatedPlayerList;
+import net.minecraft.server.dedicated.DedicatedServer;
+import net.minecraft.server.dedicated.PropertyManager;
+import net.minecraft.util.datafix.DataFixesManager;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.*;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.BiomeProvider;
+import net.minecraft.world.biome.BiomeProviderSingle;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.storage.AnvilSaveHandler;
+import net.minecraft.world.gen.IChunkGenerator;
+import net.minecraft.world.storage.WorldInfo;
+import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.fml.relauncher.ReflectionHelper;
+import sun.misc.Unsafe;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.List;
+
+/**
+ * A real {@link WorldServer} for what can't run on a {@link ivorius.ivtoolkit.world.MockWorld}, like generating and placing structures.
+ * Its chunks are {@link NoiseTerrain}, tiled endlessly. There is no running server behind it;
+ * the few parts of one the world touches while it is constructed are filled in by hand.
+ */
+public class HeadlessWorld
+{
+    public static final NoiseTerrain TERRAIN = new NoiseTerrain(0, 128, 96, 128);
+
+    private static WorldServer world;
+
+    public static synchronized WorldServer get()
+    {
+        if (world == null)
+        {
+            Headless.init();
+
+            try
+            {
+                world = create();
+            }
+            catch (IOException | ReflectiveOperationException e)
+            {
+                throw new IllegalStateException("Could not create a headless world", e);
+            }
+        }
+
+        return world;
+    }
+
+    private static WorldServer create() throws IOException, ReflectiveOperationException
+    {
+        File directory = Files.createTempDirectory("reccomplex-benchmark").toFile();
+        directory.deleteOnExit();
+
+        DedicatedServer server = allocate(DedicatedServer.class);
+        ReflectionHelper.setPrivateValue(DedicatedServer.class, server, new PropertyManager(new File(directory, "server.properties")), "settings", "field_71340_o");
+        ReflectionHelper.setPrivateValue(MinecraftServer.class, server, allocate(DedicatedPlayerList.class), "playerList", "field_71318_t");
+        server.worldTickTimes = new Hashtable<>();
+        server.worlds = new WorldServer[0];
+
+        DimensionManager.init();
+
+        WorldInfo info = new WorldInfo(new WorldSettings(0, GameType.CREATIVE, false, false, NoiseWorldType.INSTANCE), "benchmark");
+        return new WorldServer(server, new AnvilSaveHandler(directory, "benchmark", false, DataFixesManager.createFixer()), info, 0, new Profiler());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T allocate(Class<T> clazz) throws ReflectiveOperationException
+    {
+        // Skips the constructors, which would start up the whole server
+        Field field = Unsafe.class.getDeclaredField("theUnsafe");
+        field.setAccessible(true);
+        return (T) ((Unsafe) field.get(null)).allocateInstance(clazz);
+    }
+
+    public static class NoiseWorldType extends WorldType
+    {
+        public static final NoiseWorldType INSTANCE = new NoiseWorldType();
+
+        private NoiseWorldType()
+        {
+            super("rc_benchmark");
+        }
+
+        @Override
+        public BiomeProvider getBiomeProvider(World world)
+        {
+            return new BiomeProviderSingle(Biomes.PLAINS);
+        }
+
+        @Override
+        public IChunkGenerator getChunkGenerator(World world, String generatorOptions)
+        {
+            return new NoiseChunkGenerator(world, TERRAIN);
+        }
+    }
+
+    public static class NoiseChunkGenerator implements IChunkGenerator
+    {
+        public final World world;
+        public final NoiseTerrain terrain;
+
+        public NoiseChunkGenerator(World world, NoiseTerrain terrain)
+        {
+            this.world = world;
+            this.terrain = terrain;
+        }
+
+        @Override
+        public Chunk generateChunk(int x, int z)
+        {
+            ChunkPrimer primer = new ChunkPrimer();
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+            for (int chunkX = 0; chunkX < 16; chunkX++)
+            {
+                for (int chunkZ = 0; chunkZ < 16; chunkZ++)
+                {
+                    int terrainX = Math.floorMod(x * 16 + chunkX, terrain.size[0]);
+                    int terrainZ = Math.floorMod(z * 16 + chunkZ, terrain.size[2]);
+
+                    for (int y = 0; y < terrain.size[1]; y++)
+                        primer.setBlockState(chunkX, y, chunkZ, terrain.world.getBlockState(pos.setPos(terrainX, y, terrainZ)));
+                }
+            }
+
+            Chunk chunk = new Chunk(world, primer, x, z);
+            Arrays.fill(chunk.getBiomeArray(), (byte) Biome.getIdForBiome(Biomes.PLAINS));
+            chunk.generateSkylightMap();
+            return chunk;
+        }
+
+        @Override
+        public void populate(int x, int z)
+        {
+        }
+
+        @Override
+        public boolean generateStructures(Chunk chunk, int x, int z)
+        {
+            return false;
+        }
+
+        @Override
+        public List<Biome.SpawnListEntry> getPossibleCreatures(EnumCreatureType creatureType, BlockPos pos)
+        {
+            return Collections.emptyList();
+        }
+
+        @Nullable
+        @Override
+        public BlockPos getNearestStructurePos(World world, String structureName, BlockPos position, boolean findUnexplored)
+        {
+            return null;
+        }
+
+        @Override
+        public void recreateStructures(Chunk chunk, int x, int z)
+        {
+        }
+
+        @Override
+        public boolean isInsideStructure(World world, String structureName, BlockPos pos)
+        {
+            return false;
+        }
+    }
+}
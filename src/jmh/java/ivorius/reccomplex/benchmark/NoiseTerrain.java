@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.ivtoolkit.blocks.IvBlockCollection;
+import ivorius.ivtoolkit.tools.IvWorldData;
+import ivorius.ivtoolkit.world.MockWorld;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Rolling hills with lakes, plants and the odd tree, to stand in for a generated world.
+ */
+public class NoiseTerrain
+{
+    public static final int SEA_LEVEL = 40;
+
+    public final int[] size;
+    public final int[] heights;
+    public final MockWorld world;
+
+    public NoiseTerrain(long seed, int width, int height, int length)
+    {
+        size = new int[]{width, height, length};
+        heights = heightMap(new Random(seed), width, length, SEA_LEVEL - 12, SEA_LEVEL + 24);
+
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        IvWorldData worldData = new IvWorldData(new IvBlockCollection(width, height, length), new ArrayList<>(), new ArrayList<>());
+        IvBlockCollection blocks = worldData.blockCollection;
+
+        for (int x = 0; x < width; x++)
+        {
+            for (int z = 0; z < length; z++)
+            {
+                int surface = heights[x + z * width];
+
+                for (int y = 0; y < height; y++)
+                {
+                    IBlockState state = y < surface - 3 ? Blocks.STONE.getDefaultState()
+                            : y < surface ? Blocks.DIRT.getDefaultState()
+                            : y == surface ? (surface < SEA_LEVEL ? Blocks.SAND : Blocks.GRASS).getDefaultState()
+                            : y <= SEA_LEVEL ? Blocks.WATER.getDefaultState()
+                            : Blocks.AIR.getDefaultState();
+                    blocks.setBlockState(new BlockPos(x, y, z), state);
+                }
+
+                if (surface > SEA_LEVEL && surface + 1 < height)
+                {
+                    float plant = random.nextFloat();
+                    if (plant < 0.2f)
+                        blocks.setBlockState(new BlockPos(x, surface + 1, z), Blocks.TALLGRASS.getDefaultState());
+                    else if (plant < 0.22f)
+                    {
+                        for (int y = surface + 1; y < Math.min(surface + 6, height); y++)
+                            blocks.setBlockState(new BlockPos(x, y, z), Blocks.LOG.getDefaultState());
+                    }
+                }
+            }
+        }
+
+        world = new MockWorld.WorldData(worldData);
+    }
+
+    /**
+     * Value noise over a few octaves, smoothly interpolated between random lattice points.
+     */
+    protected static int[] heightMap(Random random, int width, int length, int min, int max)
+    {
+        double[] noise = new double[width * length];
+        double amplitude = 1, totalAmplitude = 0;
+
+        for (int cell = 32; cell >= 4; cell /= 2)
+        {
+            int latticeWidth = width / cell + 2, latticeLength = length / cell + 2;
+            double[] lattice = new double[latticeWidth * latticeLength];
+            for (int i = 0; i < lattice.length; i++)
+                lattice[i] = random.nextDouble();
+
+            for (int x = 0; x < width; x++)
+            {
+                for (int z = 0; z < length; z++)
+                {
+                    int lx = x / cell, lz = z / cell;
+                    double fx = smooth((x % cell) / (double) cell), fz = smooth((z % cell) / (double) cell);
+
+                    double top = lattice[lx + lz * latticeWidth] * (1 - fx) + lattice[lx + 1 + lz * latticeWidth] * fx;
+                    double bottom = lattice[lx + (lz + 1) * latticeWidth] * (1 - fx) + lattice[lx + 1 + (lz + 1) * latticeWidth] * fx;
+                    noise[x + z * width] += (top * (1 - fz) + bottom * fz) * amplitude;
+                }
+            }
+
+            totalAmplitude += amplitude;
+            amplitude *= 0.5;
+        }
+
+        int[] heights = new int[noise.length];
+        for (int i = 0; i < noise.length; i++)
+            heights[i] = MathHelper.floor(min + (max - min) * noise[i] / totalAmplitude);
+        return heights;
+    }
+
+    private static double smooth(double t)
+    {
+        return t * t * (3 - 2 * t);
+    }
+
+    /**
+     * @return Positions around the surface, where placers and transformers do most of their matching.
+     */
+    public BlockPos[] surfacePositions(Random random, int count)
+    {
+        BlockPos[] positions = new BlockPos[count];
+        for (int i = 0; i < count; i++)
+        {
+            int x = random.nextInt(size[0]), z = random.nextInt(size[2]);
+            int y = MathHelper.clamp(heights[x + z * size[0]] + random.nextInt(7) - 3, 0, size[1] - 1);
+            positions[i] = new BlockPos(x, y, z);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.ivtoolkit.blocks.BlockAreas;
+import ivorius.ivtoolkit.blocks.IvBlockCollection;
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.ivtoolkit.tools.IvWorldData;
+import ivorius.reccomplex.world.gen.feature.structure.Environment;
+import ivorius.reccomplex.world.gen.feature.structure.generic.placement.FactorLimit;
+import ivorius.reccomplex.world.gen.feature.structure.generic.placement.FactorMatch;
+import ivorius.reccomplex.world.gen.feature.structure.generic.placement.GenericPlacer;
+import ivorius.reccomplex.world.gen.feature.structure.generic.placement.StructurePlaceContext;
+import ivorius.reccomplex.world.gen.feature.structure.generic.placement.rays.RayAverageMatcher;
+import ivorius.reccomplex.world.gen.feature.structure.generic.placement.rays.RayDynamicPosition;
+import ivorius.reccomplex.world.gen.feature.structure.generic.placement.rays.RayMove;
+import net.minecraft.block.material.Material;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Finding the height to place a structure at over noise terrain, with the factors of the surface preset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlacerBenchmark
+{
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    protected WorldServer world;
+    protected GenericPlacer placer;
+
+    protected IvBlockCollection blockCollection;
+    protected Set<BlockPos> surface;
+    protected StructureBoundingBox boundingBox;
+    protected Environment environment;
+
+    @Setup
+    public void setup()
+    {
+        world = HeadlessWorld.get();
+
+        // Like presets/placer/surface.rcgp, without going through the preset registry
+        placer = new GenericPlacer(Arrays.asList(
+                new FactorLimit(1, Arrays.asList(
+                        new RayDynamicPosition(null, RayDynamicPosition.Type.WORLD_HEIGHT),
+                        new RayAverageMatcher(null, false, "(blocks:movement & !is:foliage) | is:liquid"),
+                        new RayMove(1f, 0)
+                )),
+                new FactorMatch(1.0300429f, "!air", "!is:liquid", 0.99141634f)
+        ));
+
+        int[] size = SyntheticStructures.size(this.size);
+        IvWorldData worldData = SyntheticStructures.worldData(this.size.hashCode(), size);
+        blockCollection = worldData.blockCollection;
+        surface = BlockAreas.side(blockCollection.area(), EnumFacing.DOWN).stream()
+                .filter(p -> blockCollection.getBlockState(p).getMaterial() != Material.AIR)
+                .collect(Collectors.toSet());
+
+        boundingBox = new StructureBoundingBox(8, 0, 8, 8 + size[0] - 1, size[1] - 1, 8 + size[2] - 1);
+        environment = Environment.inNature(world, boundingBox);
+    }
+
+    @Benchmark
+    public int place()
+    {
+        StructurePlaceContext context = new StructurePlaceContext(new Random(0), environment, AxisAlignedTransform2D.ORIGINAL, boundingBox);
+        return placer.place(context, blockCollection, surface);
+    }
+}
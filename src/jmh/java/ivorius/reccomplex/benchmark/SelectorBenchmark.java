@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.reccomplex.world.gen.feature.selector.MixingStructureSelector;
+import ivorius.reccomplex.world.gen.feature.selector.NaturalStructureSelector;
+import ivorius.reccomplex.world.gen.feature.structure.Structure;
+import ivorius.reccomplex.world.gen.feature.structure.generic.generation.NaturalGeneration;
+import net.minecraft.init.Biomes;
+import net.minecraft.world.WorldProvider;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.biome.Biome;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a natural selector for a biome, as happens once per biome and dimension, and picking the structures for a chunk from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SelectorBenchmark
+{
+    @Param({"1000", "10000"})
+    public int structures;
+
+    protected Map<String, Structure<?>> corpus;
+    protected WorldProvider provider;
+    protected Biome biome;
+
+    protected MixingStructureSelector<NaturalGeneration, NaturalStructureSelector.Category> selector;
+    protected Random random;
+
+    @Setup
+    public void setup()
+    {
+        Headless.init();
+
+        corpus = SyntheticStructures.selectable(structures, structures);
+        provider = new WorldProviderSurface();
+        biome = Biomes.PLAINS;
+
+        selector = new MixingStructureSelector<>(corpus, provider, biome, NaturalGeneration.class);
+        random = new Random(0);
+    }
+
+    @Benchmark
+    public MixingStructureSelector<NaturalGeneration, NaturalStructureSelector.Category> build()
+    {
+        return new MixingStructureSelector<>(corpus, provider, biome, NaturalGeneration.class);
+    }
+
+    @Benchmark
+    public List<Pair<Structure<?>, NaturalGeneration>> select()
+    {
+        return selector.generatedStructures(random, biome, provider, 500f);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.ivtoolkit.tools.IvWorldData;
+import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import ivorius.reccomplex.world.gen.feature.structure.generic.StructureSaveHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Reading structures from their files, and unpacking their blocks as every generation does first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StructureDecodeBenchmark
+{
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    protected GenericStructure structure;
+    protected byte[] zip;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        Headless.init();
+
+        structure = SyntheticStructures.structure(size.hashCode(), SyntheticStructures.size(size));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StructureSaveHandler.INSTANCE.toZip(structure, new ZipOutputStream(out));
+        zip = out.toByteArray();
+    }
+
+    @Benchmark
+    public GenericStructure fromZip() throws IOException
+    {
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip)))
+        {
+            return StructureSaveHandler.INSTANCE.fromZip(in);
+        }
+    }
+
+    @Benchmark
+    public IvWorldData constructWorldData()
+    {
+        return structure.constructWorldData();
+    }
+}
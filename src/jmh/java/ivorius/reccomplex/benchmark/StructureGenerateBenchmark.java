@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.reccomplex.RCConfig;
+import ivorius.reccomplex.world.gen.feature.StructureGenerator;
+import ivorius.reccomplex.world.gen.feature.structure.context.StructureSpawnContext;
+import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating a structure into the world, with its natural and ruins transformers, once it's prepared.
+ * The area is reset before every invocation so each one generates onto the same terrain.
+ * Per invocation setup costs JMH some timing overhead of its own, so take the small structure's numbers with a grain of salt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StructureGenerateBenchmark
+{
+    private static final int MARGIN = 16;
+
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    protected WorldServer world;
+    protected GenericStructure structure;
+    protected StructureGenerator<GenericStructure.InstanceData> generator;
+    protected GenericStructure.InstanceData instanceData;
+
+    protected StructureBoundingBox area;
+    protected IBlockState[] snapshot;
+
+    @Setup
+    public void setup()
+    {
+        world = HeadlessWorld.get();
+        structure = SyntheticStructures.structure(size.hashCode(), SyntheticStructures.size(size));
+
+        generator = new StructureGenerator<>(structure).world(world).seed(0L)
+                .lowerCoord(new BlockPos(8, NoiseTerrain.SEA_LEVEL, 8)).transform(AxisAlignedTransform2D.ORIGINAL)
+                .maturity(StructureSpawnContext.GenerateMaturity.FIRST).memorize(false);
+        instanceData = generator.instanceData().orElseThrow(() -> new IllegalStateException("Structure didn't prepare"));
+
+        StructureBoundingBox bb = generator.boundingBox().orElseThrow(IllegalStateException::new);
+        area = new StructureBoundingBox(bb.minX - MARGIN, Math.max(bb.minY - MARGIN, 0), bb.minZ - MARGIN,
+                bb.maxX + MARGIN, Math.min(bb.maxY + MARGIN, world.getHeight() - 1), bb.maxZ + MARGIN);
+
+        snapshot = new IBlockState[area.getXSize() * area.getYSize() * area.getZSize()];
+        int i = 0;
+        for (BlockPos pos : BlockPos.getAllInBox(new BlockPos(area.minX, area.minY, area.minZ), new BlockPos(area.maxX, area.maxY, area.maxZ)))
+            snapshot[i++] = world.getBlockState(pos);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset()
+    {
+        int i = 0;
+        for (BlockPos pos : BlockPos.getAllInBox(new BlockPos(area.minX, area.minY, area.minZ), new BlockPos(area.maxX, area.maxY, area.maxZ)))
+            world.setBlockState(pos, snapshot[i++], 2);
+    }
+
+    @Benchmark
+    public GenericStructure.InstanceData generate()
+    {
+        StructureSpawnContext context = generator.spawn().orElseThrow(IllegalStateException::new);
+        structure.generate(context, instanceData, RCConfig.getUniversalTransformer());
+        return instanceData;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.ivtoolkit.blocks.IvBlockCollection;
+import ivorius.ivtoolkit.tools.IvWorldData;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.utils.expression.BlockExpression;
+import ivorius.reccomplex.world.gen.feature.structure.Structure;
+import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import ivorius.reccomplex.world.gen.feature.structure.generic.WeightedBiomeMatcher;
+import ivorius.reccomplex.world.gen.feature.structure.generic.WeightedDimensionMatcher;
+import ivorius.reccomplex.world.gen.feature.structure.generic.generation.NaturalGeneration;
+import ivorius.reccomplex.world.gen.feature.structure.generic.transformers.TransformerMulti;
+import ivorius.reccomplex.world.gen.feature.structure.generic.transformers.TransformerNatural;
+import ivorius.reccomplex.world.gen.feature.structure.generic.transformers.TransformerRuins;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.*;
+
+/**
+ * Builds structures from seeds, so every run benchmarks the same corpus without shipping structure files.
+ */
+public class SyntheticStructures
+{
+    public static final String CATEGORY = "benchmark";
+
+    public static final Map<String, int[]> SIZES = new HashMap<>();
+
+    private static final String[] BIOME_EXPRESSIONS = {
+            "$PLAINS", "$FOREST", "$PLAINS | $FOREST", "$SNOWY & !$OCEAN", "$HILLS | $MOUNTAIN",
+            "$SANDY", "!$OCEAN & !$RIVER", "$SWAMP", "minecraft:plains", "$JUNGLE | $SAVANNA"
+    };
+
+    static
+    {
+        SIZES.put("small", new int[]{8, 8, 8});
+        SIZES.put("medium", new int[]{32, 24, 32});
+        SIZES.put("huge", new int[]{128, 64, 128});
+    }
+
+    public static int[] size(String name)
+    {
+        int[] size = SIZES.get(name);
+        if (size == null)
+            throw new IllegalArgumentException("Unknown structure size: " + name);
+        return size;
+    }
+
+    /**
+     * A building: a shell of mixed walls with holes, a floor every few layers and some clutter inside.
+     */
+    public static IvWorldData worldData(long seed, int[] size)
+    {
+        Random random = new Random(seed);
+        IBlockState[] walls = {Blocks.STONEBRICK.getDefaultState(), Blocks.COBBLESTONE.getDefaultState(), Blocks.PLANKS.getDefaultState(), Blocks.GLASS.getDefaultState()};
+        IBlockState[] clutter = {Blocks.BOOKSHELF.getDefaultState(), Blocks.CRAFTING_TABLE.getDefaultState(), Blocks.WOOL.getDefaultState(), Blocks.LOG.getDefaultState()};
+
+        IvWorldData worldData = new IvWorldData(new IvBlockCollection(size[0], size[1], size[2]), new ArrayList<>(), new ArrayList<>());
+
+        for (BlockPos pos : worldData.blockCollection.area())
+        {
+            boolean wall = pos.getX() == 0 || pos.getX() == size[0] - 1 || pos.getZ() == 0 || pos.getZ() == size[2] - 1;
+            boolean floor = pos.getY() % 6 == 0;
+
+            IBlockState state;
+            if ((wall || floor) && random.nextFloat() < 0.9f)
+                state = walls[random.nextInt(walls.length)];
+            else if (random.nextFloat() < 0.05f)
+                state = clutter[random.nextInt(clutter.length)];
+            else
+                state = Blocks.AIR.getDefaultState();
+
+            worldData.blockCollection.setBlockState(pos, state);
+        }
+
+        return worldData;
+    }
+
+    public static GenericStructure structure(long seed, int[] size)
+    {
+        Random random = new Random(seed);
+
+        GenericStructure structure = new GenericStructure();
+        structure.rotatable = true;
+        structure.mirrorable = true;
+        structure.blocking = true;
+        structure.worldDataCompound = worldData(random.nextLong(), size).createTagCompound();
+
+        TransformerMulti.Data transformers = new TransformerMulti.Data();
+        transformers.transformers.add(new TransformerNatural(null, BlockExpression.of(RecurrentComplex.specialRegistry, Blocks.STONEBRICK),
+                TransformerNatural.DEFAULT_NATURAL_EXPANSION_DISTANCE, TransformerNatural.DEFAULT_NATURAL_EXPANSION_RANDOMIZATION));
+        transformers.transformers.add(new TransformerRuins());
+        structure.transformer.getData().setContents(transformers);
+
+        structure.generationTypes.add(naturalGeneration(random));
+
+        return structure;
+    }
+
+    public static NaturalGeneration naturalGeneration(Random random)
+    {
+        NaturalGeneration generation = new NaturalGeneration(null, CATEGORY);
+        generation.setGenerationWeight(0.1 + random.nextDouble() * 2);
+        generation.biomeWeights.setContents(
+                new WeightedBiomeMatcher(BIOME_EXPRESSIONS[random.nextInt(BIOME_EXPRESSIONS.length)], null),
+                new WeightedBiomeMatcher(BIOME_EXPRESSIONS[random.nextInt(BIOME_EXPRESSIONS.length)], random.nextDouble())
+        );
+        generation.dimensionWeights.setContents(new WeightedDimensionMatcher("0", null));
+        return generation;
+    }
+
+    /**
+     * Many small structures that differ only in where and how often they generate, as the selectors see them.
+     */
+    public static Map<String, Structure<?>> selectable(int count, long seed)
+    {
+        Random random = new Random(seed);
+        NBTTagCompound worldData = worldData(seed, size("small")).createTagCompound();
+
+        Map<String, Structure<?>> structures = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++)
+        {
+            GenericStructure structure = new GenericStructure();
+            structure.worldDataCompound = worldData;
+            structure.generationTypes.add(naturalGeneration(random));
+            structures.put("benchmark_" + i, structure);
+        }
+        return structures;
+    }
+}
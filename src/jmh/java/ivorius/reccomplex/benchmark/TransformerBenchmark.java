@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.ivtoolkit.tools.IvWorldData;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.utils.expression.BlockExpression;
+import ivorius.reccomplex.world.gen.feature.structure.Environment;
+import ivorius.reccomplex.world.gen.feature.structure.context.StructurePrepareContext;
+import ivorius.reccomplex.world.gen.feature.structure.context.StructureSpawnContext;
+import ivorius.reccomplex.world.gen.feature.structure.generic.transformers.*;
+import net.minecraft.init.Blocks;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preparing a single transformer for a structure, which is where the natural and ruins transformers build their clouds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransformerBenchmark
+{
+    @Param({"natural", "ruins"})
+    public String transformer;
+
+    @Param({"small", "medium", "huge"})
+    public String size;
+
+    protected TransformerMulti multi;
+    protected IvWorldData worldData;
+    protected StructureBoundingBox boundingBox;
+    protected Environment environment;
+
+    @Setup
+    public void setup()
+    {
+        Transformer transformer;
+        switch (this.transformer)
+        {
+            case "natural":
+                transformer = new TransformerNatural(null, BlockExpression.of(RecurrentComplex.specialRegistry, Blocks.STONEBRICK),
+                        TransformerNatural.DEFAULT_NATURAL_EXPANSION_DISTANCE, TransformerNatural.DEFAULT_NATURAL_EXPANSION_RANDOMIZATION);
+                break;
+            case "ruins":
+                transformer = new TransformerRuins();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown transformer: " + this.transformer);
+        }
+        multi = new TransformerMulti(null, "", Collections.singletonList(transformer));
+
+        int[] size = SyntheticStructures.size(this.size);
+        worldData = SyntheticStructures.worldData(this.size.hashCode(), size);
+
+        boundingBox = new StructureBoundingBox(8, NoiseTerrain.SEA_LEVEL, 8, 8 + size[0] - 1, NoiseTerrain.SEA_LEVEL + size[1] - 1, 8 + size[2] - 1);
+        environment = Environment.inNature(HeadlessWorld.get(), boundingBox);
+    }
+
+    @Benchmark
+    public TransformerMulti.InstanceData prepare()
+    {
+        StructurePrepareContext context = new StructurePrepareContext(AxisAlignedTransform2D.ORIGINAL, boundingBox, false, environment, new Random(0), StructureSpawnContext.GenerateMaturity.FIRST);
+
+        TransformerMulti.InstanceData instanceData = multi.prepareInstanceData(context, worldData);
+        multi.configureInstanceData(instanceData, context, worldData, new RunTransformer(multi, instanceData));
+        return instanceData;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.benchmark;
+
+import ivorius.reccomplex.world.gen.feature.WorldgenProfiler;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the profiler adds to generating a structure, which enters a handful of phases.
+ * Compare against {@link #baseline()}; disabled should be about even with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WorldgenProfilerBenchmark
+{
+    private static final WorldgenProfiler.Phase[] PHASES = {WorldgenProfiler.Phase.TRANSFORM_BEFORE, WorldgenProfiler.Phase.BLOCKS, WorldgenProfiler.Phase.RELIGHT, WorldgenProfiler.Phase.TRANSFORM_AFTER};
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    protected StructureBoundingBox bounds;
+    protected long work;
+
+    @Setup
+    public void setup()
+    {
+        bounds = new StructureBoundingBox(8, 8, 23, 23);
+
+        if (enabled)
+            WorldgenProfiler.enable();
+        else
+            WorldgenProfiler.disable();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        WorldgenProfiler.disable();
+    }
+
+    protected long work(long seed)
+    {
+        // Something for the phases to wrap, so they aren't optimized into nothing
+        return seed * 6364136223846793005L + 1442695040888963407L;
+    }
+
+    @Benchmark
+    public long baseline()
+    {
+        long work = this.work;
+        for (int i = 0; i < 4; i++)
+            work = work(work);
+        return this.work = work;
+    }
+
+    @Benchmark
+    public long generate()
+    {
+        long work = this.work;
+
+        WorldgenProfiler.start("benchmark", WorldgenProfiler.Phase.GENERATE, bounds);
+        for (WorldgenProfiler.Phase phase : PHASES)
+        {
+            WorldgenProfiler.start(phase);
+            work = work(work);
+            WorldgenProfiler.stop();
+        }
+        WorldgenProfiler.stop();
+
+        return this.work = work;
+    }
+}
@@ -13,6 +13,7 @@ import gnu.trove.map.hash.TObjectFloatHashMap;
 import it.unimi.dsi.fastutil.Hash;
 import ivorius.reccomplex.files.loading.RCFileSuffix;
 import ivorius.reccomplex.utils.RawResourceLocation;
+import ivorius.reccomplex.utils.algebra.BoolFunctionExpressionCache;
 import ivorius.reccomplex.utils.algebra.ExpressionCache;
 import ivorius.reccomplex.utils.expression.BiomeExpression;
 import ivorius.reccomplex.utils.expression.CommandExpression;
@@ -56,6 +57,7 @@ public class RCConfig
     private static final TObjectFloatMap<String> spawnTweaks = new TObjectFloatHashMap<>(Hash.DEFAULT_INITIAL_SIZE, Hash.DEFAULT_LOAD_FACTOR, 1);
     public static float structureSpawnChanceModifier = 1.0f;
     public static boolean avoidOverlappingGeneration;
+    public static boolean batchedRelighting;
     public static boolean honorStructureGenerationOption;
 
     public static boolean generateNature;
@@ -71,6 +73,8 @@ public class RCConfig
     public static int asCommandPermissionLevel;
 
     public static boolean savePlayerCache;
+    public static boolean watchResourceDirectories;
+    public static float operationBudgetPerTick;
     public static boolean notifyAdminOnBlockCommands;
 
     public static boolean postWorldStatus;
@@ -90,6 +94,7 @@ public class RCConfig
 
     private static BiomeExpression universalBiomeExpression = new BiomeExpression();
     private static DimensionExpression universalDimensionExpression = new DimensionExpression();
+    private static volatile byte[] biomeGenerationStates = new byte[0]; // By biome id: 0 = unresolved, 1 = enabled, 2 = disabled
 
     private static ResourceExpression failingStructureLogExpression = new ResourceExpression(s -> true);
 
@@ -98,6 +103,7 @@ public class RCConfig
 
     public static float mazePlacementReversesPerRoom;
     public static long mazeTimeout;
+    public static int mazeVariableAssignments;
 
     public static final Map<String, Boolean> globalToggles = new HashMap<>();
 
@@ -118,6 +124,8 @@ public class RCConfig
             asCommandPermissionLevel = config.getInt("asCommandPermissionLevel", CATEGORY_DECORATION, 4, -1, 10, "The required permission level for /#as to function. Set to 2 for command blocks and OPs, 4 for only server, or -1 to disable. Note that this could be a security problem on low levels.");
 
             savePlayerCache = config.getBoolean("savePlayerCache", CATEGORY_GENERAL, true, "Whether player caches like the clipboard and previewed operations will be saved and loaded.");
+            watchResourceDirectories = config.getBoolean("watchResourceDirectories", CATEGORY_GENERAL, false, "Watch the structures directories of the game and the world while a server is running, and reload files as soon as they are added, changed or removed.");
+            operationBudgetPerTick = config.getFloat("operationBudgetPerTick", CATEGORY_GENERAL, 20, 0, 1000, "Milliseconds per tick each confirmed operation (like generating, pasting or clearing an area) may take. Larger operations are spread over several ticks. Set to 0 to always perform operations in one go.");
             notifyAdminOnBlockCommands = config.getBoolean("notifyAdminOnBlockCommands", CATEGORY_GENERAL, false, "Disabling this will prevent spawn command blocks from notifying the server admins, as normal commands would.");
 
             postWorldStatus = config.getBoolean("postWorldStatus", CATEGORY_GENERAL, true, "Once per world, post the status of ReC to the admins.");
@@ -129,6 +137,7 @@ public class RCConfig
         if (configID == null || configID.equals(CATEGORY_BALANCING))
         {
             avoidOverlappingGeneration = config.getBoolean("avoidOverlappingGeneration", CATEGORY_BALANCING, true, "Enabling this will cancel any structure generation if another structure is present at the cooridnate already.");
+            batchedRelighting = config.getBoolean("batchedRelighting", CATEGORY_BALANCING, true, "Relight generated structures chunk by chunk, deferring light spreading into neighbouring columns. Disable this if you notice lighting glitches around structures.");
             honorStructureGenerationOption = config.getBoolean("honorStructureGenerationOption", CATEGORY_BALANCING, true, "If disabled, Recurrent Complex will generate structures in worlds without the structure generation option.");
 
             generateNature = config.getBoolean("generateNature", CATEGORY_BALANCING, true, "Whether the nature (e.g. trees, mushrooms) added by the mod should be actively generating.");
@@ -153,6 +162,7 @@ public class RCConfig
 
             universalBiomeExpression.setExpression(config.getString("universalBiomeMatcher", CATEGORY_BALANCING, "", "Biome Expression that will be checked for every single structure. Use this if you want to blacklist / whitelist specific biomes that shouldn't have structures."));
             logExpressionException(universalBiomeExpression, "universalBiomeMatcher", RecurrentComplex.logger);
+            biomeGenerationStates = new byte[0];
 
             universalDimensionExpression.setExpression(config.getString("universalDimensionMatcher", CATEGORY_BALANCING, "", "Dimension Expression that will be checked for every single structure. Use this if you want to blacklist / whitelist specific dimensions that shouldn't have structures."));
             logExpressionException(universalDimensionExpression, "universalDimensionMatcher", RecurrentComplex.logger);
@@ -171,6 +181,7 @@ public class RCConfig
 
             mazePlacementReversesPerRoom = config.getFloat("mazePlacementReversesPerRoom", CATEGORY_BALANCING, 3, -1, 100, "Maximum number of reverses per room the maze generator can do. A higher number results in a better generation success rate, but may freeze the server temporarily.");
             mazeTimeout = config.getInt("mazeTimeout", CATEGORY_BALANCING, 20000, -1, 600000, "Maze generation timeout, in milliseconds. After the time is over, the maze generation will just give up.");
+            mazeVariableAssignments = config.getInt("mazeVariableAssignments", CATEGORY_BALANCING, 0, 0, 65536, "Maximum number of variable assignments a maze considers per room structure, or 0 for no limit. Rooms whose logic variables have more possible assignments than this use up to this many distinct, randomly chosen assignments instead.");
 
             universalTransformer = null;
             Collections.addAll(universalTransformerPresets, config.getStringList("universalTransformerPresets", CATEGORY_BALANCING, new String[0], "Transformer preset names that are gonna be applied to every single generating structure. Use this if you need to enforce specific rules (e.g. \"don't ever spawn wood blocks\" (with a replace transformer)."));
@@ -268,6 +279,26 @@ public class RCConfig
     }
 
     public static boolean isGenerationEnabled(Biome biome)
+    {
+        int id = Biome.getIdForBiome(biome);
+        if (id < 0 || universalBiomeExpression.getExpression().contains(BoolFunctionExpressionCache.GLOBAL_PREFIX))
+            return testGenerationEnabled(biome);
+
+        byte[] states = biomeGenerationStates;
+        if (id < states.length && states[id] != 0)
+            return states[id] == 1;
+
+        boolean enabled = testGenerationEnabled(biome);
+
+        // Biomes may be registered late, so grow on demand
+        states = Arrays.copyOf(states, Math.max(states.length, id + 1));
+        states[id] = (byte) (enabled ? 1 : 2);
+        biomeGenerationStates = states;
+
+        return enabled;
+    }
+
+    protected static boolean testGenerationEnabled(Biome biome)
     {
         return !universalBiomeExpression.isExpressionValid() || universalBiomeExpression.test(biome);
     }
@@ -28,7 +28,7 @@ import ivorius.reccomplex.random.Poem;
 import ivorius.reccomplex.utils.FMLUtils;
 import ivorius.reccomplex.utils.presets.PresetRegistry;
 import ivorius.reccomplex.world.gen.feature.GenerationSanityChecker;
-import ivorius.reccomplex.world.gen.feature.RCWorldgenMonitor;
+import ivorius.reccomplex.world.gen.feature.selector.GenerationWeightTable;
 import ivorius.reccomplex.world.gen.feature.selector.NaturalStructureSelector;
 import ivorius.reccomplex.world.gen.feature.structure.StructureRegistry;
 import ivorius.reccomplex.world.gen.feature.structure.generic.StructureSaveHandler;
@@ -284,6 +284,53 @@ public class RCRegistryHandler
         worldScriptRegistry.register("command", WorldScriptCommand.class);
         worldScriptRegistry.register("holder", WorldScriptHolder.class);
 
+        registerSerialization(mcRegistry);
+
+        StructureRegistry.INSTANCE.registerModule(new NaturalGeneration.Cache());
+        StructureRegistry.INSTANCE.registerModule(new VanillaDecorationGeneration.Cache());
+        StructureRegistry.INSTANCE.registerModule(new VanillaGeneration.Cache());
+        StructureRegistry.INSTANCE.registerModule(new StaticGenerationIndex.Cache());
+        StructureRegistry.INSTANCE.registerModule(new GenerationWeightTable.Cache());
+        StructureRegistry.INSTANCE.registerModule(new ListGeneration.Cache());
+        StructureRegistry.INSTANCE.registerModule(new MazeGeneration.Cache());
+
+        MazeRuleRegistry mazeRuleRegistry = MazeRuleRegistry.INSTANCE;
+        mazeRuleRegistry.register("connect", MazeRuleConnect.class);
+        mazeRuleRegistry.register("connectall", MazeRuleConnectAll.class);
+
+        registerOperations();
+
+//        GameRegistry.registerWorldGenerator(new WorldGenStructures(), 50);
+        RCLoot.registerVanillaLootTables();
+//        MapGenStructureIO.func_143031_a(GenericVillagePiece.class, "RcGSP");
+//        VillagerRegistry.instance().registerVillageCreationHandler(new GenericVillageCreationHandler("DesertHut"));
+
+        // So it's placeable in furnaces
+        GameRegistry.registerFuelHandler(fuel -> fuel.getItem() instanceof GeneratingItem ? 1 : 0);
+    }
+
+    public static void registerOperations()
+    {
+        OperationRegistry.register("multi", OperationMulti.class);
+        OperationRegistry.register("strucGen", OperationGenerateStructure.class);
+        OperationRegistry.register("schemGen", OperationGenerateSchematic.class);
+        OperationRegistry.register("clearArea", OperationClearArea.class);
+        OperationRegistry.register("pasteClipboard", OperationPasteClipboard.class);
+        OperationRegistry.register("previewShape", OperationPreviewShape.class);
+    }
+
+    protected static <T> void dumpAll(PresetRegistry<T> presets)
+    {
+        // TODO Broken
+        presets.allIDs().forEach(s -> saver.trySave(ResourceDirectory.ACTIVE.toPath(), presets.getFileSuffix(), s));
+    }
+
+    /**
+     * Registers the serializable types structures are made of.
+     * Needs nothing but the registry, so it can also be used outside of a running game.
+     */
+    public static void registerSerialization(MCRegistry mcRegistry)
+    {
         SerializableStringTypeRegistry<Transformer> transformerRegistry = StructureRegistry.TRANSFORMERS;
         transformerRegistry.registerType("multi", TransformerMulti.class, new TransformerMulti.Serializer());
         transformerRegistry.registerType("worldscript", TransformerWorldScript.class, new TransformerWorldScript.Serializer(mcRegistry));
@@ -307,10 +354,6 @@ public class RCRegistryHandler
         genInfoRegistry.registerType("sapling", SaplingGeneration.class, new SaplingGeneration.Serializer());
         genInfoRegistry.registerType("decoration", VanillaDecorationGeneration.class, new VanillaDecorationGeneration.Serializer());
 
-        StructureRegistry.INSTANCE.registerModule(new NaturalGeneration.Cache());
-        StructureRegistry.INSTANCE.registerModule(new VanillaDecorationGeneration.Cache());
-        StructureRegistry.INSTANCE.registerModule(new VanillaGeneration.Cache());
-
         SerializableStringTypeRegistry<GenericPlacer.Factor> placerFactorRegistry = FactorRegistry.INSTANCE.getTypeRegistry();
         placerFactorRegistry.registerType("limit", FactorLimit.class, new FactorLimit.Serializer());
         placerFactorRegistry.registerType("match", FactorMatch.class, new FactorMatch.Serializer());
@@ -321,31 +364,6 @@ public class RCRegistryHandler
         rayRegistry.registerType("matcher", RayMatcher.class, new RayMatcher.Serializer());
         rayRegistry.registerType("average", RayAverageMatcher.class, new RayAverageMatcher.Serializer());
         rayRegistry.registerType("dynmove", RayDynamicMove.class, null);
-
-        MazeRuleRegistry mazeRuleRegistry = MazeRuleRegistry.INSTANCE;
-        mazeRuleRegistry.register("connect", MazeRuleConnect.class);
-        mazeRuleRegistry.register("connectall", MazeRuleConnectAll.class);
-
-        OperationRegistry.register("multi", OperationMulti.class);
-        OperationRegistry.register("strucGen", OperationGenerateStructure.class);
-        OperationRegistry.register("schemGen", OperationGenerateSchematic.class);
-        OperationRegistry.register("clearArea", OperationClearArea.class);
-
-//        GameRegistry.registerWorldGenerator(new WorldGenStructures(), 50);
-        RCLoot.registerVanillaLootTables();
-//        MapGenStructureIO.func_143031_a(GenericVillagePiece.class, "RcGSP");
-//        VillagerRegistry.instance().registerVillageCreationHandler(new GenericVillageCreationHandler("DesertHut"));
-
-        // So it's placeable in furnaces
-        GameRegistry.registerFuelHandler(fuel -> fuel.getItem() instanceof GeneratingItem ? 1 : 0);
-
-        RCWorldgenMonitor.create();
-    }
-
-    protected static <T> void dumpAll(PresetRegistry<T> presets)
-    {
-        // TODO Broken
-        presets.allIDs().forEach(s -> saver.trySave(ResourceDirectory.ACTIVE.toPath(), presets.getFileSuffix(), s));
     }
 
     public static void registerPackets(FMLInitializationEvent event)
@@ -14,16 +14,19 @@ import ivorius.reccomplex.events.handlers.RCTerrainGenEventHandler;
 import ivorius.reccomplex.files.loading.FileLoader;
 import ivorius.reccomplex.files.loading.LeveledRegistry;
 import ivorius.reccomplex.files.loading.ResourceDirectory;
+import ivorius.reccomplex.files.loading.ResourceWatcher;
 import ivorius.reccomplex.files.saving.FileSaver;
 import ivorius.reccomplex.gui.RCGuiHandler;
 import ivorius.reccomplex.gui.container.IvGuiRegistry;
 import ivorius.mcopts.translation.ServerTranslations;
 import ivorius.reccomplex.world.gen.feature.structure.registry.MCRegistrySpecial;
+import ivorius.reccomplex.world.storage.ClipboardDirectories;
 import ivorius.reccomplex.world.gen.feature.structure.schematics.SchematicLoader;
 import ivorius.reccomplex.utils.*;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.event.RegistryEvent;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.Mod.EventHandler;
@@ -34,6 +37,7 @@ import net.minecraftforge.fml.common.network.NetworkCheckHandler;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
 import net.minecraftforge.fml.relauncher.Side;
+import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Map;
@@ -65,6 +69,7 @@ public class RecurrentComplex
 
     public static FileLoader loader;
     public static FileSaver saver;
+    public static ResourceWatcher resourceWatcher;
     public static MCRegistry mcRegistry;
 
     public static FMLRemapper remapper;
@@ -180,5 +185,18 @@ public class RecurrentComplex
     public void onServerStarted(FMLServerStartedEvent event)
     {
         ResourceDirectory.tryReload(loader, LeveledRegistry.Level.SERVER);
+
+        // Pastes that were still running are loaded with their worlds by now
+        ClipboardDirectories.deleteUnreferenced(FMLCommonHandler.instance().getMinecraftServerInstance());
+
+        if (RCConfig.watchResourceDirectories)
+            resourceWatcher = ResourceDirectory.tryWatch();
+    }
+
+    @EventHandler
+    public void onServerStopping(FMLServerStoppingEvent event)
+    {
+        IOUtils.closeQuietly(resourceWatcher);
+        resourceWatcher = null;
     }
 }
\ No newline at end of file
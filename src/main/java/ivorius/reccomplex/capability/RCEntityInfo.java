@@ -9,11 +9,16 @@ import io.netty.buffer.ByteBuf;
 import ivorius.ivtoolkit.network.IvNetworkHelperServer;
 import ivorius.ivtoolkit.network.PartialUpdateHandler;
 import ivorius.ivtoolkit.tools.NBTCompoundObject;
+import ivorius.ivtoolkit.tools.NBTCompoundObjects;
 import ivorius.reccomplex.RCConfig;
 import ivorius.reccomplex.RecurrentComplex;
 import ivorius.reccomplex.operation.Operation;
 import ivorius.reccomplex.operation.OperationRegistry;
+import ivorius.reccomplex.operation.OperationScheduler;
 import ivorius.reccomplex.utils.RCPacketBuffer;
+import ivorius.reccomplex.world.storage.ClipboardDirectories;
+import ivorius.reccomplex.world.storage.SectionClipboard;
+import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
@@ -24,6 +29,8 @@ import net.minecraftforge.common.capabilities.CapabilityInject;
 import net.minecraftforge.common.capabilities.ICapabilityProvider;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
 
 import javax.annotation.Nullable;
 
@@ -47,7 +54,7 @@ public class RCEntityInfo implements NBTCompoundObject, PartialUpdateHandler
 
     private NBTTagCompound cachedExportStructureBlockDataNBT;
 
-    private NBTTagCompound worldDataClipboard;
+    private SectionClipboard clipboard;
 
     @Nullable
     public static RCEntityInfo get(Object object, @Nullable EnumFacing facing)
@@ -99,14 +106,17 @@ public class RCEntityInfo implements NBTCompoundObject, PartialUpdateHandler
         this.cachedExportStructureBlockDataNBT = cachedExportStructureBlockDataNBT;
     }
 
-    public NBTTagCompound getWorldDataClipboard()
+    public SectionClipboard getClipboard()
     {
-        return worldDataClipboard;
+        return clipboard;
     }
 
-    public void setWorldDataClipboard(NBTTagCompound worldDataClipboard)
+    /**
+     * Pastes may still use the previous clipboard, so its folder is left to {@link ClipboardDirectories}.
+     */
+    public void setClipboard(SectionClipboard clipboard)
     {
-        this.worldDataClipboard = worldDataClipboard;
+        this.clipboard = clipboard;
     }
 
     public void queueOperation(Operation operation, Entity owner)
@@ -119,8 +129,10 @@ public class RCEntityInfo implements NBTCompoundObject, PartialUpdateHandler
     {
         if (danglingOperation != null)
         {
-            danglingOperation.perform(world);
+            // Let go first, so a paste performed right away releases its clipboard
+            Operation operation = danglingOperation;
             danglingOperation = null;
+            OperationScheduler.perform(operation, world);
             sendOperationToClients(owner);
             return true;
         }
@@ -149,8 +161,8 @@ public class RCEntityInfo implements NBTCompoundObject, PartialUpdateHandler
         {
             if (danglingOperation != null)
                 compound.setTag("danglingOperation", OperationRegistry.writeOperation(danglingOperation));
-            if (worldDataClipboard != null)
-                compound.setTag("worldDataClipboard", worldDataClipboard);
+            if (clipboard != null)
+                compound.setTag("clipboard", NBTCompoundObjects.write(clipboard));
         }
 
         compound.setBoolean("showGrid", showGrid);
@@ -165,8 +177,10 @@ public class RCEntityInfo implements NBTCompoundObject, PartialUpdateHandler
         {
             if (compound.hasKey("danglingOperation", Constants.NBT.TAG_COMPOUND))
                 danglingOperation = OperationRegistry.readOperation(compound.getCompoundTag("danglingOperation"));
-            if (compound.hasKey("worldDataClipboard", Constants.NBT.TAG_COMPOUND))
-                worldDataClipboard = compound.getCompoundTag("worldDataClipboard");
+            if (compound.hasKey("clipboard", Constants.NBT.TAG_COMPOUND))
+                clipboard = NBTCompoundObjects.read(compound.getCompoundTag("clipboard"), SectionClipboard::new);
+            else if (compound.hasKey("worldDataClipboard", Constants.NBT.TAG_COMPOUND))
+                clipboard = SectionClipboard.of(compound.getCompoundTag("worldDataClipboard"));
         }
 
         showGrid = compound.getBoolean("showGrid");
@@ -216,6 +230,21 @@ public class RCEntityInfo implements NBTCompoundObject, PartialUpdateHandler
         }
     }
 
+    /**
+     * Swaps the previewed operation on the main thread, since the update arrives on the network thread while the
+     * old preview may be rendering.
+     */
+    @SideOnly(Side.CLIENT)
+    protected void replaceDanglingOperation(@Nullable Operation operation)
+    {
+        Minecraft.getMinecraft().addScheduledTask(() ->
+        {
+            if (danglingOperation != null)
+                danglingOperation.discardPreview();
+            danglingOperation = operation;
+        });
+    }
+
     @Override
     public void readUpdateData(ByteBuf buffer, String context)
     {
@@ -225,16 +254,19 @@ public class RCEntityInfo implements NBTCompoundObject, PartialUpdateHandler
         }
         else if ("operation".equals(context))
         {
+            Operation operation;
             try
             {
                 NBTTagCompound tag = new RCPacketBuffer(buffer).readBigTag();
-                danglingOperation = tag != null ? OperationRegistry.readOperation(tag) : null;
+                operation = tag != null ? OperationRegistry.readOperation(tag) : null;
             }
             catch (Exception e)
             {
                 RecurrentComplex.logger.warn("Error reading operation tag", e);
-                danglingOperation = null;
+                operation = null;
             }
+
+            replaceDanglingOperation(operation);
         }
         else if ("options".equals(context))
         {
@@ -0,0 +1,187 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.client.rendering;
+
+import net.minecraft.util.EnumFacing;
+
+import java.util.Arrays;
+
+/**
+ * Builds the surface of a grid of cells, merging coplanar faces into as few rectangles as possible.
+ * Doesn't touch GL, so it can run on any thread; see {@link PreviewMesh} for uploading the result.
+ */
+public class GreedyMesher
+{
+    public interface Occupancy
+    {
+        boolean isOccupied(int x, int y, int z);
+    }
+
+    public interface Faces
+    {
+        /**
+         * @return Whether the cell shows a face towards the direction. Only called for cells within the mesh.
+         */
+        boolean hasFace(int x, int y, int z, EnumFacing direction);
+    }
+
+    /**
+     * Meshes the outside of the occupied cells.
+     */
+    public static Mesh mesh(int[] size, Occupancy occupancy)
+    {
+        boolean[] occupied = new boolean[size[0] * size[1] * size[2]];
+        for (int z = 0; z < size[2]; z++)
+            for (int y = 0; y < size[1]; y++)
+                for (int x = 0; x < size[0]; x++)
+                    occupied[x + size[0] * (y + size[1] * z)] = occupancy.isOccupied(x, y, z);
+
+        return mesh(size, (x, y, z, direction) ->
+        {
+            if (!occupied[x + size[0] * (y + size[1] * z)])
+                return false;
+
+            int nx = x + direction.getFrontOffsetX(), ny = y + direction.getFrontOffsetY(), nz = z + direction.getFrontOffsetZ();
+            return nx < 0 || ny < 0 || nz < 0 || nx >= size[0] || ny >= size[1] || nz >= size[2]
+                    || !occupied[nx + size[0] * (ny + size[1] * nz)];
+        });
+    }
+
+    public static Mesh mesh(int[] size, Faces faces)
+    {
+        Mesh mesh = new Mesh(size);
+
+        for (EnumFacing direction : EnumFacing.VALUES)
+        {
+            int axis = direction.getAxis().ordinal();
+            int uAxis = (axis + 1) % 3, vAxis = (axis + 2) % 3;
+            int offset = direction.getAxisDirection().getOffset();
+
+            boolean[] mask = new boolean[size[uAxis] * size[vAxis]];
+            int[] pos = new int[3];
+
+            for (int depth = 0; depth < size[axis]; depth++)
+            {
+                pos[axis] = depth;
+                for (pos[vAxis] = 0; pos[vAxis] < size[vAxis]; pos[vAxis]++)
+                    for (pos[uAxis] = 0; pos[uAxis] < size[uAxis]; pos[uAxis]++)
+                        mask[pos[uAxis] + size[uAxis] * pos[vAxis]] = faces.hasFace(pos[0], pos[1], pos[2], direction);
+
+                // Faces pointing in the positive direction lie on the far side of the cell
+                mergeQuads(mesh, mask, size[uAxis], size[vAxis], direction, axis, uAxis, vAxis, offset > 0 ? depth + 1 : depth);
+            }
+        }
+
+        return mesh;
+    }
+
+    protected static void mergeQuads(Mesh mesh, boolean[] mask, int width, int height, EnumFacing direction, int axis, int uAxis, int vAxis, int plane)
+    {
+        for (int v = 0; v < height; v++)
+        {
+            for (int u = 0; u < width; )
+            {
+                if (!mask[u + width * v])
+                {
+                    u++;
+                    continue;
+                }
+
+                int quadWidth = 1;
+                while (u + quadWidth < width && mask[u + quadWidth + width * v])
+                    quadWidth++;
+
+                int quadHeight = 1;
+                grow:
+                while (v + quadHeight < height)
+                {
+                    for (int i = 0; i < quadWidth; i++)
+                        if (!mask[u + i + width * (v + quadHeight)])
+                            break grow;
+                    quadHeight++;
+                }
+
+                for (int j = 0; j < quadHeight; j++)
+                    Arrays.fill(mask, u + width * (v + j), u + quadWidth + width * (v + j), false);
+
+                float[] min = new float[3], max = new float[3];
+                min[axis] = max[axis] = plane;
+                min[uAxis] = u;
+                max[uAxis] = u + quadWidth;
+                min[vAxis] = v;
+                max[vAxis] = v + quadHeight;
+                mesh.add(direction, min, max);
+
+                u += quadWidth;
+            }
+        }
+    }
+
+    /**
+     * Quads packed as facing index followed by the min and max corner, each quad spanning one plane.
+     */
+    public static class Mesh
+    {
+        public static final int STRIDE = 7;
+
+        public final int[] size;
+
+        protected float[] quads = new float[STRIDE * 64];
+        protected int quadCount;
+
+        public Mesh(int[] size)
+        {
+            this.size = size.clone();
+        }
+
+        protected void add(EnumFacing direction, float[] min, float[] max)
+        {
+            if ((quadCount + 1) * STRIDE > quads.length)
+                quads = Arrays.copyOf(quads, quads.length * 2);
+
+            int i = quadCount++ * STRIDE;
+            quads[i] = direction.getIndex();
+            System.arraycopy(min, 0, quads, i + 1, 3);
+            System.arraycopy(max, 0, quads, i + 4, 3);
+        }
+
+        public int quadCount()
+        {
+            return quadCount;
+        }
+
+        public EnumFacing direction(int quad)
+        {
+            return EnumFacing.getFront((int) quads[quad * STRIDE]);
+        }
+
+        public float get(int quad, int component)
+        {
+            return quads[quad * STRIDE + component];
+        }
+
+        /**
+         * @return The total area of all quads facing the direction, e.g. to check the surface is closed.
+         */
+        public float area(EnumFacing direction)
+        {
+            int axis = direction.getAxis().ordinal();
+            float area = 0;
+            for (int quad = 0; quad < quadCount; quad++)
+            {
+                if (direction(quad) != direction)
+                    continue;
+
+                float quadArea = 1;
+                for (int a = 0; a < 3; a++)
+                    if (a != axis)
+                        quadArea *= get(quad, 4 + a) - get(quad, 1 + a);
+                area += quadArea;
+            }
+            return area;
+        }
+    }
+}
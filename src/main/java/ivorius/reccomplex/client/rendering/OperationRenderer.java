@@ -7,22 +7,16 @@ package ivorius.reccomplex.client.rendering;
 
 import ivorius.ivtoolkit.blocks.BlockArea;
 import ivorius.reccomplex.utils.Icons;
-import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.util.math.BlockPos;
 import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
 import ivorius.ivtoolkit.rendering.grid.AreaRenderer;
-import ivorius.ivtoolkit.rendering.grid.CubeMesh;
-import ivorius.ivtoolkit.rendering.grid.GridQuadCache;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.OpenGlHelper;
-import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.util.ResourceLocation;
-import net.minecraft.util.EnumFacing;
 import net.minecraft.client.renderer.GlStateManager;
 import org.lwjgl.opengl.GL11;
 
 import javax.annotation.Nullable;
-import java.nio.FloatBuffer;
 
 /**
  * Created by lukas on 21.03.15.
@@ -44,50 +38,6 @@ public class OperationRenderer
         GlStateManager.translate(-size[0] * 0.5f, 0f, -size[2] * 0.5f);
     }
 
-    public static void renderGridQuadCache(GridQuadCache<?> cached, AxisAlignedTransform2D transform, BlockPos lowerCoord, int ticks, float partialTicks)
-    {
-        GlStateManager.enableBlend();
-        OpenGlHelper.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA, GL11.GL_ONE, GL11.GL_ZERO);
-        GlStateManager.alphaFunc(GL11.GL_GREATER, 0.5f);
-        GlStateManager.disableCull();
-
-        ResourceLocation curTex = Icons.frame(SelectionRenderer.LATTICE_TEXTURE, (ticks + partialTicks) * 0.75f);
-        Minecraft.getMinecraft().renderEngine.bindTexture(curTex);
-
-        GlStateManager.pushMatrix();
-        GlStateManager.translate(lowerCoord.getX(), lowerCoord.getY(), lowerCoord.getZ());
-        applyTransformVisual(transform, cached.getSize());
-
-        Tessellator tessellator = Tessellator.getInstance();
-        tessellator.getBuffer().begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX);
-        for (GridQuadCache.CachedQuadLevel<?> cachedQuadLevel : cached)
-        {
-            EnumFacing direction = cachedQuadLevel.direction;
-            float zLevel = cachedQuadLevel.zLevel + 0.01f * (direction.getFrontOffsetX() + direction.getFrontOffsetY() + direction.getFrontOffsetZ());
-
-            FloatBuffer quads = cachedQuadLevel.quads;
-            while (quads.position() < quads.limit() - 3)
-            {
-                float minX = quads.get(),
-                        minY = quads.get(),
-                        maxX = quads.get(),
-                        maxY = quads.get();
-                float[] minAxes = GridQuadCache.getNormalAxes(direction, zLevel, minX, minY);
-                float[] maxAxes = GridQuadCache.getNormalAxes(direction, zLevel, maxX, maxY);
-
-                CubeMesh.renderSide(direction, minAxes[0], minAxes[1], minAxes[2], maxAxes[0], maxAxes[1], maxAxes[2],
-                        Icons.from(minX, minY, maxX, maxY));
-            }
-            quads.position(0);
-        }
-        tessellator.draw();
-        GlStateManager.popMatrix();
-
-        GlStateManager.enableCull();
-        GlStateManager.alphaFunc(GL11.GL_GREATER, 0.002f);
-        GlStateManager.disableBlend();
-    }
-
     @Nullable
     public static BlockArea blockAreaFromSize(BlockPos lowerCoord, int[] size)
     {
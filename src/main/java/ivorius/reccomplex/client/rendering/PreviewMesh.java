@@ -0,0 +1,160 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.client.rendering;
+
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.ivtoolkit.rendering.grid.CubeMesh;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.utils.Icons;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import org.lwjgl.opengl.GL11;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * A preview shape that is meshed in the background and compiled into a display list once ready,
+ * so neither showing nor drawing a big preview stalls the client.
+ * Draws nothing until the mesh is done. Call {@link #delete()} on the main thread once the preview isn't needed anymore.
+ */
+@SideOnly(Side.CLIENT)
+public class PreviewMesh
+{
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable ->
+    {
+        Thread thread = new Thread(runnable, "RC Preview Mesher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    protected final float scale;
+
+    protected Future<GreedyMesher.Mesh> mesh;
+    protected float[] size;
+    protected int displayList = -1;
+
+    /**
+     * @param scale The size of a mesh cell in blocks.
+     * @param size  The size to transform the preview within, which the scaled mesh may overhang. If null, the scaled mesh size.
+     */
+    public PreviewMesh(Supplier<GreedyMesher.Mesh> mesher, float scale, @Nullable float[] size)
+    {
+        this.scale = scale;
+        this.size = size != null ? size.clone() : null;
+        this.mesh = EXECUTOR.submit(mesher::get);
+    }
+
+    public PreviewMesh(Supplier<GreedyMesher.Mesh> mesher)
+    {
+        this(mesher, 1, null);
+    }
+
+    protected boolean compile()
+    {
+        if (displayList >= 0)
+            return true;
+        if (mesh == null || !mesh.isDone())
+            return false;
+
+        GreedyMesher.Mesh mesh;
+        try
+        {
+            mesh = this.mesh.get();
+        }
+        catch (InterruptedException | ExecutionException e)
+        {
+            RecurrentComplex.logger.error("Could not build preview", e);
+            this.mesh = null;
+            return false;
+        }
+        this.mesh = null;
+
+        if (size == null)
+            size = new float[]{mesh.size[0] * scale, mesh.size[1] * scale, mesh.size[2] * scale};
+
+        displayList = GLAllocation.generateDisplayLists(1);
+        GlStateManager.glNewList(displayList, GL11.GL_COMPILE);
+
+        Tessellator tessellator = Tessellator.getInstance();
+        tessellator.getBuffer().begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX);
+        for (int quad = 0; quad < mesh.quadCount(); quad++)
+        {
+            EnumFacing direction = mesh.direction(quad);
+            int axis = direction.getAxis().ordinal();
+            int uAxis = (axis + 1) % 3, vAxis = (axis + 2) % 3;
+
+            float[] min = new float[3], max = new float[3];
+            for (int a = 0; a < 3; a++)
+            {
+                min[a] = mesh.get(quad, 1 + a) * scale;
+                max[a] = mesh.get(quad, 4 + a) * scale;
+            }
+
+            // Lift the quads off the blocks so they don't flicker
+            min[axis] = max[axis] = min[axis] + 0.01f * direction.getAxisDirection().getOffset();
+
+            CubeMesh.renderSide(direction, min[0], min[1], min[2], max[0], max[1], max[2],
+                    Icons.from(min[uAxis], min[vAxis], max[uAxis], max[vAxis]));
+        }
+        tessellator.draw();
+
+        GlStateManager.glEndList();
+
+        return true;
+    }
+
+    public void render(AxisAlignedTransform2D transform, BlockPos lowerCoord, int ticks, float partialTicks)
+    {
+        if (!compile())
+            return;
+
+        GlStateManager.enableBlend();
+        OpenGlHelper.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA, GL11.GL_ONE, GL11.GL_ZERO);
+        GlStateManager.alphaFunc(GL11.GL_GREATER, 0.5f);
+        GlStateManager.disableCull();
+
+        ResourceLocation curTex = Icons.frame(SelectionRenderer.LATTICE_TEXTURE, (ticks + partialTicks) * 0.75f);
+        Minecraft.getMinecraft().renderEngine.bindTexture(curTex);
+
+        GlStateManager.pushMatrix();
+        GlStateManager.translate(lowerCoord.getX(), lowerCoord.getY(), lowerCoord.getZ());
+        OperationRenderer.applyTransformVisual(transform, size);
+
+        GlStateManager.callList(displayList);
+
+        GlStateManager.popMatrix();
+
+        GlStateManager.enableCull();
+        GlStateManager.alphaFunc(GL11.GL_GREATER, 0.002f);
+        GlStateManager.disableBlend();
+    }
+
+    public void delete()
+    {
+        if (mesh != null)
+        {
+            mesh.cancel(true);
+            mesh = null;
+        }
+
+        if (displayList >= 0)
+        {
+            GLAllocation.deleteDisplayLists(displayList);
+            displayList = -1;
+        }
+    }
+}
@@ -8,12 +8,10 @@ package ivorius.reccomplex.client.rendering;
 import ivorius.ivtoolkit.blocks.BlockPositions;
 import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
 import ivorius.ivtoolkit.maze.components.MazeRoom;
-import ivorius.ivtoolkit.rendering.grid.GridQuadCache;
 import ivorius.reccomplex.gui.GuiHider;
 import ivorius.reccomplex.world.gen.feature.structure.generic.Selection;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 
 import java.util.Map;
@@ -26,7 +24,7 @@ public class SelectionQuadCache
     {
         public static final String NULL_PLACEHOLDER = "_null_";
 
-        protected GridQuadCache<?> quadCache;
+        protected PreviewMesh previewMesh;
         protected BlockPos lowerCoord;
 
         public Visualizer(Selection selection, MazeVisualizationContext context)
@@ -40,22 +38,26 @@ public class SelectionQuadCache
                     e -> e.getValue() != null ? e.getValue() : NULL_PLACEHOLDER // Hax, because null value crashes with NPE
             ));
 
-            quadCache = GridQuadCache.createQuadCache(realWorldSelection.boundsSize(), new float[]{1, 1, 1}, input -> {
-                BlockPos coord = input.getLeft();
-                EnumFacing direction = input.getRight();
-
+            // Faces between two different selections are drawn too, not only those into nothing
+            previewMesh = new PreviewMesh(() -> GreedyMesher.mesh(realWorldSelection.boundsSize(), (x, y, z, direction) ->
+            {
+                BlockPos coord = new BlockPos(x, y, z);
                 String cur = coords.get(coord);
-                return cur != null && !Objects.equals(coords.get(coord.offset(direction)), cur)
-                        ? cur
-                        : null;
-            });
+                return cur != null && !Objects.equals(coords.get(coord.offset(direction)), cur);
+            }));
         }
 
         @Override
         public void draw(Entity renderEntity, float partialTicks)
         {
             GlStateManager.color(0.8f, 0.75f, 0.5f);
-            OperationRenderer.renderGridQuadCache(quadCache, AxisAlignedTransform2D.ORIGINAL, lowerCoord, renderEntity.ticksExisted, partialTicks);
+            previewMesh.render(AxisAlignedTransform2D.ORIGINAL, lowerCoord, renderEntity.ticksExisted, partialTicks);
+        }
+
+        @Override
+        public void discard()
+        {
+            previewMesh.delete();
         }
     }
 }
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.commands;
+
+import ivorius.mcopts.commands.CommandSplit;
+import ivorius.mcopts.commands.SimpleCommand;
+import ivorius.reccomplex.RCConfig;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.world.gen.feature.WorldgenProfiler;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Times world generation per structure, see {@link WorldgenProfiler}.
+ */
+public class CommandProfile extends CommandSplit
+{
+    public CommandProfile()
+    {
+        super(RCConfig.commandPrefix + "profile");
+
+        add(new SimpleCommand("start", expect -> {})
+        {
+            @Override
+            public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+            {
+                WorldgenProfiler.enable();
+                sender.sendMessage(RecurrentComplex.translations.get("commands.rcprofile.start"));
+            }
+        });
+
+        add(new SimpleCommand("stop", expect -> {})
+        {
+            @Override
+            public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+            {
+                WorldgenProfiler.disable();
+                sender.sendMessage(RecurrentComplex.translations.get("commands.rcprofile.stop"));
+            }
+        });
+
+        add(new SimpleCommand("dump", expect -> {})
+        {
+            @Override
+            public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+            {
+                String name = "reccomplex-profile-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".csv";
+                File file = new File(server.getFile("logs"), name);
+
+                try
+                {
+                    Files.createDirectories(file.getParentFile().toPath());
+                    try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+                    {
+                        WorldgenProfiler.writeCSV(writer);
+                    }
+                }
+                catch (IOException e)
+                {
+                    RecurrentComplex.logger.error("Could not write profile", e);
+                    throw RecurrentComplex.translations.commandException("commands.rcprofile.failure", e.getMessage());
+                }
+
+                sender.sendMessage(RecurrentComplex.translations.format("commands.rcprofile.success", RCTextStyle.visit(file, "logs", name)));
+            }
+        });
+    }
+
+    @Override
+    public int getRequiredPermissionLevel()
+    {
+        return 4;
+    }
+}
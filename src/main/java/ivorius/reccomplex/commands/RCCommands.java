@@ -149,6 +149,7 @@ public class RCCommands
 
         event.registerServerCommand(new CommandRetrogen());
         event.registerServerCommand(new CommandDecorate());
+        event.registerServerCommand(new CommandProfile());
 
         event.registerServerCommand(new CommandEval());
     }
@@ -261,6 +262,18 @@ public class RCCommands
         }
     }
 
+    public static int tryReloadChanges(@Nonnull FileLoader loader, @Nonnull LeveledRegistry.Level level) throws CommandException
+    {
+        try
+        {
+            return ResourceDirectory.reloadChanges(loader, level);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new CommandException("Invalid reload type!");
+        }
+    }
+
     @Nonnull
     protected static String reason(RCFiles.ResourceLocationLoadException e)
     {
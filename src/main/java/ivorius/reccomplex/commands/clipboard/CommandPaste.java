@@ -17,18 +17,14 @@ import ivorius.reccomplex.capability.RCEntityInfo;
 import ivorius.reccomplex.commands.RCCommands;
 import ivorius.reccomplex.commands.parameters.IvP;
 import ivorius.reccomplex.commands.parameters.expect.RCE;
+import ivorius.reccomplex.operation.OperationPasteClipboard;
 import ivorius.reccomplex.operation.OperationRegistry;
-import ivorius.reccomplex.utils.RCBlockAreas;
-import ivorius.reccomplex.world.gen.feature.StructureGenerator;
-import ivorius.reccomplex.operation.OperationGenerateStructure;
-import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import ivorius.reccomplex.world.storage.SectionClipboard;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.WorldServer;
 
 /**
  * Created by lukas on 25.05.14.
@@ -69,31 +65,23 @@ public class CommandPaste extends CommandExpecting
         EntityPlayerMP entityPlayerMP = getCommandSenderAsPlayer(sender);
         RCEntityInfo entityInfo = RCCommands.getStructureEntityInfo(entityPlayerMP, null);
 
-        NBTTagCompound worldData = entityInfo.getWorldDataClipboard();
+        SectionClipboard clipboard = entityInfo.getClipboard();
 
-        if (worldData == null)
+        if (clipboard == null)
             throw RecurrentComplex.translations.commandException("commands.strucPaste.noClipboard");
 
-        WorldServer world = (WorldServer) sender.getEntityWorld();
         BlockPos pos = parameters.get(MCP.pos("x", "y", "z", sender.getPosition(), false)).require();
         AxisAlignedTransform2D transform = parameters.get(IvP.transform("rotation", "mirror")).optional().orElse(AxisAlignedTransform2D.ORIGINAL);
         String seed = parameters.get("seed").optional().orElse(null);
         boolean generate = parameters.has("generate");
 
-        GenericStructure structure = GenericStructure.createDefaultStructure();
-        structure.worldDataCompound = worldData;
+        OperationPasteClipboard operation = new OperationPasteClipboard(clipboard, transform, pos, generate)
+                .withSeed(seed);
 
         // TODO Generate with generation info?
-        OperationRegistry.queueOperation(new OperationGenerateStructure(structure, null, transform, pos, generate)
-                .withSeed(seed)
-                .prepare(world), sender);
+        OperationRegistry.queueOperation(operation, sender);
 
         if (parameters.has("select"))
-        {
-            StructureGenerator<?> generator = new StructureGenerator<>(structure).transform(transform).lowerCoord(pos);
-            // Can never not place so don't handle
-            //noinspection OptionalGetWithoutIsPresent
-            RCCommands.select(sender, RCBlockAreas.from(generator.boundingBox().get()));
-        }
+            RCCommands.select(sender, operation.generationArea());
     }
 }
@@ -6,7 +6,6 @@
 package ivorius.reccomplex.commands.clipboard;
 
 import ivorius.ivtoolkit.blocks.BlockArea;
-import ivorius.ivtoolkit.tools.IvWorldData;
 import ivorius.ivtoolkit.world.MockWorld;
 import ivorius.reccomplex.RCConfig;
 import ivorius.reccomplex.RecurrentComplex;
@@ -15,12 +14,16 @@ import ivorius.reccomplex.capability.SelectionOwner;
 import ivorius.reccomplex.commands.CommandVirtual;
 import ivorius.reccomplex.commands.RCCommands;
 import ivorius.reccomplex.commands.RCTextStyle;
+import ivorius.reccomplex.world.storage.ClipboardDirectories;
+import ivorius.reccomplex.world.storage.SectionClipboard;
 import ivorius.mcopts.commands.CommandExpecting;
 import ivorius.mcopts.commands.parameters.expect.Expect;
 import ivorius.mcopts.commands.parameters.Parameters;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
 
+import java.io.IOException;
+
 /**
  * Created by lukas on 09.06.14.
  */
@@ -52,9 +55,19 @@ public class CommandSelectCopy extends CommandExpecting implements CommandVirtua
         RCCommands.assertSize(sender, selectionOwner);
         BlockArea area = selectionOwner.getSelection();
 
-        IvWorldData worldData = IvWorldData.capture(world, area, true);
+        SectionClipboard clipboard;
+        try
+        {
+            clipboard = SectionClipboard.capture(world, area, SectionClipboard.newDirectoryName());
+        }
+        catch (IOException e)
+        {
+            RecurrentComplex.logger.error("Could not write clipboard", e);
+            throw RecurrentComplex.translations.commandException("commands.selectCopy.failure");
+        }
 
-        RCEntityInfo.setWorldDataClipboard(worldData.createTagCompound());
+        RCEntityInfo.setClipboard(clipboard);
+        ClipboardDirectories.deleteUnreferenced(sender.getServer());
         sender.sendMessage(RecurrentComplex.translations.format("commands.selectCopy.success", RCTextStyle.area(area)));
     }
 }
@@ -78,9 +78,8 @@ public class CommandDelete extends CommandExpecting
 
             RCCommands.informDeleteResult(RecurrentComplex.saver.tryDeleteWithID(directory.toPath(), adapterID, id), commandSender, adapterID, id, directory);
 
-            // Could also predict changes and just reload those for the file but eh.
-            RCCommands.tryReload(RecurrentComplex.loader, LeveledRegistry.Level.CUSTOM);
-            RCCommands.tryReload(RecurrentComplex.loader, LeveledRegistry.Level.SERVER);
+            RCCommands.tryReloadChanges(RecurrentComplex.loader, LeveledRegistry.Level.CUSTOM);
+            RCCommands.tryReloadChanges(RecurrentComplex.loader, LeveledRegistry.Level.SERVER);
         }
     }
 }
@@ -36,7 +36,8 @@ public class CommandReload extends CommandExpecting
     public void expect(Expect expect)
     {
         expect
-                .any(LeveledRegistry.Level.CUSTOM, LeveledRegistry.Level.MODDED, LeveledRegistry.Level.SERVER).descriptionU("level");
+                .any(LeveledRegistry.Level.CUSTOM, LeveledRegistry.Level.MODDED, LeveledRegistry.Level.SERVER).descriptionU("level")
+                .flag("full", "f");
     }
 
     @Override
@@ -48,7 +49,11 @@ public class CommandReload extends CommandExpecting
 
         try
         {
-            RCCommands.tryReload(RecurrentComplex.loader, level);
+            // Mod resources can't change on their own, so asking for them means asking for a full reload
+            if (parameters.has("full") || level == LeveledRegistry.Level.MODDED)
+                RCCommands.tryReload(RecurrentComplex.loader, level);
+            else
+                RCCommands.tryReloadChanges(RecurrentComplex.loader, level);
 
             commandSender.sendMessage(RecurrentComplex.translations.format("commands.strucReload.success", level));
         }
@@ -87,7 +87,7 @@ public class CommandWrite extends CommandExpecting
 
         commandSender.sendMessage(RecurrentComplex.translations.format("commands.rcsaveall.result", saved, RCTextStyle.path(directory), failed));
 
-        RCCommands.tryReload(RecurrentComplex.loader, LeveledRegistry.Level.CUSTOM);
-        RCCommands.tryReload(RecurrentComplex.loader, LeveledRegistry.Level.SERVER);
+        RCCommands.tryReloadChanges(RecurrentComplex.loader, LeveledRegistry.Level.CUSTOM);
+        RCCommands.tryReloadChanges(RecurrentComplex.loader, LeveledRegistry.Level.SERVER);
     }
 }
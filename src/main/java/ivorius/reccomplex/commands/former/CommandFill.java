@@ -5,7 +5,10 @@
 
 package ivorius.reccomplex.commands.former;
 
-import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import ivorius.ivtoolkit.blocks.BlockArea;
 import ivorius.ivtoolkit.blocks.BlockStates;
 import ivorius.ivtoolkit.math.IvShapeHelper;
@@ -30,11 +33,11 @@ import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -43,7 +46,14 @@ import java.util.stream.IntStream;
  */
 public class CommandFill extends CommandExpecting implements CommandVirtual
 {
-    public static final int MAX_FLOOD = 50 * 50 * 50;
+    public static final int MAX_FLOOD = 50 * 50 * 50 * 10;
+
+    /**
+     * Writes chunk section by chunk section, so consecutive writes mostly hit the same section.
+     */
+    public static final Comparator<BlockPos> SECTION_ORDER = Comparator.<BlockPos>comparingInt(p -> p.getX() >> 4)
+            .thenComparingInt(p -> p.getZ() >> 4).thenComparingInt(p -> p.getY() >> 4)
+            .thenComparingInt(BlockPos::getY).thenComparingInt(BlockPos::getZ).thenComparingInt(BlockPos::getX);
 
     public static void runShape(RCP.Shape shape, BlockArea area, Consumer<BlockPos> consumer) throws CommandException
     {
@@ -62,11 +72,39 @@ public class CommandFill extends CommandExpecting implements CommandVirtual
                 int[] areaSize = area.areaSize();
                 double[] spheroidSize = new double[]{areaSize[0] * 0.5, areaSize[1] * 0.5, areaSize[2] * 0.5};
 
-                for (BlockPos pos : area)
+                BlockPos lower = area.getLowerCorner();
+                BlockPos higher = area.getHigherCorner();
+
+                double[] coordPoint = new double[3];
+                for (int x = lower.getX(); x <= higher.getX(); x++)
                 {
-                    double[] coordPoint = new double[]{pos.getX(), pos.getY(), pos.getZ()};
-                    if (IvShapeHelper.isPointInSpheroid(coordPoint, spheroidOrigin, spheroidSize))
-                        consumer.accept(pos);
+                    for (int y = lower.getY(); y <= higher.getY(); y++)
+                    {
+                        coordPoint[0] = x;
+                        coordPoint[1] = y;
+
+                        // Estimate the row's span, then settle its ends with the exact test
+                        double dX = (x - spheroidOrigin[0]) / spheroidSize[0], dY = (y - spheroidOrigin[1]) / spheroidSize[1];
+                        double rest = 1 - dX * dX - dY * dY;
+                        double span = rest >= 0 ? Math.sqrt(rest) * spheroidSize[2] : -1;
+
+                        int min = Math.max(lower.getZ(), MathHelper.ceil(spheroidOrigin[2] - span));
+                        int max = Math.min(higher.getZ(), MathHelper.floor(spheroidOrigin[2] + span));
+                        if (min > max)
+                            max = (min = MathHelper.clamp(MathHelper.floor(spheroidOrigin[2] + 0.5), lower.getZ(), higher.getZ())) - 1;
+
+                        while (min > lower.getZ() && isInSpheroid(coordPoint, min - 1, spheroidOrigin, spheroidSize))
+                            min--;
+                        while (min <= max && !isInSpheroid(coordPoint, min, spheroidOrigin, spheroidSize))
+                            min++;
+                        while (max < higher.getZ() && isInSpheroid(coordPoint, max + 1, spheroidOrigin, spheroidSize))
+                            max++;
+                        while (max >= min && !isInSpheroid(coordPoint, max, spheroidOrigin, spheroidSize))
+                            max--;
+
+                        for (int z = min; z <= max; z++)
+                            consumer.accept(new BlockPos(x, y, z));
+                    }
                 }
                 break;
             }
@@ -75,12 +113,73 @@ public class CommandFill extends CommandExpecting implements CommandVirtual
         }
     }
 
+    private static boolean isInSpheroid(double[] coordPoint, int z, double[] spheroidOrigin, double[] spheroidSize)
+    {
+        coordPoint[2] = z;
+        return IvShapeHelper.isPointInSpheroid(coordPoint, spheroidOrigin, spheroidSize);
+    }
+
+    /**
+     * Remembers the matcher's result per block state if it doesn't look at anything else.
+     */
+    public static Predicate<BlockPos> predicate(MockWorld world, PositionedBlockExpression expression)
+    {
+        if (!expression.dependsOnStateOnly())
+            return pos -> expression.evaluate(() -> PositionedBlockExpression.Argument.at(world, pos));
+
+        Map<IBlockState, Boolean> results = new HashMap<>();
+        return pos ->
+        {
+            IBlockState state = world.getBlockState(pos);
+            return results.computeIfAbsent(state, s -> expression.evaluate(() -> new PositionedBlockExpression.Argument(world, pos, s)));
+        };
+    }
+
+    /**
+     * @return All positions reachable from the seeds through matching blocks, not including the seeds themselves
+     * unless they can be reached from another seed.
+     */
+    public static LongSet flood(Collection<BlockPos> seeds, List<EnumFacing> directions, Predicate<BlockPos> matcher, int limit) throws CommandException
+    {
+        LongArrayList dirty = new LongArrayList(seeds.size());
+        seeds.forEach(pos -> dirty.add(pos.toLong()));
+
+        LongSet visited = new LongOpenHashSet();
+
+        while (!dirty.isEmpty())
+        {
+            BlockPos pos = BlockPos.fromLong(dirty.popLong());
+
+            for (EnumFacing facing : directions)
+            {
+                BlockPos offset = pos.offset(facing);
+                long key = offset.toLong();
+                if (!visited.contains(key) && matcher.test(offset))
+                {
+                    visited.add(key);
+                    dirty.add(key);
+                }
+            }
+
+            if (visited.size() > limit)
+                throw new CommandException("Area too big to flood!");
+        }
+
+        return visited;
+    }
+
     public static void setFrom(MockWorld world, List<IBlockState> dst, BlockPos pos)
     {
         IBlockState state = dst.get(world.rand().nextInt(dst.size()));
         world.setBlockState(pos, state, 2);
     }
 
+    public static void setAll(MockWorld world, List<IBlockState> dst, List<BlockPos> positions)
+    {
+        positions.sort(SECTION_ORDER);
+        positions.forEach(pos -> setFrom(world, dst, pos));
+    }
+
     @Override
     public String getName()
     {
@@ -121,46 +220,39 @@ public class CommandFill extends CommandExpecting implements CommandVirtual
         SelectionOwner selectionOwner = RCCommands.getSelectionOwner(sender, null, true);
         RCCommands.assertSize(sender, selectionOwner);
 
+        Predicate<BlockPos> matches = predicate(world, matcher);
+
         if (parameters.has("flood"))
         {
             List<EnumFacing> directions = parameters.get("flood").orElse("").to(RCP::directions).require();
 
-            List<BlockPos> dirty = new ArrayList<>();
-            Set<BlockPos> visited = Sets.newHashSet(dirty);
-
-            runShape(shape, selectionOwner.getSelection(), dirty::add);
+            List<BlockPos> seeds = new ArrayList<>();
+            runShape(shape, selectionOwner.getSelection(), seeds::add);
 
-            while (!dirty.isEmpty())
+            List<BlockPos> positions = new ArrayList<>();
+            for (LongIterator iterator = flood(seeds, directions, matches, MAX_FLOOD).iterator(); iterator.hasNext(); )
+                positions.add(BlockPos.fromLong(iterator.nextLong()));
+            setAll(world, dst, positions);
+        }
+        else if (matcher.dependsOnStateOnly())
+        {
+            // Each block only matches by its own state, so the order of writes doesn't matter
+            List<BlockPos> positions = new ArrayList<>();
+            runShape(shape, selectionOwner.getSelection(), pos ->
             {
-                BlockPos pos = dirty.remove(dirty.size() - 1);
-
-                for (EnumFacing facing : directions)
-                {
-                    BlockPos offset = pos.offset(facing);
-                    if (matcher.evaluate(() -> PositionedBlockExpression.Argument.at(world, offset))
-                            && visited.add(offset))
-                        dirty.add(offset);
-                }
-
-                if (visited.size() > MAX_FLOOD)
-                    throw new CommandException("Area too big to flood!");
-            }
-
-            visited.forEach(p -> setFrom(world, dst, p));
+                if (matches.test(pos))
+                    positions.add(pos);
+            });
+            setAll(world, dst, positions);
         }
         else
         {
-            // TODO Can't freeze because the lighting update won't get sent
-//            HeightMapFreezer freezer = HeightMapFreezer.freeze(BlockAreas.toBoundingBox(selectionOwner.getSelection()), sender.getEntityWorld());
+            // Earlier writes may change what later blocks match, so write as we go
             runShape(shape, selectionOwner.getSelection(), pos ->
             {
-                if (matcher.evaluate(() -> PositionedBlockExpression.Argument.at(world, pos)))
-                {
+                if (matches.test(pos))
                     setFrom(world, dst, pos);
-//                freezer.markBlock(pos, state);
-                }
             });
-//        freezer.melt();
         }
     }
 }
@@ -5,9 +5,9 @@
 
 package ivorius.reccomplex.commands.former;
 
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
 import ivorius.ivtoolkit.blocks.BlockArea;
-import ivorius.ivtoolkit.blocks.BlockSurfaceArea;
-import ivorius.ivtoolkit.blocks.BlockSurfacePos;
 import ivorius.ivtoolkit.world.MockWorld;
 import ivorius.reccomplex.block.RCBlocks;
 import ivorius.reccomplex.commands.CommandVirtual;
@@ -23,8 +23,7 @@ import net.minecraft.command.ICommandSender;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.BitSet;
 
 /**
  * Created by lukas on 09.06.14.
@@ -41,37 +40,55 @@ public class CommandNaturalFloor extends CommandExpecting implements CommandVirt
         BlockPos lowerPoint = area.getLowerCorner();
         BlockPos higherPoint = area.getHigherCorner();
 
-        Set<BlockSurfacePos> stopped = new HashSet<>();
-        Set<BlockSurfacePos> stopping = new HashSet<>();
+        int width = higherPoint.getX() - lowerPoint.getX() + 1;
+        int length = higherPoint.getZ() - lowerPoint.getZ() + 1;
 
-        for (int y = lowerPoint.getY() + 1; y <= higherPoint.getY(); y++)
+        int[] surface = surfaceOffsets(lowerExpansion);
+
+        // Columns as x * length + z, relative to the lower corner
+        int[] active = new int[width * length];
+        for (int i = 0; i < active.length; i++)
+            active[i] = i;
+        int activeCount = active.length;
+
+        BitSet stopping = new BitSet(active.length);
+
+        for (int y = lowerPoint.getY() + 1; y <= higherPoint.getY() && activeCount > 0; y++)
         {
-            for (BlockSurfacePos surfaceCoord : (Iterable<BlockSurfacePos>) BlockSurfaceArea.from(area).stream().filter((o) -> !stopped.contains(o))::iterator)
+            for (int i = 0; i < activeCount; i++)
             {
-                IBlockState block = world.getBlockState(surfaceCoord.blockPos(y));
+                int column = active[i];
+                BlockPos pos = new BlockPos(lowerPoint.getX() + column / length, y, lowerPoint.getZ() + column % length);
+                IBlockState block = world.getBlockState(pos);
 
                 if ((block.getMaterial() != Material.AIR && block.getBlock() != airBlock1))
                 {
-                    stopping.add(surfaceCoord);
+                    stopping.set(column);
 
                     // Check for ifOpaque to not consider leaves and similar 'floor' blocks
                     if (block != floorBlock && block.getMaterial().isOpaque())
                     {
-                        setBlockIfAirInArea(world, surfaceCoord.blockPos(y - 1), floorBlock, area);
+                        setBlockIfAirInArea(world, pos.down(), floorBlock, area);
 
-                        fillSurface(world, area, lowerExpansion, floorBlock, surfaceCoord.blockPos(y), stopping);
+                        fillSurface(world, area, surface, floorBlock, pos, stopping, width, length);
                     }
                 }
             }
 
-            stopped.addAll(stopping);
-            stopping.clear();
+            // Columns only stop after the whole layer was scanned
+            int kept = 0;
+            for (int i = 0; i < activeCount; i++)
+            {
+                if (!stopping.get(active[i]))
+                    active[kept++] = active[i];
+            }
+            activeCount = kept;
         }
     }
 
-    private static void fillSurface(MockWorld world, BlockArea area, double expansion, IBlockState floorBlock, BlockPos pos, Set<BlockSurfacePos> coords)
+    private static int[] surfaceOffsets(double expansion)
     {
-        BlockSurfacePos surfacePos = BlockSurfacePos.from(pos);
+        TIntList offsets = new TIntArrayList();
 
         for (int expX = MathHelper.ceil(-expansion); expX <= expansion; expX++)
         {
@@ -79,12 +96,29 @@ public class CommandNaturalFloor extends CommandExpecting implements CommandVirt
             {
                 if (expX * expX + expZ * expZ <= expansion * expansion)
                 {
-                    BlockSurfacePos scoord = surfacePos.add(expX, expZ);
-                    setBlockIfAirInArea(world, scoord.blockPos(pos.getY()), floorBlock, area);
-                    coords.add(scoord);
+                    offsets.add(expX);
+                    offsets.add(expZ);
                 }
             }
         }
+
+        return offsets.toArray();
+    }
+
+    private static void fillSurface(MockWorld world, BlockArea area, int[] surface, IBlockState floorBlock, BlockPos pos, BitSet stopping, int width, int length)
+    {
+        BlockPos lowerPoint = area.getLowerCorner();
+
+        for (int i = 0; i < surface.length; i += 2)
+        {
+            BlockPos surfacePos = pos.add(surface[i], 0, surface[i + 1]);
+            setBlockIfAirInArea(world, surfacePos, floorBlock, area);
+
+            int x = surfacePos.getX() - lowerPoint.getX();
+            int z = surfacePos.getZ() - lowerPoint.getZ();
+            if (x >= 0 && x < width && z >= 0 && z < length)
+                stopping.set(x * length + z);
+        }
     }
 
     public static void setBlockIfAirInArea(MockWorld world, BlockPos coord, IBlockState block, BlockArea area)
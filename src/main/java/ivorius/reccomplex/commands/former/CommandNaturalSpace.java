@@ -6,8 +6,6 @@
 package ivorius.reccomplex.commands.former;
 
 import ivorius.ivtoolkit.blocks.BlockArea;
-import ivorius.ivtoolkit.blocks.BlockSurfaceArea;
-import ivorius.ivtoolkit.blocks.BlockSurfacePos;
 import ivorius.ivtoolkit.world.MockWorld;
 import ivorius.reccomplex.block.BlockGenericSpace;
 import ivorius.reccomplex.block.RCBlocks;
@@ -22,10 +20,9 @@ import net.minecraft.block.state.IBlockState;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3i;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
  * Created by lukas on 09.06.14.
@@ -72,57 +69,132 @@ public class CommandNaturalSpace extends CommandExpecting implements CommandVirt
         BlockPos lowerPoint = area.getLowerCorner();
         BlockPos higherPoint = area.getHigherCorner();
 
-        Set<BlockPos> set = new HashSet<>();
+        int width = higherPoint.getX() - lowerPoint.getX() + 1;
+        int height = higherPoint.getY() - lowerPoint.getY() + 1;
+        int length = higherPoint.getZ() - lowerPoint.getZ() + 1;
 
-        for (BlockSurfacePos surfaceCoord : BlockSurfaceArea.from(area))
-        {
-            int safePoint = lowerPoint.getY();
+        // Voxels as (y * width + x) * length + z, relative to the lower corner
+        BitSet solid = new BitSet(width * height * length);
+        BitSet floor = new BitSet(width * height * length);
 
-            for (int y = higherPoint.getY(); y >= lowerPoint.getY(); y--)
-            {
-                IBlockState blockState = world.getBlockState(surfaceCoord.blockPos(y));
+        // Per row, the first and last block that closes off the sides, as in sidesClosed
+        int[] firstX = new int[height * length], lastX = new int[height * length];
+        int[] firstZ = new int[height * width], lastZ = new int[height * width];
+        Arrays.fill(firstX, width);
+        Arrays.fill(lastX, -1);
+        Arrays.fill(firstZ, length);
+        Arrays.fill(lastZ, -1);
 
-                if ((blockState.getMaterial() != Material.AIR && blockState.getBlock() != spaceBlock) || sidesClosed(world, surfaceCoord.blockPos(y), area) >= maxClosedSides)
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                for (int z = 0; z < length; z++)
                 {
-                    boolean isFloor = blockState == RCBlocks.genericSolid.getDefaultState();
-                    safePoint = y + (isFloor ? 1 : floorDistance);
-                    break;
+                    pos.setPos(lowerPoint.getX() + x, lowerPoint.getY() + y, lowerPoint.getZ() + z);
+                    IBlockState blockState = world.getBlockState(pos);
+                    int index = (y * width + x) * length + z;
+
+                    if (blockState.getMaterial() != Material.AIR && blockState.getBlock() != spaceBlock)
+                        solid.set(index);
+                    if (blockState == RCBlocks.genericSolid.getDefaultState())
+                        floor.set(index);
+
+                    if (!blockState.getBlock().isReplaceable(world, pos))
+                    {
+                        int row = y * length + z, column = y * width + x;
+                        firstX[row] = Math.min(firstX[row], x);
+                        lastX[row] = x;
+                        firstZ[column] = Math.min(firstZ[column], z);
+                        lastZ[column] = Math.max(lastZ[column], z);
+                    }
                 }
             }
+        }
 
-            for (int y = safePoint; y <= higherPoint.getY(); y++)
-                set.add(surfaceCoord.blockPos(y));
+        BitSet set = new BitSet(width * height * length);
 
-            if (safePoint > lowerPoint.getY())
+        for (int x = 0; x < width; x++)
+        {
+            for (int z = 0; z < length; z++)
             {
-                for (int y = lowerPoint.getY(); y <= higherPoint.getY(); y++)
+                int safePoint = 0;
+
+                for (int y = height - 1; y >= 0; y--)
                 {
-                    IBlockState blockState = world.getBlockState(surfaceCoord.blockPos(y));
+                    int index = (y * width + x) * length + z;
 
-                    if ((blockState.getMaterial() != Material.AIR && blockState.getBlock() != spaceBlock) || sidesClosed(world, surfaceCoord.blockPos(y), area) >= maxClosedSides)
+                    if (solid.get(index) || sidesClosed(firstX, lastX, firstZ, lastZ, width, length, x, y, z) >= maxClosedSides)
                     {
-                        safePoint = y - 1;
+                        safePoint = y + (floor.get(index) ? 1 : floorDistance);
                         break;
                     }
                 }
-            }
 
-            for (int y = lowerPoint.getY(); y <= safePoint; y++)
-                set.add(surfaceCoord.blockPos(y));
+                for (int y = safePoint; y < height; y++)
+                    set.set((y * width + x) * length + z);
+
+                if (safePoint > 0)
+                {
+                    for (int y = 0; y < height; y++)
+                    {
+                        if (solid.get((y * width + x) * length + z) || sidesClosed(firstX, lastX, firstZ, lastZ, width, length, x, y, z) >= maxClosedSides)
+                        {
+                            safePoint = y - 1;
+                            break;
+                        }
+                    }
+                }
+
+                for (int y = 0; y <= safePoint && y < height; y++)
+                    set.set((y * width + x) * length + z);
+            }
         }
 
-        set.forEach(pos ->
+        // Summed-area table of the current layer, to check the 5x5 surroundings in constant time
+        int[] sums = new int[(width + 1) * (length + 1)];
+
+        for (int y = 0; y < height; y++)
         {
-            BlockPos down = pos.down();
-            BlockPos down2 = pos.down(2);
-            world.setBlockState(pos,
-                    pos.getY() > lowerPoint.getY() && !set.contains(down)
-                            && world.getBlockState(down).getBlock().isReplaceable(world, down) && world.getBlockState(down2).getBlock().isReplaceable(world, down2)
-                            && new BlockArea(pos.subtract(new Vec3i(2, 0, 2)), pos.add(new Vec3i(2, 0, 2))).stream().allMatch(set::contains)
-                            ? spaceBlock.getDefaultState().withProperty(BlockGenericSpace.TYPE, 1)
-                            : spaceBlock.getDefaultState()
-            );
-        });
+            for (int x = 0; x < width; x++)
+            {
+                for (int z = 0; z < length; z++)
+                {
+                    sums[(x + 1) * (length + 1) + z + 1] = (set.get((y * width + x) * length + z) ? 1 : 0)
+                            + sums[x * (length + 1) + z + 1] + sums[(x + 1) * (length + 1) + z] - sums[x * (length + 1) + z];
+                }
+            }
+
+            for (int x = 0; x < width; x++)
+            {
+                for (int z = 0; z < length; z++)
+                {
+                    if (!set.get((y * width + x) * length + z))
+                        continue;
+
+                    pos.setPos(lowerPoint.getX() + x, lowerPoint.getY() + y, lowerPoint.getZ() + z);
+                    BlockPos down = pos.down();
+                    BlockPos down2 = pos.down(2);
+
+                    world.setBlockState(pos.toImmutable(),
+                            y > 0 && !set.get(((y - 1) * width + x) * length + z)
+                                    && world.getBlockState(down).getBlock().isReplaceable(world, down) && world.getBlockState(down2).getBlock().isReplaceable(world, down2)
+                                    && x >= 2 && x + 2 < width && z >= 2 && z + 2 < length
+                                    && sums[(x + 3) * (length + 1) + z + 3] - sums[(x - 2) * (length + 1) + z + 3] - sums[(x + 3) * (length + 1) + z - 2] + sums[(x - 2) * (length + 1) + z - 2] == 25
+                                    ? spaceBlock.getDefaultState().withProperty(BlockGenericSpace.TYPE, 1)
+                                    : spaceBlock.getDefaultState()
+                    );
+                }
+            }
+        }
+    }
+
+    protected static int sidesClosed(int[] firstX, int[] lastX, int[] firstZ, int[] lastZ, int width, int length, int x, int y, int z)
+    {
+        int row = y * length + z, column = y * width + x;
+        return (firstX[row] < x ? 1 : 0) + (lastX[row] > x ? 1 : 0)
+                + (firstZ[column] < z ? 1 : 0) + (lastZ[column] > z ? 1 : 0);
     }
 
     @Override
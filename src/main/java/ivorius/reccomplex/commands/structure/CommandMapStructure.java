@@ -147,8 +147,8 @@ public class CommandMapStructure extends CommandExpecting
         if (!inform)
             commandSender.sendMessage(RecurrentComplex.translations.format("commands.rcmapall.result", saved, RCTextStyle.path(directory), failed, skipped));
 
-        RCCommands.tryReload(RecurrentComplex.loader, LeveledRegistry.Level.CUSTOM);
-        RCCommands.tryReload(RecurrentComplex.loader, LeveledRegistry.Level.SERVER);
+        RCCommands.tryReloadChanges(RecurrentComplex.loader, LeveledRegistry.Level.CUSTOM);
+        RCCommands.tryReloadChanges(RecurrentComplex.loader, LeveledRegistry.Level.SERVER);
     }
 
     public enum MapResult
@@ -15,10 +15,15 @@ import ivorius.reccomplex.capability.RCEntityInfo;
 import ivorius.reccomplex.client.rendering.SelectionRenderer;
 import ivorius.reccomplex.commands.RCCommands;
 import ivorius.reccomplex.events.ItemGenerationEvent;
+import ivorius.reccomplex.files.loading.LeveledRegistry;
+import ivorius.reccomplex.files.loading.ResourceDirectory;
 import ivorius.reccomplex.gui.GuiHider;
 import ivorius.reccomplex.item.ItemInputHandler;
+import ivorius.reccomplex.operation.OperationScheduler;
+import ivorius.reccomplex.world.gen.feature.HeightMapFreezer;
 import ivorius.reccomplex.world.gen.feature.WorldGenStructures;
 import ivorius.reccomplex.world.gen.feature.WorldRandomData;
+import ivorius.reccomplex.world.gen.feature.WorldgenProfiler;
 import ivorius.reccomplex.world.gen.feature.structure.StructureRegistry;
 import ivorius.reccomplex.world.storage.loot.LootTable;
 import ivorius.reccomplex.world.storage.loot.WeightedItemCollectionRegistry;
@@ -54,6 +59,8 @@ import net.minecraftforge.event.CommandEvent;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.terraingen.PopulateChunkEvent;
+import net.minecraftforge.event.world.ChunkDataEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.fml.client.event.ConfigChangedEvent;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -85,6 +92,42 @@ public class RCForgeEventHandler
         WorldGenStructures.decorate((WorldServer) event.getWorld(), event.getRand(), new ChunkPos(event.getChunkX(), event.getChunkZ()), null);
     }
 
+    @SubscribeEvent
+    public void onWorldTick(TickEvent.WorldTickEvent event)
+    {
+        if (event.side == Side.SERVER && event.phase == TickEvent.Phase.END)
+        {
+            HeightMapFreezer.propagateDeferredLight(event.world);
+
+            // Also runs with a budget of 0, so loaded operations still finish
+            OperationScheduler.get(event.world).tick((WorldServer) event.world, (long) (Math.max(RCConfig.operationBudgetPerTick, 0.05f) * 1000000));
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END && RecurrentComplex.resourceWatcher != null && RecurrentComplex.resourceWatcher.poll())
+        {
+            ResourceDirectory.reloadChanges(RecurrentComplex.loader, LeveledRegistry.Level.CUSTOM);
+            ResourceDirectory.reloadChanges(RecurrentComplex.loader, LeveledRegistry.Level.SERVER);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkDataLoad(ChunkDataEvent.Load event)
+    {
+        if (!event.getWorld().isRemote)
+            WorldgenProfiler.chunkRead(event.getChunk().getPos());
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event)
+    {
+        if (!event.getWorld().isRemote)
+            WorldgenProfiler.chunkLoaded(event.getChunk().getPos());
+    }
+
     @SubscribeEvent
     public void onEntityDrop(EntityJoinWorldEvent event)
     {
@@ -6,6 +6,7 @@
 package ivorius.reccomplex.events.handlers;
 
 import ivorius.reccomplex.RCConfig;
+import ivorius.reccomplex.utils.accessor.RCAccessorDecorateBiomeEvent;
 import ivorius.reccomplex.world.gen.feature.decoration.RCBiomeDecorator;
 import ivorius.reccomplex.world.gen.feature.sapling.RCSaplingGenerator;
 import ivorius.reccomplex.world.gen.feature.structure.MapGenStructureHook;
@@ -30,44 +31,6 @@ import java.util.Random;
  */
 public class RCTerrainGenEventHandler
 {
-    private static boolean hasAmountData(DecorateBiomeEvent.Decorate event)
-    {
-        try
-        {
-            // Ensure
-            event.getClass().getDeclaredMethod("getModifiedAmount");
-            event.getClass().getDeclaredMethod("setModifiedAmount", int.class);
-            return (boolean) event.getClass().getDeclaredMethod("hasAmountData").invoke(event);
-        }
-        catch (Exception e)
-        {
-            return false;
-        }
-    }
-
-    private static int getModifiedAmount(DecorateBiomeEvent.Decorate event)
-    {
-        try
-        {
-            return (int) event.getClass().getDeclaredMethod("getModifiedAmount").invoke(event);
-        }
-        catch (Exception ignored)
-        {
-            return -1;
-        }
-    }
-
-    private static void setModifiedAmount(DecorateBiomeEvent.Decorate event, int amount)
-    {
-        try
-        {
-            event.getClass().getDeclaredMethod("setModifiedAmount", int.class).invoke(event, amount);
-        }
-        catch (Exception ignored)
-        {
-        }
-    }
-
     public void register()
     {
         MinecraftForge.TERRAIN_GEN_BUS.register(this);
@@ -95,8 +58,8 @@ public class RCTerrainGenEventHandler
             if (type != null)
             {
                 int amount;
-                if (hasAmountData(event) && (amount = getModifiedAmount(event)) >= 0)
-                    setModifiedAmount(event, RCBiomeDecorator.decorate((WorldServer) event.getWorld(), event.getRand(), event.getPos(), type, amount));
+                if (RCAccessorDecorateBiomeEvent.hasAmountData(event) && (amount = RCAccessorDecorateBiomeEvent.getModifiedAmount(event)) >= 0)
+                    RCAccessorDecorateBiomeEvent.setModifiedAmount(event, RCBiomeDecorator.decorate((WorldServer) event.getWorld(), event.getRand(), event.getPos(), type, amount));
                 else
                 {
                     Event.Result result = RCBiomeDecorator.decorate((WorldServer) event.getWorld(), event.getRand(), event.getPos(), type);
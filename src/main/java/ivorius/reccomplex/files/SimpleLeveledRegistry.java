@@ -135,12 +135,13 @@ public class SimpleLeveledRegistry<S> implements LeveledRegistry<S>
     {
         invalidateActiveCache();
 
+        S before = get(id);
         stati.put(id, new Status(id, active, domain, level), level.getLevel());
         S old = items.put(id, s, level.getLevel());
 
         RecurrentComplex.logger.trace(String.format(old != null ? "Replaced %s '%s' at level %s" : "Registered %s '%s' at level %s", description, id, level));
 
-        invalidateCaches();
+        invalidateCaches(id, before, get(id));
 
         return old;
     }
@@ -149,9 +150,11 @@ public class SimpleLeveledRegistry<S> implements LeveledRegistry<S>
     public S unregister(String id, ILevel level)
     {
         invalidateActiveCache();
-        invalidateCaches();
+        S before = get(id);
         stati.remove(id, level.getLevel());
-        return items.remove(id, level.getLevel());
+        S old = items.remove(id, level.getLevel());
+        invalidateCaches(id, before, get(id));
+        return old;
     }
 
     @Override
@@ -159,6 +162,7 @@ public class SimpleLeveledRegistry<S> implements LeveledRegistry<S>
     {
         RecurrentComplex.logger.trace(String.format("Cleared all %s at level %s", description, level));
         invalidateActiveCache();
+        invalidateCaches();
         items.clear(level.getLevel());
         stati.clear(level.getLevel());
     }
@@ -202,6 +206,14 @@ public class SimpleLeveledRegistry<S> implements LeveledRegistry<S>
         modules.values().forEach(Module::invalidate);
     }
 
+    /**
+     * Called when a single entry changed, with what was visible under the id before and after the change.
+     */
+    protected void invalidateCaches(String id, @Nullable S before, @Nullable S after)
+    {
+        modules.values().forEach(module -> module.invalidate(id, before, after));
+    }
+
     public static abstract class Module<R extends SimpleLeveledRegistry>
     {
         protected R registry;
@@ -212,6 +224,14 @@ public class SimpleLeveledRegistry<S> implements LeveledRegistry<S>
         }
 
         public abstract void invalidate();
+
+        /**
+         * Called when only a single entry was registered or unregistered. By default, drops everything.
+         */
+        public void invalidate(String id, @Nullable Object before, @Nullable Object after)
+        {
+            invalidate();
+        }
     }
 
     public class Status implements LeveledRegistry.Status
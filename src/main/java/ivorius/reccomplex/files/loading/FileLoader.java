@@ -10,14 +10,13 @@ import ivorius.reccomplex.files.FileHandler;
 import ivorius.reccomplex.files.RCFiles;
 import net.minecraft.util.ResourceLocation;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import java.nio.file.FileSystems;
 import java.nio.file.Path;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Created by lukas on 18.09.15.
@@ -25,6 +24,7 @@ import java.util.Set;
 public class FileLoader extends FileHandler
 {
     private final Map<String, FileLoaderAdapter> adapters = new HashMap<>();
+    private final Map<LeveledRegistry.Level, FileManifest> manifests = new EnumMap<>(LeveledRegistry.Level.class);
 
     protected static String defaultName(Path path, String customID)
     {
@@ -64,11 +64,13 @@ public class FileLoader extends FileHandler
     public void clearFiles(LeveledRegistry.Level level)
     {
         adapters.values().forEach(h -> h.clearFiles(level));
+        manifest(level).clear();
     }
 
     public void clearFiles(Collection<String> suffices, LeveledRegistry.Level level)
     {
         adapters.entrySet().stream().filter(entry -> suffices.contains(entry.getKey())).forEach(entry -> entry.getValue().clearFiles(level));
+        suffices.forEach(manifest(level)::removeSuffix);
     }
 
     // --------------- Loading
@@ -97,9 +99,14 @@ public class FileLoader extends FileHandler
     {
         int[] added = new int[1];
 
+        // Resources in mod jars can't change, and their file systems are closed after loading
+        FileManifest manifest = path.getFileSystem() == FileSystems.getDefault() ? manifest(context.level) : null;
+
         RCFiles.walkFilesRecursively(path, new FileSuffixFilter(suffices), true,
                 file ->
                 {
+                    if (manifest != null)
+                        manifest.record(file, context, null);
                     tryLoad(file, null, context);
                     added[0]++;
                 });
@@ -107,6 +114,61 @@ public class FileLoader extends FileHandler
         return added[0];
     }
 
+    // --------------- Incremental loading
+
+    public FileManifest manifest(LeveledRegistry.Level level)
+    {
+        return manifests.computeIfAbsent(level, l -> new FileManifest());
+    }
+
+    /**
+     * Loads only what was added, changed or removed in the paths since they were last loaded at the level.
+     * Every touched id is unloaded and then loaded again from all files providing it, in order,
+     * so the outcome is the same as clearing the level and loading everything.
+     *
+     * @return The number of ids that were reloaded.
+     */
+    @ParametersAreNonnullByDefault
+    public int tryLoadChanges(List<Pair<Path, FileLoadContext>> paths, LeveledRegistry.Level level)
+    {
+        FileManifest previous = manifest(level);
+        FileManifest current = new FileManifest();
+
+        FileSuffixFilter filter = new FileSuffixFilter(keySet());
+        for (Pair<Path, FileLoadContext> path : paths)
+            RCFiles.walkFilesRecursively(path.getLeft(), filter, true, file -> current.record(file, path.getRight(), previous.get(file)));
+
+        Set<Pair<String, String>> touched = new HashSet<>();
+        for (FileManifest.Entry entry : current.entries())
+        {
+            FileManifest.Entry before = previous.get(entry.path);
+            if (before == null || !entry.isUnchanged(before))
+                touched.add(Pair.of(entry.suffix, entry.id));
+        }
+        for (FileManifest.Entry entry : previous.entries())
+        {
+            if (current.get(entry.path) == null)
+                touched.add(Pair.of(entry.suffix, entry.id));
+        }
+
+        for (Pair<String, String> key : touched)
+        {
+            FileLoaderAdapter adapter = get(key.getLeft());
+            if (adapter != null)
+                adapter.unloadFile(key.getRight(), level);
+        }
+
+        manifests.put(level, current);
+
+        for (FileManifest.Entry entry : current.entries())
+        {
+            if (touched.contains(Pair.of(entry.suffix, entry.id)))
+                tryLoad(entry.path, null, entry.context);
+        }
+
+        return touched.size();
+    }
+
     @ParametersAreNonnullByDefault
     public boolean tryLoad(ResourceLocation resourceLocation, @Nullable String customID, FileLoadContext context)
     {
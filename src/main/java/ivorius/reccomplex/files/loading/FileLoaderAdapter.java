@@ -35,4 +35,7 @@ public abstract class FileLoaderAdapter
 
     @ParametersAreNonnullByDefault
     abstract void clearFiles(LeveledRegistry.Level level);
+
+    @ParametersAreNonnullByDefault
+    abstract void unloadFile(String id, LeveledRegistry.Level level);
 }
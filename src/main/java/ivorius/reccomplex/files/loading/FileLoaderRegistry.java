@@ -70,4 +70,11 @@ public abstract class FileLoaderRegistry<S> extends FileLoaderAdapter
     {
         registry.clear(level);
     }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    public void unloadFile(String id, LeveledRegistry.Level level)
+    {
+        registry.unregister(id, level);
+    }
 }
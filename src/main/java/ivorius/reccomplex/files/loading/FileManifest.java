@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.files.loading;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import ivorius.reccomplex.files.RCFiles;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Remembers which files were loaded, in load order, along with enough to tell whether they changed since.
+ * Files are hashed when first recorded, and again only once their modification time or size differ,
+ * to tell touched but unchanged files apart.
+ */
+public class FileManifest
+{
+    protected final Map<Path, Entry> entries = new LinkedHashMap<>();
+
+    public void clear()
+    {
+        entries.clear();
+    }
+
+    @Nullable
+    public Entry get(Path path)
+    {
+        return entries.get(path);
+    }
+
+    public Collection<Entry> entries()
+    {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    public void removeSuffix(String suffix)
+    {
+        entries.values().removeIf(entry -> entry.suffix.equals(suffix));
+    }
+
+    /**
+     * Records the file's current state. It is hashed unless it looks the same as the previous entry.
+     * Record before loading the file, so changes made while it loads show up next time.
+     */
+    public Entry record(Path path, FileLoadContext context, @Nullable Entry previous)
+    {
+        long lastModified = -1, size = -1;
+        try
+        {
+            lastModified = Files.getLastModifiedTime(path).toMillis();
+            size = Files.size(path);
+        }
+        catch (IOException ignored)
+        {
+        }
+
+        HashCode hash = previous != null && previous.hasSameStats(lastModified, size) ? previous.hash : hash(path);
+
+        Entry entry = new Entry(path, context, lastModified, size, hash);
+        entries.put(path, entry);
+        return entry;
+    }
+
+    @Nullable
+    protected static HashCode hash(Path path)
+    {
+        try
+        {
+            return Hashing.murmur3_128().hashBytes(Files.readAllBytes(path));
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    public static class Entry
+    {
+        public final Path path;
+        public final FileLoadContext context;
+        public final String suffix;
+        public final String id;
+
+        public final long lastModified;
+        public final long size;
+        @Nullable
+        public final HashCode hash;
+
+        public Entry(Path path, FileLoadContext context, long lastModified, long size, @Nullable HashCode hash)
+        {
+            this.path = path;
+            this.context = context;
+            this.suffix = RCFiles.extension(path);
+            this.id = FileLoader.defaultName(path, null);
+            this.lastModified = lastModified;
+            this.size = size;
+            this.hash = hash;
+        }
+
+        protected boolean hasSameStats(long lastModified, long size)
+        {
+            return this.lastModified >= 0 && this.lastModified == lastModified && this.size == size;
+        }
+
+        /**
+         * @return Whether loading this entry has the same outcome as loading the other.
+         */
+        public boolean isUnchanged(Entry other)
+        {
+            return context.active == other.context.active
+                    && (other.hasSameStats(lastModified, size) || hash != null && hash.equals(other.hash));
+        }
+    }
+}
@@ -14,12 +14,18 @@ import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.ModContainer;
 import net.minecraftforge.fml.common.network.ByteBufUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Created by lukas on 03.10.16.
@@ -127,13 +133,46 @@ public enum ResourceDirectory
 
     public static void tryLoadResources(FileLoader loader, Path path, LeveledRegistry.Level level, Collection<String> suffices, String domain, boolean create)
     {
-        tryLoadAll(loader, path.resolve(INACTIVE_DIR_NAME), new FileLoadContext(domain, false, level), create, suffices);
-        tryLoadAll(loader, path.resolve(ACTIVE_DIR_NAME), new FileLoadContext(domain, true, level), create, suffices);
+        List<Pair<Path, FileLoadContext>> paths = resourcePaths(path, level, domain);
+        for (int i = 0; i < paths.size(); i++)
+            tryLoadAll(loader, paths.get(i).getLeft(), paths.get(i).getRight(), create && i < 2, suffices);
+    }
+
+    /**
+     * @return The directories resources are loaded from, in load order. Only the first two are ever created.
+     */
+    public static List<Pair<Path, FileLoadContext>> resourcePaths(Path path, LeveledRegistry.Level level, String domain)
+    {
+        return Arrays.asList(
+                Pair.of(path.resolve(INACTIVE_DIR_NAME), new FileLoadContext(domain, false, level)),
+                Pair.of(path.resolve(ACTIVE_DIR_NAME), new FileLoadContext(domain, true, level)),
+
+                // Legacy
+                Pair.of(path.resolve("silentStructures"), new FileLoadContext(domain, false, level)),
+                Pair.of(path.resolve("genericStructures"), new FileLoadContext(domain, true, level)),
+                Pair.of(path.resolve("inventoryGenerators"), new FileLoadContext(domain, true, level))
+        );
+    }
 
-        // Legacy
-        tryLoadAll(loader, path.resolve("silentStructures"), new FileLoadContext(domain, false, level), false, suffices);
-        tryLoadAll(loader, path.resolve("genericStructures"), new FileLoadContext(domain, true, level), false, suffices);
-        tryLoadAll(loader, path.resolve("inventoryGenerators"), new FileLoadContext(domain, true, level), false, suffices);
+    /**
+     * Like {@link #reload(FileLoader, LeveledRegistry.Level)}, but only re-reads files that were added, changed or
+     * removed since. Mod resources can't change while the game runs, so they are left alone.
+     *
+     * @return The number of resources that were reloaded.
+     */
+    public static int reloadChanges(@Nonnull FileLoader loader, @Nonnull LeveledRegistry.Level level) throws IllegalArgumentException, NoServerException
+    {
+        switch (level)
+        {
+            case CUSTOM:
+                return loader.tryLoadChanges(resourcePaths(getCustomDirectory().toPath().resolve(RESOURCES_FILE_NAME), level, ""), level);
+            case MODDED:
+                return 0;
+            case SERVER:
+                return loader.tryLoadChanges(resourcePaths(getServerDirectory().toPath().resolve(RESOURCES_FILE_NAME), level, ""), level);
+            default:
+                throw new IllegalArgumentException();
+        }
     }
 
     protected static void tryLoadAll(FileLoader loader, Path path, FileLoadContext context, boolean create, Collection<String> suffices)
@@ -154,6 +193,33 @@ public enum ResourceDirectory
         loader.tryLoadAll(path, context, suffices);
     }
 
+    /**
+     * @return A watcher over the custom and, if running, the server resource directories, or null if they can't be watched.
+     */
+    @Nullable
+    public static ResourceWatcher tryWatch()
+    {
+        List<Path> directories = new ArrayList<>();
+        directories.add(getCustomDirectory().toPath().resolve(RESOURCES_FILE_NAME));
+        try
+        {
+            directories.add(getServerDirectory().toPath().resolve(RESOURCES_FILE_NAME));
+        }
+        catch (NoServerException ignored)
+        {
+        }
+
+        try
+        {
+            return new ResourceWatcher(directories);
+        }
+        catch (IOException e)
+        {
+            RecurrentComplex.logger.error("Could not watch resource directories", e);
+            return null;
+        }
+    }
+
     @Nonnull
     protected static ResourceLocation resourceLocation(String domain, String directoryName)
     {
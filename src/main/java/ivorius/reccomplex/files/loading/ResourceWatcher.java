@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.files.loading;
+
+import ivorius.reccomplex.RecurrentComplex;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches resource directories for changes, so they can be reloaded incrementally without a command.
+ * Reports a change only once the directories have been quiet for a few polls, since editors tend to write in bursts.
+ */
+public class ResourceWatcher implements Closeable
+{
+    public static final int QUIET_POLLS = 20;
+
+    protected final WatchService service;
+
+    protected boolean changed;
+    protected int quietPolls;
+
+    public ResourceWatcher(Collection<Path> directories) throws IOException
+    {
+        service = FileSystems.getDefault().newWatchService();
+
+        for (Path directory : directories)
+            registerAll(directory);
+    }
+
+    protected void registerAll(Path directory) throws IOException
+    {
+        if (!Files.isDirectory(directory))
+            return;
+
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException
+            {
+                dir.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * @return Whether something changed and has settled since the last time this returned true.
+     */
+    public boolean poll()
+    {
+        WatchKey key;
+        while ((key = service.poll()) != null)
+        {
+            Path directory = (Path) key.watchable();
+
+            for (WatchEvent<?> event : key.pollEvents())
+            {
+                changed = true;
+                quietPolls = 0;
+
+                if (event.kind() == ENTRY_CREATE)
+                {
+                    try
+                    {
+                        registerAll(directory.resolve((Path) event.context()));
+                    }
+                    catch (IOException e)
+                    {
+                        RecurrentComplex.logger.warn("Could not watch new directory", e);
+                    }
+                }
+            }
+
+            key.reset();
+        }
+
+        if (changed && ++quietPolls >= QUIET_POLLS)
+        {
+            changed = false;
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        service.close();
+    }
+}
@@ -45,7 +45,7 @@ public class GuiHider
 
         Minecraft mc = Minecraft.getMinecraft();
         hiddenGUI = mc.currentScreen;
-        GuiHider.visualizer = visualizer;
+        setVisualizer(visualizer);
 
         if (hiddenGUI == null)
             return false;
@@ -62,6 +62,13 @@ public class GuiHider
         return true;
     }
 
+    protected static void setVisualizer(Visualizer visualizer)
+    {
+        if (GuiHider.visualizer != null && GuiHider.visualizer != visualizer)
+            GuiHider.visualizer.discard();
+        GuiHider.visualizer = visualizer;
+    }
+
     public static boolean canReopen()
     {
         return hiddenGUI != null;
@@ -74,7 +81,7 @@ public class GuiHider
 
         GuiScreen hiddenGUI = GuiHider.hiddenGUI;
         GuiHider.hiddenGUI = null;
-        visualizer = null;
+        setVisualizer(null);
 
         Minecraft mc = Minecraft.getMinecraft();
         mc.displayGuiScreen(hiddenGUI);
@@ -113,5 +120,12 @@ public class GuiHider
     public interface Visualizer
     {
         void draw(Entity renderEntity, float partialTicks);
+
+        /**
+         * Called on the main thread once the visualizer is replaced or the GUI is reopened.
+         */
+        default void discard()
+        {
+        }
     }
 }
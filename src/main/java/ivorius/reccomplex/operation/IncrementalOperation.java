@@ -0,0 +1,41 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.operation;
+
+import net.minecraft.world.WorldServer;
+
+/**
+ * An operation that can be performed a bit at a time, spread over several ticks.
+ * Progress is written along with the operation, so a running operation picks up where it left off after reloading.
+ */
+public interface IncrementalOperation extends Operation
+{
+    /**
+     * Called once before the first step. Not called again when resuming a loaded operation.
+     */
+    void begin(WorldServer world);
+
+    /**
+     * Performs the next part of the operation, until the budget is used up.
+     * Always makes some progress, even if the budget is tiny.
+     */
+    void step(WorldServer world, long budgetNanos);
+
+    boolean isDone();
+
+    @Override
+    default void perform(WorldServer world)
+    {
+        begin(world);
+        while (!isDone())
+            step(world, Long.MAX_VALUE);
+    }
+
+    static boolean hasTime(long start, long budgetNanos)
+    {
+        return System.nanoTime() - start < budgetNanos;
+    }
+}
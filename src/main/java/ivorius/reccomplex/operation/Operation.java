@@ -31,6 +31,14 @@ public interface Operation extends NBTCompoundObject
     @SideOnly(Side.CLIENT)
     void renderPreview(PreviewType previewType, World world, int ticks, float partialTicks);
 
+    /**
+     * Releases what the preview holds on to, once the operation isn't previewed anymore.
+     */
+    @SideOnly(Side.CLIENT)
+    default void discardPreview()
+    {
+    }
+
     enum PreviewType
     {
         NONE("none"),
@@ -29,10 +29,12 @@ import org.lwjgl.opengl.GL11;
 /**
  * Created by lukas on 11.02.15.
  */
-public class OperationClearArea implements Operation
+public class OperationClearArea implements IncrementalOperation
 {
     public BlockArea sourceArea;
 
+    protected int progress;
+
     public OperationClearArea()
     {
     }
@@ -63,12 +65,15 @@ public class OperationClearArea implements Operation
             BlockPositions.writeToNBT("sourcePoint1", sourceArea.getPoint1(), compound);
             BlockPositions.writeToNBT("sourcePoint2", sourceArea.getPoint2(), compound);
         }
+
+        compound.setInteger("progress", progress);
     }
 
     @Override
     public void readFromNBT(NBTTagCompound compound)
     {
         sourceArea = blockAreaFrom(BlockPositions.readFromNBT("sourcePoint1", compound), BlockPositions.readFromNBT("sourcePoint2", compound));
+        progress = compound.getInteger("progress");
     }
 
     public static BlockArea blockAreaFrom(BlockPos left, BlockPos right)
@@ -77,11 +82,36 @@ public class OperationClearArea implements Operation
     }
 
     @Override
-    public void perform(WorldServer world)
+    public void begin(WorldServer world)
     {
-        if (sourceArea != null)
-            for (BlockPos coord : sourceArea)
-                setBlockToAirClean(world, coord);
+        progress = 0;
+    }
+
+    @Override
+    public void step(WorldServer world, long budgetNanos)
+    {
+        long start = System.nanoTime();
+
+        BlockPos lower = sourceArea.getLowerCorner();
+        int[] size = sourceArea.areaSize();
+
+        do
+        {
+            int x = progress % size[0], rest = progress / size[0];
+            setBlockToAirClean(world, lower.add(x, rest / size[2], rest % size[2]));
+            progress++;
+        }
+        while (!isDone() && IncrementalOperation.hasTime(start, budgetNanos));
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        if (sourceArea == null)
+            return true;
+
+        int[] size = sourceArea.areaSize();
+        return progress >= size[0] * size[1] * size[2];
     }
 
     @SideOnly(Side.CLIENT)
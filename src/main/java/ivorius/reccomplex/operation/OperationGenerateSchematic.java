@@ -11,28 +11,34 @@ import ivorius.reccomplex.utils.RCAxisAlignedTransform;
 import ivorius.reccomplex.world.gen.feature.structure.schematics.SchematicFile;
 import net.minecraft.util.math.BlockPos;
 import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
-import ivorius.ivtoolkit.rendering.grid.GridQuadCache;
 import ivorius.reccomplex.client.rendering.OperationRenderer;
-import ivorius.reccomplex.client.rendering.SchematicQuadCache;
+import ivorius.reccomplex.client.rendering.GreedyMesher;
+import ivorius.reccomplex.client.rendering.PreviewMesh;
 import ivorius.reccomplex.operation.Operation;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.world.World;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.world.WorldServer;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
+import java.util.Map;
+
 /**
  * Created by lukas on 10.02.15.
  */
-public class OperationGenerateSchematic implements Operation
+public class OperationGenerateSchematic implements IncrementalOperation
 {
     public SchematicFile file;
 
     public AxisAlignedTransform2D transform;
     public BlockPos lowerCoord;
 
-    protected GridQuadCache cachedShapeGrid;
+    protected PreviewMesh previewMesh;
+
+    protected int progress;
+    protected Map<BlockPos, TileEntity> tileEntities;
 
     public OperationGenerateSchematic()
     {
@@ -45,11 +51,47 @@ public class OperationGenerateSchematic implements Operation
         this.lowerCoord = lowerCoord;
     }
 
+    protected int blockCount()
+    {
+        return file.width * file.height * file.length;
+    }
+
     @Override
-    public void perform(WorldServer world)
+    public void begin(WorldServer world)
     {
-        if (lowerCoord != null)
-            file.generate(world, lowerCoord, transform);
+        progress = 0;
+        tileEntities = null;
+    }
+
+    @Override
+    public void step(WorldServer world, long budgetNanos)
+    {
+        long start = System.nanoTime();
+
+        if (tileEntities == null)
+            tileEntities = file.createTileEntities(world, lowerCoord, transform);
+
+        int blocks = blockCount();
+
+        do
+        {
+            if (progress < blocks * SchematicFile.PASSES)
+                file.generate(world, lowerCoord, transform, tileEntities, progress / blocks, file.getBlockPos(progress % blocks));
+            else
+                file.spawnEntities(world, lowerCoord, transform);
+            progress++;
+        }
+        while (!isDone() && IncrementalOperation.hasTime(start, budgetNanos));
+
+        if (isDone())
+            tileEntities = null;
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        // One step past the blocks for the entities
+        return lowerCoord == null || progress > blockCount() * SchematicFile.PASSES;
     }
 
     @Override
@@ -62,6 +104,8 @@ public class OperationGenerateSchematic implements Operation
         RCAxisAlignedTransform.write(compound, transform, "rotation", "mirrorX");
 
         BlockPositions.writeToNBT("lowerCoord", lowerCoord, compound);
+
+        compound.setInteger("progress", progress);
     }
 
     @Override
@@ -80,11 +124,8 @@ public class OperationGenerateSchematic implements Operation
         transform = RCAxisAlignedTransform.read(compound, "rotation", "mirrorX");
 
         lowerCoord = BlockPositions.readFromNBT("lowerCoord", compound);
-    }
 
-    public void invalidateCache()
-    {
-        cachedShapeGrid = null;
+        progress = compound.getInteger("progress");
     }
 
     @SideOnly(Side.CLIENT)
@@ -96,14 +137,29 @@ public class OperationGenerateSchematic implements Operation
             int[] size = {file.width, file.height, file.length};
             if (previewType == PreviewType.SHAPE)
             {
+                if (previewMesh == null)
+                {
+                    SchematicFile file = this.file;
+                    previewMesh = new PreviewMesh(() -> GreedyMesher.mesh(size, (x, y, z) -> file.getBlockState(new BlockPos(x, y, z)).isOpaqueCube()));
+                }
+
                 GlStateManager.color(0.8f, 0.75f, 1.0f);
-                OperationRenderer.renderGridQuadCache(
-                        cachedShapeGrid != null ? cachedShapeGrid : (cachedShapeGrid = SchematicQuadCache.createQuadCache(file, new float[]{1, 1, 1})),
-                        transform, lowerCoord, ticks, partialTicks);
+                previewMesh.render(transform, lowerCoord, ticks, partialTicks);
             }
 
             if (previewType == PreviewType.BOUNDING_BOX || previewType == PreviewType.SHAPE)
                 OperationRenderer.renderBoundingBox(OperationRenderer.blockAreaFromSize(lowerCoord, RCAxisAlignedTransform.applySize(transform, size)), ticks, partialTicks);
         }
     }
+
+    @SideOnly(Side.CLIENT)
+    @Override
+    public void discardPreview()
+    {
+        if (previewMesh != null)
+        {
+            previewMesh.delete();
+            previewMesh = null;
+        }
+    }
 }
@@ -7,15 +7,17 @@ package ivorius.reccomplex.operation;
 
 import ivorius.ivtoolkit.blocks.BlockArea;
 import ivorius.ivtoolkit.blocks.BlockPositions;
+import ivorius.ivtoolkit.blocks.IvBlockCollection;
 import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
-import ivorius.ivtoolkit.rendering.grid.BlockQuadCache;
-import ivorius.ivtoolkit.rendering.grid.GridQuadCache;
 import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.client.rendering.GreedyMesher;
 import ivorius.reccomplex.client.rendering.OperationRenderer;
+import ivorius.reccomplex.client.rendering.PreviewMesh;
 import ivorius.reccomplex.utils.RCAxisAlignedTransform;
 import ivorius.reccomplex.utils.RCStrings;
 import ivorius.reccomplex.world.gen.feature.StructureGenerator;
 import ivorius.reccomplex.world.gen.feature.structure.ReadableInstanceData;
+import ivorius.reccomplex.world.gen.feature.structure.Structures;
 import ivorius.reccomplex.world.gen.feature.structure.context.StructureSpawnContext;
 import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
 import ivorius.reccomplex.world.gen.feature.structure.generic.StructureSaveHandler;
@@ -23,20 +25,27 @@ import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Created by lukas on 10.02.15.
  */
-public class OperationGenerateStructure implements Operation
+public class OperationGenerateStructure implements IncrementalOperation
 {
+    protected static final int SLICE_LIMIT = 30000000;
+
     public GenericStructure structure;
 
     public AxisAlignedTransform2D transform;
@@ -47,12 +56,16 @@ public class OperationGenerateStructure implements Operation
     public String structureID;
     public String generationInfoID;
 
-    protected GridQuadCache cachedShapeGrid;
+    protected PreviewMesh previewMesh;
 
     protected String seed;
 
     protected final ReadableInstanceData<GenericStructure.InstanceData> instanceData = new ReadableInstanceData<>();
 
+    protected int progress;
+    protected StructureGenerator<GenericStructure.InstanceData> generator;
+    protected List<StructureBoundingBox> slices;
+
     public OperationGenerateStructure()
     {
     }
@@ -66,15 +79,6 @@ public class OperationGenerateStructure implements Operation
         this.generateAsSource = generateAsSource;
     }
 
-    public OperationGenerateStructure dummy(GenericStructure structure)
-    {
-        OperationGenerateStructure op = new OperationGenerateStructure(structure, generationInfoID, transform, lowerCoord, generateAsSource)
-                .withSeed(seed)
-                .withStructureID(structureID);
-        op.instanceData.set(instanceData);
-        return op;
-    }
-
     public String getStructureID()
     {
         return structureID;
@@ -108,6 +112,9 @@ public class OperationGenerateStructure implements Operation
         return this;
     }
 
+    /**
+     * Generates the whole structure in one go, without any slicing.
+     */
     @Override
     public void perform(WorldServer world)
     {
@@ -119,6 +126,83 @@ public class OperationGenerateStructure implements Operation
         generator.generate();
     }
 
+    @Override
+    public void begin(WorldServer world)
+    {
+        if (!instanceData.exists())
+            throw new IllegalStateException();
+
+        progress = 0;
+        generator = null;
+        slices = null;
+    }
+
+    /**
+     * Generates chunk by chunk, complementing the structure in all chunks but the last one. The last chunk is generated
+     * as the structure's first generation, so that, like after {@link #perform(WorldServer)}, the structure is complete
+     * when it is announced and memorized.
+     */
+    @Override
+    public void step(WorldServer world, long budgetNanos)
+    {
+        long start = System.nanoTime();
+
+        if (generator == null)
+        {
+            generator = generator(world);
+            instanceData.load(generator);
+
+            StructureBoundingBox boundingBox = generator.boundingBox().orElse(null);
+            slices = boundingBox != null ? chunkSlices(boundingBox) : Collections.emptyList();
+        }
+
+        while (!isDone())
+        {
+            generator.generationBB(slices.get(progress))
+                    .maturity(progress == slices.size() - 1 ? StructureSpawnContext.GenerateMaturity.FIRST : StructureSpawnContext.GenerateMaturity.COMPLEMENT)
+                    .generate();
+            progress++;
+
+            if (!IncrementalOperation.hasTime(start, budgetNanos))
+                break;
+        }
+
+        if (isDone())
+            generator = null;
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        // Slices are only known once the generator is set up again
+        return slices != null && progress >= slices.size();
+    }
+
+    /**
+     * Slices the bounding box's chunks. The outer slices reach out to the world border so that transformer effects
+     * outside the bounding box still belong to exactly one slice.
+     */
+    protected static List<StructureBoundingBox> chunkSlices(StructureBoundingBox boundingBox)
+    {
+        int minChunkX = boundingBox.minX >> 4, maxChunkX = boundingBox.maxX >> 4;
+        int minChunkZ = boundingBox.minZ >> 4, maxChunkZ = boundingBox.maxZ >> 4;
+
+        List<StructureBoundingBox> slices = new ArrayList<>();
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++)
+            {
+                StructureBoundingBox slice = Structures.chunkBoundingBox(new ChunkPos(chunkX, chunkZ), false);
+
+                if (chunkX == minChunkX) slice.minX = -SLICE_LIMIT;
+                if (chunkX == maxChunkX) slice.maxX = SLICE_LIMIT;
+                if (chunkZ == minChunkZ) slice.minZ = -SLICE_LIMIT;
+                if (chunkZ == maxChunkZ) slice.maxZ = SLICE_LIMIT;
+
+                slices.add(slice);
+            }
+        return slices;
+    }
+
     public StructureGenerator<GenericStructure.InstanceData> generator(WorldServer world)
     {
         StructureGenerator<GenericStructure.InstanceData> generator = new StructureGenerator<>(structure).world(world).generationInfo(generationInfoID)
@@ -171,6 +255,8 @@ public class OperationGenerateStructure implements Operation
             compound.setString("seed", seed);
 
         instanceData.writeToNBT("instanceData", compound);
+
+        compound.setInteger("progress", progress);
     }
 
     @Override
@@ -192,11 +278,8 @@ public class OperationGenerateStructure implements Operation
         seed = compound.hasKey("seed") ? compound.getString("seed") : null;
 
         instanceData.readFromNBT("instanceData", compound);
-    }
 
-    public void invalidateCache()
-    {
-        cachedShapeGrid = null;
+        progress = compound.getInteger("progress");
     }
 
 //    float partial = 0;
@@ -231,16 +314,36 @@ public class OperationGenerateStructure implements Operation
     {
         if (previewType == PreviewType.SHAPE)
         {
+            if (previewMesh == null)
+            {
+                GenericStructure structure = this.structure;
+                previewMesh = new PreviewMesh(() ->
+                {
+                    IvBlockCollection blockCollection = structure.constructWorldData().blockCollection;
+                    return GreedyMesher.mesh(new int[]{blockCollection.width, blockCollection.height, blockCollection.length},
+                            (x, y, z) -> blockCollection.getBlockState(new BlockPos(x, y, z)).isOpaqueCube());
+                });
+            }
+
             GlStateManager.color(0.8f, 0.75f, 1.0f);
-            OperationRenderer.renderGridQuadCache(
-                    cachedShapeGrid != null ? cachedShapeGrid : (cachedShapeGrid = BlockQuadCache.createQuadCache(structure.constructWorldData().blockCollection, new float[]{1, 1, 1})),
-                    transform, lowerCoord, ticks, partialTicks);
+            previewMesh.render(transform, lowerCoord, ticks, partialTicks);
         }
 
         if (previewType == PreviewType.BOUNDING_BOX || previewType == PreviewType.SHAPE)
             OperationRenderer.renderBoundingBox(generationArea(), ticks, partialTicks);
     }
 
+    @SideOnly(Side.CLIENT)
+    @Override
+    public void discardPreview()
+    {
+        if (previewMesh != null)
+        {
+            previewMesh.delete();
+            previewMesh = null;
+        }
+    }
+
     @Nullable
     public BlockArea generationArea()
     {
@@ -21,10 +21,13 @@ import java.util.stream.Collectors;
 /**
  * Created by lukas on 25.10.16.
  */
-public class OperationMulti implements Operation
+public class OperationMulti implements IncrementalOperation
 {
     public final List<Operation> operations = new ArrayList<>();
 
+    protected int current;
+    protected boolean currentBegun;
+
     public OperationMulti()
     {
     }
@@ -40,9 +43,58 @@ public class OperationMulti implements Operation
     }
 
     @Override
-    public void perform(WorldServer world)
+    public void begin(WorldServer world)
+    {
+        current = 0;
+        currentBegun = false;
+    }
+
+    /**
+     * Performs the operations one after another, stepping through incremental ones.
+     */
+    @Override
+    public void step(WorldServer world, long budgetNanos)
     {
-        operations.forEach(o -> o.perform(world));
+        long start = System.nanoTime();
+
+        while (!isDone())
+        {
+            Operation operation = operations.get(current);
+
+            if (operation instanceof IncrementalOperation)
+            {
+                IncrementalOperation incremental = (IncrementalOperation) operation;
+
+                if (!currentBegun)
+                {
+                    incremental.begin(world);
+                    currentBegun = true;
+                }
+
+                if (!incremental.isDone())
+                    incremental.step(world, Math.max(budgetNanos - (System.nanoTime() - start), 0));
+
+                if (incremental.isDone())
+                {
+                    current++;
+                    currentBegun = false;
+                }
+            }
+            else
+            {
+                operation.perform(world);
+                current++;
+            }
+
+            if (!IncrementalOperation.hasTime(start, budgetNanos))
+                break;
+        }
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        return current >= operations.size();
     }
 
     @Override
@@ -64,16 +116,28 @@ public class OperationMulti implements Operation
             operations.get(i).renderPreview(previewType, world, ticks, partialTicks);
     }
 
+    @Override
+    public void discardPreview()
+    {
+        operations.forEach(Operation::discardPreview);
+    }
+
     @Override
     public void readFromNBT(NBTTagCompound compound)
     {
         operations.clear();
         NBTTagLists.compoundsFrom(compound, "operations").stream().map(OperationRegistry::readOperation).forEach(operations::add);
+
+        current = compound.getInteger("current");
+        currentBegun = compound.getBoolean("currentBegun");
     }
 
     @Override
     public void writeToNBT(NBTTagCompound compound)
     {
         NBTTagLists.writeTo(compound, "operations", operations.stream().map(OperationRegistry::writeOperation).collect(Collectors.toList()));
+
+        compound.setInteger("current", current);
+        compound.setBoolean("currentBegun", currentBegun);
     }
 }
@@ -0,0 +1,265 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.operation;
+
+import ivorius.ivtoolkit.blocks.BlockArea;
+import ivorius.ivtoolkit.blocks.BlockPositions;
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.client.rendering.OperationRenderer;
+import ivorius.reccomplex.utils.RCAxisAlignedTransform;
+import ivorius.reccomplex.utils.RCStrings;
+import ivorius.reccomplex.world.gen.feature.StructureGenerator;
+import ivorius.reccomplex.world.gen.feature.structure.context.StructureSpawnContext;
+import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import ivorius.reccomplex.world.storage.SectionClipboard;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Pastes a clipboard section by section, only ever loading one section into memory.
+ * When pasting with transformers, the sections are merged once so that the transformers see the whole area,
+ * and the result is generated chunk by chunk like any other structure.
+ */
+public class OperationPasteClipboard implements IncrementalOperation
+{
+    public SectionClipboard clipboard;
+
+    public AxisAlignedTransform2D transform;
+    public BlockPos lowerCoord;
+
+    public boolean generateAsSource;
+
+    protected String seed;
+
+    protected int nextSection;
+
+    @Nullable
+    protected OperationGenerateStructure generation;
+    /**
+     * Progress of the merged generation as read, until it is resumed.
+     */
+    @Nullable
+    protected NBTTagCompound generationProgress;
+
+    public OperationPasteClipboard()
+    {
+    }
+
+    public OperationPasteClipboard(SectionClipboard clipboard, AxisAlignedTransform2D transform, BlockPos lowerCoord, boolean generateAsSource)
+    {
+        this.clipboard = clipboard;
+        this.transform = transform;
+        this.lowerCoord = lowerCoord;
+        this.generateAsSource = generateAsSource;
+    }
+
+    public OperationPasteClipboard withSeed(String seed)
+    {
+        this.seed = seed;
+        return this;
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        return nextSection >= clipboard.sectionCount();
+    }
+
+    /**
+     * Pastes the next section of the clipboard as source.
+     */
+    public void pasteNext(WorldServer world)
+    {
+        GenericStructure structure = GenericStructure.createDefaultStructure();
+        SectionClipboard.Section section = clipboard.section(nextSection++);
+
+        try
+        {
+            structure.worldDataCompound = clipboard.load(section);
+        }
+        catch (IOException e)
+        {
+            // Pasting the rest would leave a hole in the copy
+            throw new UncheckedIOException("Could not read clipboard section", e);
+        }
+
+        new StructureGenerator<>(structure).world(world)
+                .seed(RCStrings.seed(seed))
+                .transform(transform).lowerCoord(lowerCoord.add(section.lowerCoord(transform, clipboard.size())))
+                .maturity(StructureSpawnContext.GenerateMaturity.FIRST).asSource(true)
+                .generate();
+    }
+
+    /**
+     * Generates the next chunks of the merged clipboard, merging and preparing it first if needed.
+     */
+    protected void pasteMerged(WorldServer world, long budgetNanos)
+    {
+        long start = System.nanoTime();
+
+        if (generation == null)
+            generation = mergedGeneration(world);
+
+        if (generation != null)
+            generation.step(world, budgetNanos - (System.nanoTime() - start));
+
+        if (generation == null || generation.isDone())
+        {
+            nextSection = clipboard.sectionCount();
+            generation = null;
+        }
+    }
+
+    /**
+     * @return The merged clipboard's generation, or null if it doesn't prepare.
+     */
+    @Nullable
+    protected OperationGenerateStructure mergedGeneration(WorldServer world)
+    {
+        GenericStructure structure = GenericStructure.createDefaultStructure();
+
+        try
+        {
+            // Transformers would leave seams between sections
+            structure.worldDataCompound = clipboard.loadAll(world);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not read clipboard section", e);
+        }
+
+        OperationGenerateStructure generation = new OperationGenerateStructure(structure, null, transform, lowerCoord, false)
+                .withSeed(seed);
+
+        if (generationProgress != null)
+        {
+            // Prepared for the same clipboard before saving
+            generation.instanceData.readFromNBT("instanceData", generationProgress);
+            generation.progress = generationProgress.getInteger("progress");
+            generationProgress = null;
+        }
+        else
+        {
+            generation.prepare(world);
+            if (!generation.instanceData.exists())
+                return null;
+            generation.begin(world);
+        }
+
+        return generation;
+    }
+
+    @Override
+    public void begin(WorldServer world)
+    {
+        nextSection = 0;
+        generation = null;
+        generationProgress = null;
+    }
+
+    @Override
+    public void step(WorldServer world, long budgetNanos)
+    {
+        if (!generateAsSource)
+        {
+            pasteMerged(world, budgetNanos);
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        do
+            pasteNext(world);
+        while (!isDone() && IncrementalOperation.hasTime(start, budgetNanos));
+    }
+
+    @Override
+    public boolean checkDead(ICommandSender target)
+    {
+        if (!clipboard.exists())
+        {
+            target.sendMessage(RecurrentComplex.translations.get("commands.strucPaste.noClipboard"));
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public void writeToNBT(NBTTagCompound compound)
+    {
+        NBTTagCompound clipboardCompound = new NBTTagCompound();
+        clipboard.writeToNBT(clipboardCompound);
+        compound.setTag("clipboard", clipboardCompound);
+
+        RCAxisAlignedTransform.write(compound, transform, "rotation", "mirrorX");
+
+        BlockPositions.writeToNBT("lowerCoord", lowerCoord, compound);
+
+        compound.setBoolean("generateAsSource", generateAsSource);
+
+        if (seed != null)
+            compound.setString("seed", seed);
+
+        compound.setInteger("nextSection", nextSection);
+
+        if (generation != null)
+        {
+            NBTTagCompound generationCompound = new NBTTagCompound();
+            generation.instanceData.writeToNBT("instanceData", generationCompound);
+            generationCompound.setInteger("progress", generation.progress);
+            compound.setTag("generation", generationCompound);
+        }
+        else if (generationProgress != null)
+            compound.setTag("generation", generationProgress);
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound compound)
+    {
+        clipboard = new SectionClipboard();
+        clipboard.readFromNBT(compound.getCompoundTag("clipboard"));
+
+        transform = RCAxisAlignedTransform.read(compound, "rotation", "mirrorX");
+
+        lowerCoord = BlockPositions.readFromNBT("lowerCoord", compound);
+
+        generateAsSource = compound.getBoolean("generateAsSource");
+
+        seed = compound.hasKey("seed") ? compound.getString("seed") : null;
+
+        nextSection = compound.getInteger("nextSection");
+
+        generation = null;
+        generationProgress = compound.hasKey("generation", Constants.NBT.TAG_COMPOUND) ? compound.getCompoundTag("generation") : null;
+    }
+
+    @Nullable
+    public BlockArea generationArea()
+    {
+        return OperationRenderer.blockAreaFromSize(lowerCoord, RCAxisAlignedTransform.applySize(transform, clipboard.size()));
+    }
+
+    @SideOnly(Side.CLIENT)
+    @Override
+    public void renderPreview(PreviewType previewType, World world, int ticks, float partialTicks)
+    {
+        // The sections may only exist on the server, so there's no shape to show
+        if (previewType == PreviewType.BOUNDING_BOX || previewType == PreviewType.SHAPE)
+            OperationRenderer.renderBoundingBox(generationArea(), ticks, partialTicks);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.operation;
+
+import ivorius.ivtoolkit.blocks.BlockArea;
+import ivorius.ivtoolkit.blocks.BlockPositions;
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.reccomplex.client.rendering.GreedyMesher;
+import ivorius.reccomplex.client.rendering.OperationRenderer;
+import ivorius.reccomplex.client.rendering.PreviewMesh;
+import ivorius.reccomplex.utils.RCAxisAlignedTransform;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+import java.util.BitSet;
+
+/**
+ * Stands in for an operation too big to be sent to clients, showing one level of detail of its shape.
+ * Only ever exists as a preview; the real operation stays on the server.
+ */
+public class OperationPreviewShape implements Operation
+{
+    public AxisAlignedTransform2D transform;
+    public BlockPos lowerCoord;
+
+    public int[] size;
+    public int level;
+    public int[] cells;
+    public BitSet occupancy;
+
+    protected PreviewMesh previewMesh;
+
+    public OperationPreviewShape()
+    {
+    }
+
+    public OperationPreviewShape(PreviewShape shape, int level, AxisAlignedTransform2D transform, BlockPos lowerCoord)
+    {
+        this.transform = transform;
+        this.lowerCoord = lowerCoord;
+        this.size = shape.size.clone();
+        this.level = level;
+        this.cells = shape.cells(level);
+        this.occupancy = shape.occupancy(level);
+    }
+
+    @Override
+    public void perform(WorldServer world)
+    {
+    }
+
+    @Override
+    public void writeToNBT(NBTTagCompound compound)
+    {
+        RCAxisAlignedTransform.write(compound, transform, "rotation", "mirrorX");
+
+        BlockPositions.writeToNBT("lowerCoord", lowerCoord, compound);
+
+        compound.setIntArray("size", size);
+        compound.setInteger("level", level);
+        compound.setIntArray("cells", cells);
+        compound.setByteArray("occupancy", occupancy.toByteArray());
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound compound)
+    {
+        transform = RCAxisAlignedTransform.read(compound, "rotation", "mirrorX");
+
+        lowerCoord = BlockPositions.readFromNBT("lowerCoord", compound);
+
+        size = compound.getIntArray("size");
+        level = compound.getInteger("level");
+        cells = compound.getIntArray("cells");
+        occupancy = BitSet.valueOf(compound.getByteArray("occupancy"));
+    }
+
+    @Nullable
+    public BlockArea generationArea()
+    {
+        return OperationRenderer.blockAreaFromSize(lowerCoord, RCAxisAlignedTransform.applySize(transform, size));
+    }
+
+    @SideOnly(Side.CLIENT)
+    @Override
+    public void renderPreview(PreviewType previewType, World world, int ticks, float partialTicks)
+    {
+        if (previewType == PreviewType.SHAPE)
+        {
+            if (previewMesh == null)
+            {
+                int[] cells = this.cells;
+                BitSet occupancy = this.occupancy;
+
+                // Cells line up with the structure's blocks, the last cell may stick out of it
+                previewMesh = new PreviewMesh(() -> GreedyMesher.mesh(cells, (x, y, z) -> occupancy.get(x + cells[0] * (y + cells[1] * z))),
+                        1 << level, new float[]{size[0], size[1], size[2]});
+            }
+
+            GlStateManager.color(0.8f, 0.75f, 1.0f);
+            previewMesh.render(transform, lowerCoord, ticks, partialTicks);
+        }
+
+        if (previewType == PreviewType.BOUNDING_BOX || previewType == PreviewType.SHAPE)
+            OperationRenderer.renderBoundingBox(generationArea(), ticks, partialTicks);
+    }
+
+    @SideOnly(Side.CLIENT)
+    @Override
+    public void discardPreview()
+    {
+        if (previewMesh != null)
+        {
+            previewMesh.delete();
+            previewMesh = null;
+        }
+    }
+}
@@ -10,21 +10,17 @@ import com.google.common.collect.HashBiMap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import ivorius.ivtoolkit.lang.IvClasses;
-import ivorius.ivtoolkit.tools.IvWorldData;
 import ivorius.ivtoolkit.tools.NBTCompoundObjects;
 import ivorius.reccomplex.RecurrentComplex;
 import ivorius.reccomplex.capability.RCEntityInfo;
 import ivorius.reccomplex.commands.RCCommands;
 import ivorius.reccomplex.utils.RCPacketBuffer;
-import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
 import net.minecraft.command.CommandBase;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.command.PlayerNotFoundException;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextFormatting;
@@ -41,6 +37,11 @@ import javax.annotation.Nullable;
  */
 public class OperationRegistry
 {
+    // From SPacketCustomPayload
+    public static final int MAX_PREVIEW_BYTES = 1048576 * 4 / 5;
+    // Room for everything in a shape preview but the occupancy itself
+    public static final int PREVIEW_SHAPE_OVERHEAD = 1024;
+
     private static BiMap<String, Class<? extends Operation>> operations = HashBiMap.create();
 
     public static void register(String id, Class<? extends Operation> operation)
@@ -104,38 +105,43 @@ public class OperationRegistry
         }
 
         if (instant)
-            operation.perform((WorldServer) commandSender.getEntityWorld());
+            OperationScheduler.perform(operation, (WorldServer) commandSender.getEntityWorld());
 
         return true;
     }
 
+    /**
+     * @return The operation as it should be sent to clients to preview it, or null if it is too big to send at all.
+     */
     @Nullable
-    public static NBTTagCompound dummyOperation(@Nonnull Operation operation, int level)
+    public static NBTTagCompound previewOperation(@Nonnull Operation operation)
     {
-        if (level == 0)
-            return writeOperation(operation);
-
-        if (operation instanceof OperationGenerateStructure)
+        if (operation instanceof OperationGenerateStructure && ((OperationGenerateStructure) operation).structure != null)
         {
             OperationGenerateStructure genStructure = (OperationGenerateStructure) operation;
 
-            if (level == 1 && genStructure.structure != null)
+            // Every block takes up at least a byte in the full operation, so don't bother encoding big ones
+            int[] size = genStructure.structure.size();
+            if ((long) size[0] * size[1] * size[2] <= MAX_PREVIEW_BYTES)
+            {
+                NBTTagCompound nbt = writeOperation(operation);
+                if (canSend(nbt))
+                    return nbt;
+            }
+
+            PreviewShape shape = PreviewShape.of(genStructure.structure);
+            for (int level = shape.finestLevel(MAX_PREVIEW_BYTES - PREVIEW_SHAPE_OVERHEAD); level < shape.levels(); level++)
             {
-                IvWorldData dummyWorldData = genStructure.structure.constructWorldData();
-                dummyWorldData.entities.clear();
-                dummyWorldData.tileEntities.clear();
-                for (BlockPos pos : dummyWorldData.blockCollection.area())
-                    dummyWorldData.blockCollection.setBlockState(pos, (dummyWorldData.blockCollection.getBlockState(pos).isNormalCube() ? Blocks.STONE : Blocks.AIR).getDefaultState());
-
-                GenericStructure dummyStructure = new GenericStructure();
-                dummyStructure.worldDataCompound = dummyWorldData.createTagCompound();
-                return writeOperation(genStructure.dummy(dummyStructure));
+                NBTTagCompound nbt = writeOperation(new OperationPreviewShape(shape, level, genStructure.transform, genStructure.lowerCoord));
+                if (canSend(nbt))
+                    return nbt;
             }
-            else if (level == 2)
-                return writeOperation(new OperationClearArea(genStructure.generationArea()));
+
+            return null;
         }
 
-        return null;
+        NBTTagCompound nbt = writeOperation(operation);
+        return canSend(nbt) ? nbt : null;
     }
 
     public static void writeBestPreview(ByteBuf buffer, Operation operation)
@@ -146,18 +152,7 @@ public class OperationRegistry
             return;
         }
 
-        NBTTagCompound nbt;
-        int level = 0;
-        while ((nbt = dummyOperation(operation, level++)) != null)
-        {
-            if (canSend(nbt))
-            {
-                new RCPacketBuffer(buffer).writeCompoundTag(nbt);
-                return;
-            }
-        }
-
-        new RCPacketBuffer(buffer).writeCompoundTag(null);
+        new RCPacketBuffer(buffer).writeCompoundTag(previewOperation(operation));
     }
 
     protected static boolean canSend(NBTTagCompound danglingNBT)
@@ -170,7 +165,6 @@ public class OperationRegistry
 
     protected static boolean canSend(ByteBuf temp)
     {
-        // From SPacketCustomPayload
-        return temp.writerIndex() <= (1048576 * 4 / 5);
+        return temp.writerIndex() <= MAX_PREVIEW_BYTES;
     }
 }
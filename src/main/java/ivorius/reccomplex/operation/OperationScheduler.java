@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.operation;
+
+import ivorius.ivtoolkit.tools.NBTTagLists;
+import ivorius.reccomplex.RCConfig;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.world.storage.ClipboardDirectories;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.storage.WorldSavedData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs incremental operations a bit every tick, each one within its own time budget.
+ * Saved with the world, so operations that were still running continue after a restart.
+ */
+public class OperationScheduler extends WorldSavedData
+{
+    private static final String IDENTIFIER = RecurrentComplex.MOD_ID + "-operations";
+
+    protected final List<IncrementalOperation> operations = new ArrayList<>();
+
+    public OperationScheduler(String id)
+    {
+        super(id);
+    }
+
+    public OperationScheduler()
+    {
+        this(IDENTIFIER);
+    }
+
+    public static OperationScheduler get(World world)
+    {
+        OperationScheduler data = (OperationScheduler) world.getPerWorldStorage().getOrLoadData(OperationScheduler.class, IDENTIFIER);
+        if (data == null)
+        {
+            data = new OperationScheduler();
+            world.getPerWorldStorage().setData(data.mapName, data);
+        }
+        return data;
+    }
+
+    /**
+     * Performs the operation, spread over the next ticks if it supports that and there is a budget.
+     */
+    public static void perform(Operation operation, WorldServer world)
+    {
+        if (operation instanceof IncrementalOperation && RCConfig.operationBudgetPerTick > 0)
+            get(world).schedule((IncrementalOperation) operation, world);
+        else
+        {
+            operation.perform(world);
+            if (ClipboardDirectories.of(operation) != null)
+                ClipboardDirectories.deleteUnreferenced(world.getMinecraftServer());
+        }
+    }
+
+    public void schedule(IncrementalOperation operation, WorldServer world)
+    {
+        operation.begin(world);
+        if (!operation.isDone())
+        {
+            operations.add(operation);
+            markDirty();
+        }
+    }
+
+    public void tick(WorldServer world, long budgetNanos)
+    {
+        if (operations.isEmpty())
+            return;
+
+        boolean releasedClipboard = false;
+        for (Iterator<IncrementalOperation> iterator = operations.iterator(); iterator.hasNext(); )
+        {
+            IncrementalOperation operation = iterator.next();
+
+            try
+            {
+                operation.step(world, budgetNanos);
+            }
+            catch (Exception e)
+            {
+                RecurrentComplex.logger.error("Error performing operation", e);
+                iterator.remove();
+                releasedClipboard |= ClipboardDirectories.of(operation) != null;
+                continue;
+            }
+
+            if (operation.isDone())
+            {
+                iterator.remove();
+                releasedClipboard |= ClipboardDirectories.of(operation) != null;
+            }
+        }
+
+        markDirty();
+
+        if (releasedClipboard)
+            ClipboardDirectories.deleteUnreferenced(world.getMinecraftServer());
+    }
+
+    public List<IncrementalOperation> operations()
+    {
+        return Collections.unmodifiableList(operations);
+    }
+
+    public int size()
+    {
+        return operations.size();
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound compound)
+    {
+        operations.clear();
+        NBTTagLists.compoundsFrom(compound, "operations").stream()
+                .map(OperationRegistry::readOperation)
+                .filter(o -> o instanceof IncrementalOperation)
+                .map(o -> (IncrementalOperation) o)
+                .forEach(operations::add);
+    }
+
+    @Override
+    public NBTTagCompound writeToNBT(NBTTagCompound compound)
+    {
+        NBTTagLists.writeTo(compound, "operations", operations.stream().map(OperationRegistry::writeOperation).collect(Collectors.toList()));
+        return compound;
+    }
+}
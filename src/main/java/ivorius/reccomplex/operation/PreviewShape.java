@@ -0,0 +1,105 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.operation;
+
+import ivorius.ivtoolkit.blocks.IvBlockCollection;
+import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.*;
+
+/**
+ * The occupancy of a structure at successively coarser levels of detail, each cell of a level covering 2x2x2 cells
+ * of the one before. Built once per structure, so a preview can pick whichever level fits without re-encoding
+ * the structure.
+ */
+public class PreviewShape
+{
+    private static final Map<GenericStructure, PreviewShape> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public final int[] size;
+    protected final List<BitSet> levels = new ArrayList<>();
+
+    public PreviewShape(IvBlockCollection blockCollection)
+    {
+        size = new int[]{blockCollection.width, blockCollection.height, blockCollection.length};
+
+        BitSet occupancy = new BitSet(volume(size));
+        for (BlockPos pos : blockCollection.area())
+        {
+            if (blockCollection.getBlockState(pos).isNormalCube())
+                occupancy.set(index(size, pos.getX(), pos.getY(), pos.getZ()));
+        }
+        levels.add(occupancy);
+
+        while (volume(cells(levels.size() - 1)) > 1)
+            levels.add(downsample(levels.get(levels.size() - 1), cells(levels.size() - 1), cells(levels.size())));
+    }
+
+    public static PreviewShape of(GenericStructure structure)
+    {
+        return CACHE.computeIfAbsent(structure, s -> new PreviewShape(s.constructWorldData().blockCollection));
+    }
+
+    protected static BitSet downsample(BitSet finer, int[] finerCells, int[] cells)
+    {
+        BitSet coarser = new BitSet(volume(cells));
+        for (int i = finer.nextSetBit(0); i >= 0; i = finer.nextSetBit(i + 1))
+        {
+            int x = i % finerCells[0];
+            int y = (i / finerCells[0]) % finerCells[1];
+            int z = i / (finerCells[0] * finerCells[1]);
+            coarser.set(index(cells, x >> 1, y >> 1, z >> 1));
+        }
+        return coarser;
+    }
+
+    protected static int index(int[] cells, int x, int y, int z)
+    {
+        return x + cells[0] * (y + cells[1] * z);
+    }
+
+    protected static int volume(int[] cells)
+    {
+        return cells[0] * cells[1] * cells[2];
+    }
+
+    public int levels()
+    {
+        return levels.size();
+    }
+
+    /**
+     * @return The size of the level in cells, each cell spanning 2^level blocks per axis.
+     */
+    public int[] cells(int level)
+    {
+        int cellSize = 1 << level;
+        return new int[]{(size[0] + cellSize - 1) >> level, (size[1] + cellSize - 1) >> level, (size[2] + cellSize - 1) >> level};
+    }
+
+    public BitSet occupancy(int level)
+    {
+        return levels.get(level);
+    }
+
+    public int byteSize(int level)
+    {
+        return (volume(cells(level)) + 7) / 8;
+    }
+
+    /**
+     * @return The finest level whose occupancy fits into maxBytes, or the coarsest one if none does.
+     */
+    public int finestLevel(int maxBytes)
+    {
+        for (int level = 0; level < levels.size(); level++)
+            if (byteSize(level) <= maxBytes)
+                return level;
+
+        return levels.size() - 1;
+    }
+}
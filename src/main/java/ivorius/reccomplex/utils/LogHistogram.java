@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts non-negative values in buckets of exponentially growing size, each split into linear sub-buckets,
+ * like an HDR histogram. Quantiles are off by at most 1 / {@link #SUB_BUCKETS}, while memory stays fixed.
+ * Recording never locks, so any number of threads may record at once.
+ */
+public class LogHistogram
+{
+    public static final int SUB_BUCKET_BITS = 4;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    protected final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    protected final LongAdder sum = new LongAdder();
+    protected final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public static int index(long value)
+    {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        // Below the highest bit, keep as many bits as the sub-buckets resolve
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    public static long lowestValue(int index)
+    {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS | (index % SUB_BUCKETS)) << shift;
+    }
+
+    public static long highestValue(int index)
+    {
+        return index + 1 < BUCKETS ? lowestValue(index + 1) - 1 : Long.MAX_VALUE;
+    }
+
+    public void record(long value)
+    {
+        if (value < 0)
+            value = 0;
+
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long count()
+    {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += counts.get(i);
+        return count;
+    }
+
+    public long sum()
+    {
+        return sum.sum();
+    }
+
+    public long max()
+    {
+        return max.get();
+    }
+
+    public double mean()
+    {
+        long count = count();
+        return count > 0 ? (double) sum() / count : 0;
+    }
+
+    /**
+     * @param quantile Between 0 and 1, e.g. 0.99 for the 99th percentile.
+     * @return The highest value that falls into the same bucket as the quantile, or 0 if nothing was recorded.
+     */
+    public long quantile(double quantile)
+    {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += snapshot[i] = counts.get(i);
+
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= rank)
+                return Math.min(highestValue(i), max());
+        }
+
+        return max();
+    }
+}
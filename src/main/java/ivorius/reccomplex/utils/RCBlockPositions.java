@@ -0,0 +1,53 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.utils;
+
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Packing compatible with {@link BlockPos#toLong()} and {@link BlockPos#fromLong(long)}, without allocating positions.
+ */
+public class RCBlockPositions
+{
+    private static final int NUM_X_BITS = 1 + 25; // 1 + log2(30000000)
+    private static final int NUM_Z_BITS = NUM_X_BITS;
+    private static final int NUM_Y_BITS = 64 - NUM_X_BITS - NUM_Z_BITS;
+    private static final int Y_SHIFT = NUM_Z_BITS;
+    private static final int X_SHIFT = Y_SHIFT + NUM_Y_BITS;
+    private static final long X_MASK = (1L << NUM_X_BITS) - 1L;
+    private static final long Y_MASK = (1L << NUM_Y_BITS) - 1L;
+    private static final long Z_MASK = (1L << NUM_Z_BITS) - 1L;
+
+    public static long toLong(int x, int y, int z)
+    {
+        return ((long) x & X_MASK) << X_SHIFT | ((long) y & Y_MASK) << Y_SHIFT | ((long) z & Z_MASK);
+    }
+
+    public static int getX(long packed)
+    {
+        return (int) (packed << 64 - X_SHIFT - NUM_X_BITS >> 64 - NUM_X_BITS);
+    }
+
+    public static int getY(long packed)
+    {
+        return (int) (packed << 64 - Y_SHIFT - NUM_Y_BITS >> 64 - NUM_Y_BITS);
+    }
+
+    public static int getZ(long packed)
+    {
+        return (int) (packed << 64 - NUM_Z_BITS >> 64 - NUM_Z_BITS);
+    }
+
+    public static long offset(long packed, int x, int y, int z)
+    {
+        return toLong(getX(packed) + x, getY(packed) + y, getZ(packed) + z);
+    }
+
+    public static BlockPos.MutableBlockPos setPos(BlockPos.MutableBlockPos pos, long packed)
+    {
+        return pos.setPos(getX(packed), getY(packed), getZ(packed));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.utils.accessor;
+
+import ivorius.reccomplex.RecurrentComplex;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.fml.relauncher.ReflectionHelper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Private chunk lighting methods, resolved once into method handles.
+ */
+public class RCAccessorChunk
+{
+    private static MethodHandle relightBlock;
+    private static MethodHandle propagateSkylightOcclusion;
+    private static MethodHandle setHeightMapMinimum;
+    private static MethodHandle getPrecipitationHeightMap;
+
+    private static MethodHandle unreflect(String name, String srgName, Class<?>... params)
+    {
+        try
+        {
+            return MethodHandles.lookup().unreflect(ReflectionHelper.findMethod(Chunk.class, name, srgName, params));
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static MethodHandle unreflectSetter(String name, String srgName)
+    {
+        try
+        {
+            return MethodHandles.lookup().unreflectSetter(ReflectionHelper.findField(Chunk.class, srgName, name));
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static MethodHandle unreflectGetter(String name, String srgName)
+    {
+        try
+        {
+            return MethodHandles.lookup().unreflectGetter(ReflectionHelper.findField(Chunk.class, srgName, name));
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void relightBlock(Chunk chunk, int x, int y, int z)
+    {
+        if (relightBlock == null)
+            relightBlock = unreflect("relightBlock", "func_76615_h", Integer.TYPE, Integer.TYPE, Integer.TYPE);
+
+        try
+        {
+            relightBlock.invokeExact(chunk, x, y, z);
+        }
+        catch (Throwable e)
+        {
+            RecurrentComplex.logger.error(e);
+        }
+    }
+
+    public static void propagateSkylightOcclusion(Chunk chunk, int x, int z)
+    {
+        if (propagateSkylightOcclusion == null)
+            propagateSkylightOcclusion = unreflect("propagateSkylightOcclusion", "func_76595_e", Integer.TYPE, Integer.TYPE);
+
+        try
+        {
+            propagateSkylightOcclusion.invokeExact(chunk, x, z);
+        }
+        catch (Throwable e)
+        {
+            RecurrentComplex.logger.error(e);
+        }
+    }
+
+    public static void setHeightMapMinimum(Chunk chunk, int heightMapMinimum)
+    {
+        if (setHeightMapMinimum == null)
+            setHeightMapMinimum = unreflectSetter("heightMapMinimum", "field_82912_p");
+
+        try
+        {
+            setHeightMapMinimum.invokeExact(chunk, heightMapMinimum);
+        }
+        catch (Throwable e)
+        {
+            RecurrentComplex.logger.error(e);
+        }
+    }
+
+    /**
+     * Entries of -999 are recalculated when next asked for.
+     */
+    public static int[] getPrecipitationHeightMap(Chunk chunk)
+    {
+        if (getPrecipitationHeightMap == null)
+            getPrecipitationHeightMap = unreflectGetter("precipitationHeightMap", "field_76638_b");
+
+        try
+        {
+            return (int[]) getPrecipitationHeightMap.invokeExact(chunk);
+        }
+        catch (Throwable e)
+        {
+            RecurrentComplex.logger.error(e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.utils.accessor;
+
+import net.minecraftforge.event.terraingen.DecorateBiomeEvent;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Amount data only exists on some forge versions, so it is resolved once per event class.
+ * Classes that lack it are remembered too, so we don't look them up again on every decoration.
+ */
+public class RCAccessorDecorateBiomeEvent
+{
+    private static final Map<Class<?>, Handles> handles = new ConcurrentHashMap<>();
+
+    private static Handles handles(DecorateBiomeEvent.Decorate event)
+    {
+        return handles.computeIfAbsent(event.getClass(), Handles::resolve);
+    }
+
+    public static boolean hasAmountData(DecorateBiomeEvent.Decorate event)
+    {
+        Handles handles = handles(event);
+
+        if (handles == Handles.NONE)
+            return false;
+
+        try
+        {
+            return (boolean) handles.hasAmountData.invoke(event);
+        }
+        catch (Throwable e)
+        {
+            return false;
+        }
+    }
+
+    public static int getModifiedAmount(DecorateBiomeEvent.Decorate event)
+    {
+        Handles handles = handles(event);
+
+        if (handles == Handles.NONE)
+            return -1;
+
+        try
+        {
+            return (int) handles.getModifiedAmount.invoke(event);
+        }
+        catch (Throwable e)
+        {
+            return -1;
+        }
+    }
+
+    public static void setModifiedAmount(DecorateBiomeEvent.Decorate event, int amount)
+    {
+        Handles handles = handles(event);
+
+        if (handles == Handles.NONE)
+            return;
+
+        try
+        {
+            handles.setModifiedAmount.invoke(event, amount);
+        }
+        catch (Throwable ignored)
+        {
+        }
+    }
+
+    private static class Handles
+    {
+        public static final Handles NONE = new Handles(null, null, null);
+
+        public final MethodHandle hasAmountData;
+        public final MethodHandle getModifiedAmount;
+        public final MethodHandle setModifiedAmount;
+
+        private Handles(MethodHandle hasAmountData, MethodHandle getModifiedAmount, MethodHandle setModifiedAmount)
+        {
+            this.hasAmountData = hasAmountData;
+            this.getModifiedAmount = getModifiedAmount;
+            this.setModifiedAmount = setModifiedAmount;
+        }
+
+        @Nullable
+        private static MethodHandle find(Class<?> clazz, String name, MethodType type)
+        {
+            try
+            {
+                // Only what the class declares itself, like the old getDeclaredMethod lookup
+                MethodHandle handle = MethodHandles.publicLookup().unreflect(clazz.getDeclaredMethod(name, type.parameterArray()));
+                return handle.asType(handle.type().changeParameterType(0, DecorateBiomeEvent.Decorate.class));
+            }
+            catch (Exception e)
+            {
+                return null;
+            }
+        }
+
+        private static Handles resolve(Class<?> clazz)
+        {
+            MethodHandle hasAmountData = find(clazz, "hasAmountData", MethodType.methodType(boolean.class));
+            MethodHandle getModifiedAmount = find(clazz, "getModifiedAmount", MethodType.methodType(int.class));
+            MethodHandle setModifiedAmount = find(clazz, "setModifiedAmount", MethodType.methodType(void.class, int.class));
+
+            return hasAmountData != null && getModifiedAmount != null && setModifiedAmount != null
+                    ? new Handles(hasAmountData, getModifiedAmount, setModifiedAmount)
+                    : NONE;
+        }
+    }
+}
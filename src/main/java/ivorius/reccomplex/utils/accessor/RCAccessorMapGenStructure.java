@@ -5,11 +5,17 @@
 
 package ivorius.reccomplex.utils.accessor;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import ivorius.reccomplex.RecurrentComplex;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 import net.minecraft.world.gen.structure.MapGenStructure;
 import net.minecraft.world.gen.structure.StructureStart;
 import net.minecraftforge.fml.relauncher.ReflectionHelper;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 /**
@@ -19,6 +25,23 @@ public class RCAccessorMapGenStructure
 {
     private static Method getStructureAt;
 
+    private static Field structureMap;
+    private static MethodHandle initializeStructureData;
+    private static MethodHandle setStructureStart;
+    private static MethodHandle canSpawnStructureAtCoords;
+
+    private static MethodHandle unreflect(String name, String srgName, Class<?>... params)
+    {
+        try
+        {
+            return MethodHandles.lookup().unreflect(ReflectionHelper.findMethod(MapGenStructure.class, name, srgName, params));
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static StructureStart getStructureAt(MapGenStructure gen, BlockPos pos)
     {
         if (getStructureAt == null)
@@ -26,4 +49,83 @@ public class RCAccessorMapGenStructure
 
         return SafeReflector.invoke(gen, getStructureAt, null, pos);
     }
+
+    private static Field structureMapField()
+    {
+        if (structureMap == null)
+            structureMap = ReflectionHelper.findField(MapGenStructure.class, "structureMap", "field_75053_d");
+        return structureMap;
+    }
+
+    public static Long2ObjectMap<StructureStart> getStructureMap(MapGenStructure gen)
+    {
+        try
+        {
+            //noinspection unchecked
+            return (Long2ObjectMap<StructureStart>) structureMapField().get(gen);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void setStructureMap(MapGenStructure gen, Long2ObjectMap<StructureStart> map)
+    {
+        try
+        {
+            structureMapField().set(gen, map);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void initializeStructureData(MapGenStructure gen, World world)
+    {
+        if (initializeStructureData == null)
+            initializeStructureData = unreflect("initializeStructureData", "func_143027_a", World.class);
+
+        try
+        {
+            initializeStructureData.invokeExact(gen, world);
+        }
+        catch (Throwable e)
+        {
+            RecurrentComplex.logger.error(e);
+        }
+    }
+
+    public static void setStructureStart(MapGenStructure gen, int x, int z, StructureStart start)
+    {
+        if (setStructureStart == null)
+            setStructureStart = unreflect("setStructureStart", "func_143026_a", Integer.TYPE, Integer.TYPE, StructureStart.class);
+
+        try
+        {
+            setStructureStart.invokeExact(gen, x, z, start);
+        }
+        catch (Throwable e)
+        {
+            RecurrentComplex.logger.error(e);
+        }
+    }
+
+    public static boolean canSpawnStructureAtCoords(MapGenStructure gen, int chunkX, int chunkZ)
+    {
+        if (canSpawnStructureAtCoords == null)
+            canSpawnStructureAtCoords = unreflect("canSpawnStructureAtCoords", "func_75047_a", Integer.TYPE, Integer.TYPE);
+
+        try
+        {
+            return (boolean) canSpawnStructureAtCoords.invokeExact(gen, chunkX, chunkZ);
+        }
+        catch (Throwable e)
+        {
+            RecurrentComplex.logger.error(e);
+        }
+
+        return false;
+    }
 }
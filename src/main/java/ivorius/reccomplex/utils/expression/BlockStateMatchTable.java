@@ -0,0 +1,48 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.utils.expression;
+
+import ivorius.reccomplex.utils.algebra.BoolFunctionExpressionCache;
+import net.minecraft.block.state.IBlockState;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers a block expression's result per block state. A structure only contains a handful of distinct states,
+ * so the expression ends up evaluated once per state instead of once per block.
+ * Expressions referencing global toggles are never remembered, since those may change at any time.
+ */
+public class BlockStateMatchTable
+{
+    protected BlockExpression expression;
+    protected String source;
+    protected boolean memoizable;
+
+    protected Map<IBlockState, Boolean> results = new ConcurrentHashMap<>();
+
+    public boolean test(BlockExpression expression, IBlockState state)
+    {
+        if (this.expression != expression || !expression.getExpression().equals(source))
+            reset(expression);
+
+        if (!memoizable)
+            return expression.test(state);
+
+        Boolean result = results.get(state);
+        if (result == null)
+            results.put(state, result = expression.test(state));
+        return result;
+    }
+
+    protected synchronized void reset(BlockExpression expression)
+    {
+        this.results = new ConcurrentHashMap<>();
+        this.expression = expression;
+        this.source = expression.getExpression();
+        this.memoizable = !source.contains(BoolFunctionExpressionCache.GLOBAL_PREFIX);
+    }
+}
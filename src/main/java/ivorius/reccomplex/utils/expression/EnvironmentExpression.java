@@ -16,7 +16,9 @@ import net.minecraft.util.text.TextFormatting;
 import net.minecraft.world.WorldProvider;
 import net.minecraft.world.biome.Biome;
 
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -43,6 +45,26 @@ public class EnvironmentExpression extends BoolFunctionExpressionCache<Environme
         addTypes(new VariableDomainType(VARIABLE_PREFIX, ""), t -> t.alias("var.", ""));
     }
 
+    /**
+     * @return The ids of all structure variables the expression reads.
+     */
+    public Set<String> referencedVariables()
+    {
+        Set<String> variables = new HashSet<>();
+        if (parsedExpression != null)
+        {
+            parsedExpression.walkVariables(v ->
+            {
+                VariableType<?, ?, ?> type = type(v.identifier);
+                VariableType<?, ?, ?> origin = type instanceof AliasType ? ((AliasType<?, ?, ?, ?>) type).parent : type;
+                if (origin instanceof VariableDomainType)
+                    variables.add(v.identifier.substring(type.getPrefix().length()));
+                return true;
+            });
+        }
+        return variables;
+    }
+
     public static class BiomeVariableType extends DelegatingVariableType<Boolean, Environment, Object, Biome, Object, BiomeExpression>
     {
         public BiomeVariableType(String prefix, String suffix)
@@ -49,6 +49,23 @@ public class PositionedBlockExpression extends BoolFunctionExpressionCache<Posit
         addType(new BlocksVariableType(PositionedBlockExpression.BLOCKS_PREFIX, ""));
     }
 
+    /**
+     * @return Whether the expression's result only depends on the block state, and not on the world around it.
+     */
+    public boolean dependsOnStateOnly()
+    {
+        return parsedExpression == null || parsedExpression.walkVariables(v ->
+        {
+            VariableType<?, ?, ?> type = type(v.identifier);
+            VariableType<?, ?, ?> origin = type instanceof AliasType ? ((AliasType<?, ?, ?, ?>) type).parent : type;
+            String var = type != null ? v.identifier.substring(type.getPrefix().length()) : null;
+
+            return origin instanceof BlockVariableType || origin instanceof BlocksVariableType || origin instanceof VariableTypeGlobal
+                    || (origin instanceof IsVariableType && (var.equals("liquid") || var.equals("water") || var.equals("lava")))
+                    || (origin instanceof SustainVariableType && var.equals("mushrooms"));
+        });
+    }
+
     public static class Argument
     {
         public MockWorld world;
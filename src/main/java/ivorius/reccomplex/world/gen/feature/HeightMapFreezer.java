@@ -8,26 +8,27 @@ package ivorius.reccomplex.world.gen.feature;
 import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 import ivorius.ivtoolkit.world.chunk.gen.StructureBoundingBoxes;
+import ivorius.reccomplex.RCConfig;
 import ivorius.reccomplex.utils.RCStructureBoundingBoxes;
-import ivorius.reccomplex.utils.accessor.SafeReflector;
+import ivorius.reccomplex.utils.accessor.RCAccessorChunk;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import net.minecraft.world.gen.structure.StructureBoundingBox;
-import net.minecraftforge.fml.relauncher.ReflectionHelper;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.*;
 
 /**
  * Created by lukas on 04.07.17.
  */
 public class HeightMapFreezer
 {
-    protected static Method relightBlock;
-    protected static Method propagateSkylightOcclusion;
+    private static final Map<World, List<BlockPos>> deferredLight = Collections.synchronizedMap(new WeakHashMap<>());
 
     protected StructureBoundingBox boundingBox;
 
@@ -49,6 +50,16 @@ public class HeightMapFreezer
         this.chunkSize = new int[]{chunkMax.x - chunkMin.x + 1, chunkMax.z - chunkMin.z + 1,};
     }
 
+    /**
+     * Spreads the sky light that was left to flow sideways out of relit structures since the last call.
+     */
+    public static void propagateDeferredLight(World world)
+    {
+        List<BlockPos> positions = deferredLight.remove(world);
+        if (positions != null)
+            positions.forEach(pos -> world.checkLightFor(EnumSkyBlock.SKY, pos));
+    }
+
     public static HeightMapFreezer freeze(StructureBoundingBox boundingBox, World world)
     {
         HeightMapFreezer freezer = new HeightMapFreezer(boundingBox, world);
@@ -112,38 +123,136 @@ public class HeightMapFreezer
 
     public void melt()
     {
-        if (relightBlock == null)
-            relightBlock = ReflectionHelper.findMethod(Chunk.class, "relightBlock", "func_76615_h",
-                    Integer.TYPE, Integer.TYPE, Integer.TYPE);
-        if (propagateSkylightOcclusion == null)
-            propagateSkylightOcclusion = ReflectionHelper.findMethod(Chunk.class, "propagateSkylightOcclusion", "func_76595_e",
-                    Integer.TYPE, Integer.TYPE);
-
         // Restore
-        RCStructureBoundingBoxes.streamMutablePositions(boundingBox).forEach(pos ->
+        chunks.forEachValue(entry ->
         {
-            Entry entry = entry(pos);
-            int surfaceIndex = chunkSurfaceIndex(pos);
-            //noinspection ConstantConditions
-            entry.chunk.getHeightMap()[surfaceIndex] = entry.original[surfaceIndex];
+            entry.forEachColumn((x, z) ->
+            {
+                int surfaceIndex = (z << 4) | x;
+                entry.chunk.getHeightMap()[surfaceIndex] = entry.original[surfaceIndex];
+            });
+            return true;
         });
 
-        // Relight
-        RCStructureBoundingBoxes.streamMutablePositions(boundingBox).forEach(pos ->
+        if (RCConfig.batchedRelighting)
+            relightBatched();
+        else
+            relightPerColumn();
+    }
+
+    protected void relightPerColumn()
+    {
+        chunks.forEachValue(entry ->
         {
-            Entry entry = entry(pos);
-            int surfaceIndex = chunkSurfaceIndex(pos);
-            //noinspection ConstantConditions
-            if (entry.heightMap[surfaceIndex] >= entry.original[surfaceIndex])
+            entry.forEachColumn((x, z) ->
+            {
+                int surfaceIndex = (z << 4) | x;
+                if (entry.heightMap[surfaceIndex] >= entry.original[surfaceIndex])
+                {
+                    RCAccessorChunk.relightBlock(entry.chunk, x, entry.heightMap[surfaceIndex] + 1, z);
+                    RCAccessorChunk.propagateSkylightOcclusion(entry.chunk, x, z);
+                    if (world.provider.hasSkyLight())
+                        world.checkLight(new BlockPos(entry.chunk.x << 4 | x, entry.heightMap[surfaceIndex], entry.chunk.z << 4 | z));
+                }
+            });
+            return true;
+        });
+    }
+
+    /**
+     * Resolves the final height map and sky light of every chunk in one go instead of asking the world to relight
+     * every raised column on its own. Light spilling sideways out of the raised area is deferred to the end of the tick,
+     * see {@link #propagateDeferredLight(World)}.
+     */
+    protected void relightBatched()
+    {
+        boolean hasSkyLight = world.provider.hasSkyLight();
+        List<BlockPos> borders = new ArrayList<>();
+        BlockPos.MutableBlockPos worldPos = new BlockPos.MutableBlockPos();
+
+        chunks.forEachValue(entry ->
+        {
+            Chunk chunk = entry.chunk;
+            int[] heightMap = chunk.getHeightMap();
+            ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+            int[] precipitationHeightMap = RCAccessorChunk.getPrecipitationHeightMap(chunk);
+            int top = chunk.getTopFilledSegment() + 15;
+            boolean[] changed = {false};
+
+            entry.forEachColumn((x, z) ->
+            {
+                int surfaceIndex = (z << 4) | x;
+                if (!entry.isRaised(surfaceIndex))
+                    return;
+
+                int worldX = chunk.x << 4 | x, worldZ = chunk.z << 4 | z;
+
+                // Height map: first y above the highest opaque block
+                int height = Math.max(entry.heightMap[surfaceIndex] + 1, entry.original[surfaceIndex]);
+                while (height > 0 && chunk.getBlockState(x, height - 1, z).getLightOpacity(world, worldPos.setPos(worldX, height - 1, worldZ)) == 0)
+                    height--;
+                heightMap[surfaceIndex] = height;
+                if (precipitationHeightMap != null)
+                    precipitationHeightMap[surfaceIndex] = -999;
+
+                if (hasSkyLight)
+                {
+                    // Sky light: straight down through all sections, the same way a fresh chunk is lit
+                    int light = 15;
+                    for (int y = top; y >= 0; y--)
+                    {
+                        if (light > 0)
+                        {
+                            int opacity = chunk.getBlockState(x, y, z).getLightOpacity(world, worldPos.setPos(worldX, y, worldZ));
+                            if (opacity == 0 && light != 15)
+                                opacity = 1;
+                            light = Math.max(0, light - opacity);
+                        }
+
+                        ExtendedBlockStorage section = storage[y >> 4];
+                        if (section != Chunk.NULL_BLOCK_STORAGE)
+                            section.setSkyLight(x, y & 15, z, light);
+                    }
+
+                    // Lets the chunk recheck gaps to its neighbours on its own tick
+                    RCAccessorChunk.propagateSkylightOcclusion(chunk, x, z);
+
+                    if (isBorder(worldX, worldZ))
+                        borders.add(new BlockPos(worldX, height, worldZ));
+                }
+
+                changed[0] = true;
+            });
+
+            if (changed[0])
             {
-                SafeReflector.invoke(entry.chunk, relightBlock, null,
-                        pos.getX() & 15, entry.heightMap[surfaceIndex] + 1, pos.getZ() & 15);
-                SafeReflector.invoke(entry.chunk, propagateSkylightOcclusion, null,
-                        pos.getX() & 15, pos.getZ() & 15);
-                if (world.provider.hasSkyLight())
-                    world.checkLight(new BlockPos(pos.getX(), entry.heightMap[surfaceIndex], pos.getZ()));
+                RCAccessorChunk.setHeightMapMinimum(chunk, Arrays.stream(heightMap).min().orElse(0));
+                chunk.markDirty();
             }
+            return true;
         });
+
+        if (!borders.isEmpty())
+        {
+            if (world instanceof WorldServer)
+                deferredLight.computeIfAbsent(world, w -> new ArrayList<>()).addAll(borders);
+            else
+                borders.forEach(pos -> world.checkLightFor(EnumSkyBlock.SKY, pos));
+        }
+    }
+
+    /**
+     * Whether a raised column touches one that wasn't raised, i.e. light may flow in or out sideways.
+     */
+    private boolean isBorder(int x, int z)
+    {
+        return !isRaised(x - 1, z) || !isRaised(x + 1, z) || !isRaised(x, z - 1) || !isRaised(x, z + 1);
+    }
+
+    private boolean isRaised(int x, int z)
+    {
+        Entry entry = entry(new BlockPos(x, boundingBox.minY, z));
+        return entry != null && entry.isRaised((z & 15) << 4 | (x & 15));
     }
 
     private class Entry
@@ -159,5 +268,25 @@ public class HeightMapFreezer
             this.heightMap = new int[original.length];
             Arrays.fill(heightMap, -1);
         }
+
+        public boolean isRaised(int surfaceIndex)
+        {
+            return heightMap[surfaceIndex] >= original[surfaceIndex];
+        }
+
+        public void forEachColumn(ColumnConsumer consumer)
+        {
+            int minX = Math.max(boundingBox.minX, chunk.x << 4) & 15, maxX = Math.min(boundingBox.maxX, (chunk.x << 4) + 15) & 15;
+            int minZ = Math.max(boundingBox.minZ, chunk.z << 4) & 15, maxZ = Math.min(boundingBox.maxZ, (chunk.z << 4) + 15) & 15;
+
+            for (int z = minZ; z <= maxZ; z++)
+                for (int x = minX; x <= maxX; x++)
+                    consumer.accept(x, z);
+        }
+    }
+
+    private interface ColumnConsumer
+    {
+        void accept(int x, int z);
     }
 }
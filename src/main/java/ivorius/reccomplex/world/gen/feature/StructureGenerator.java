@@ -33,7 +33,9 @@ import net.minecraftforge.common.MinecraftForge;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Optional;
 import java.util.Random;
 import java.util.function.Predicate;
@@ -51,6 +53,8 @@ public class StructureGenerator<S extends NBTStorable>
     public static final long GENERATE_SEED = 2309842093742837432L;
     public static final long TRANSFORM_SEED = 1283901823092812394L;
 
+    private static final ThreadLocal<Deque<StructureBoundingBox>> PREPARING_EXTENTS = ThreadLocal.withInitial(ArrayDeque::new);
+
     @Nullable
     private WorldServer world;
     @Nullable
@@ -99,6 +103,9 @@ public class StructureGenerator<S extends NBTStorable>
 
     private boolean partially;
 
+    @Nullable
+    private StructureBoundingBox extent;
+
     public StructureGenerator(Structure<S> structure)
     {
         structure(structure);
@@ -154,7 +161,7 @@ public class StructureGenerator<S extends NBTStorable>
                 MinecraftForge.EVENT_BUS.post(new StructureGenerationEventLite.Pre(world, structureID, boundingBox, spawn.generationLayer, firstTime));
         }
 
-        RCWorldgenMonitor.start("generating " + structureID());
+        WorldgenProfiler.start(structureID, WorldgenProfiler.Phase.GENERATE, spawn.generationBB);
         try
         {
             structure.generate(spawn, instanceData, transformer != null ? transformer.transformer : RCConfig.getUniversalTransformer());
@@ -166,7 +173,7 @@ public class StructureGenerator<S extends NBTStorable>
         }
         finally
         {
-            RCWorldgenMonitor.stop();
+            WorldgenProfiler.stop();
         }
 
         if (!firstTime)
@@ -181,24 +188,33 @@ public class StructureGenerator<S extends NBTStorable>
         if (structureID == null || !memorize)
             return Optional.empty();
 
-        String generationInfoID = generationType != null ? generationType.id() : null;
+        String generationInfoID = generationType != null ? generationType.id() : this.generationInfoID;
 
         WorldStructureGenerationData.StructureEntry structureEntry = WorldStructureGenerationData.StructureEntry.complete(structureID, generationInfoID, boundingBox, spawn.transform, !partially);
         structureEntry.blocking = structure.isBlocking();
         structureEntry.firstTime = false; // Been there done that
         structureEntry.seed = seed();
 
+        Collection<ChunkPos> existingChunks;
+        WorldgenProfiler.start(structureID, WorldgenProfiler.Phase.PERSIST, spawn.generationBB);
         try
         {
-            structureEntry.instanceData = instanceData.writeToNBT();
+            try
+            {
+                structureEntry.instanceData = instanceData.writeToNBT();
+            }
+            catch (Exception e)
+            {
+                RecurrentComplex.logger.error(String.format("Error saving instance data for structure %s in %s", structure, boundingBox), e);
+            }
+
+            existingChunks = WorldStructureGenerationData.get(world).addEntry(structureEntry).stream().collect(Collectors.toList());
         }
-        catch (Exception e)
+        finally
         {
-            RecurrentComplex.logger.error(String.format("Error saving instance data for structure %s in %s", structure, boundingBox), e);
+            WorldgenProfiler.stop();
         }
 
-        Collection<ChunkPos> existingChunks = WorldStructureGenerationData.get(world).addEntry(structureEntry).stream().collect(Collectors.toList());
-
         // Complement in all chunks that already exist
         if (partially)
         {
@@ -212,9 +228,16 @@ public class StructureGenerator<S extends NBTStorable>
                 if (oldBB.intersectsWith(generationBB))
                     continue; // Skip those that we just generated in, especially the same chunk
 
-                RCWorldgenMonitor.start("pre-complementing " + structureID());
-                structure.generate(spawn().get(), instanceData, RCConfig.getUniversalTransformer());
-                RCWorldgenMonitor.stop();
+                StructureSpawnContext complement = spawn().get();
+                WorldgenProfiler.start(structureID, WorldgenProfiler.Phase.GENERATE, complement.generationBB);
+                try
+                {
+                    structure.generate(complement, instanceData, RCConfig.getUniversalTransformer());
+                }
+                finally
+                {
+                    WorldgenProfiler.stop();
+                }
             }
             generationBB(oldBB);
         }
@@ -386,9 +409,16 @@ public class StructureGenerator<S extends NBTStorable>
 
                 if (placed)
                 {
-                    RCWorldgenMonitor.start("placing " + structureID());
-                    int y = placer.place(place(), structure().blockCollection());
-                    RCWorldgenMonitor.stop();
+                    int y;
+                    WorldgenProfiler.start(structureID(), WorldgenProfiler.Phase.PLACE, generationBB);
+                    try
+                    {
+                        y = placer.place(place(), structure().blockCollection());
+                    }
+                    finally
+                    {
+                        WorldgenProfiler.stop();
+                    }
 
                     if (y < 0) return Optional.empty();
                     boundingBox.minY += y;
@@ -499,11 +529,18 @@ public class StructureGenerator<S extends NBTStorable>
                 : this.instanceDataNBT != null ? load().map(load -> structure().loadInstanceData(load, this.instanceDataNBT, RCConfig.getUniversalTransformer()))
                 : prepare().flatMap(prepare ->
         {
+            // Children prepared meanwhile grow the extent
+            Deque<StructureBoundingBox> extents = PREPARING_EXTENTS.get();
+            StructureBoundingBox extent = new StructureBoundingBox(prepare.boundingBox);
+            extents.push(extent);
+            WorldgenProfiler.start(structureID(), WorldgenProfiler.Phase.PREPARE, generationBB);
+
             try
             {
-                RCWorldgenMonitor.start("preparing " + structureID());
                 Optional<S> prepared = Optional.ofNullable(structure().prepareInstanceData(prepare, RCConfig.getUniversalTransformer()));
-                RCWorldgenMonitor.stop();
+
+                if (prepared.isPresent())
+                    this.extent = extent;
 
                 return prepared;
             }
@@ -514,11 +551,28 @@ public class StructureGenerator<S extends NBTStorable>
                 else
                     RecurrentComplex.logger.error("Error preparing structure: " + structure(), e);
             }
+            finally
+            {
+                WorldgenProfiler.stop();
+
+                extents.pop();
+                if (!extents.isEmpty())
+                    extents.peek().expandTo(extent);
+            }
 
             return Optional.empty();
         });
     }
 
+    /**
+     * @return The box containing the structure and all children it prepared, if it was prepared by this generator
+     */
+    @Nonnull
+    public Optional<StructureBoundingBox> extent()
+    {
+        return Optional.ofNullable(extent).map(StructureBoundingBox::new);
+    }
+
     public StructureGenerator<S> memorize(boolean memorize)
     {
         this.memorize = memorize;
@@ -67,10 +67,20 @@ public class WorldGenStructures
     public static void planStructuresInChunk(Random random, ChunkPos chunkPos, WorldServer world, Biome biomeGen, @Nullable Predicate<Structure> structurePredicate)
     {
         MixingStructureSelector<NaturalGeneration, NaturalStructureSelector.Category> structureSelector = NaturalGeneration.selectors(StructureRegistry.INSTANCE).get(biomeGen, world.provider);
+        structureSelector.updateSaturation(WorldStructureGenerationData.get(world));
 
         float distanceToSpawn = distance(new ChunkPos(world.getSpawnPoint()), chunkPos);
         // TODO Use STRUCTURE_TRIES
-        List<Pair<Structure<?>, NaturalGeneration>> generated = structureSelector.generatedStructures(random, world.getBiome(chunkPos.getBlock(0, 0, 0)), world.provider, distanceToSpawn);
+        List<Pair<Structure<?>, NaturalGeneration>> generated;
+        WorldgenProfiler.start(null, WorldgenProfiler.Phase.SELECT, Structures.chunkBoundingBox(chunkPos, true));
+        try
+        {
+            generated = structureSelector.generatedStructures(random, world.getBiome(chunkPos.getBlock(0, 0, 0)), world.provider, distanceToSpawn);
+        }
+        finally
+        {
+            WorldgenProfiler.stop();
+        }
 
         generated.stream()
                 .filter(pair -> structurePredicate == null || structurePredicate.test(pair.getLeft()))
@@ -80,12 +90,22 @@ public class WorldGenStructures
     public static boolean generateOneStructureInChunk(Random random, ChunkPos chunkPos, WorldServer world, Biome biomeGen)
     {
         MixingStructureSelector<NaturalGeneration, NaturalStructureSelector.Category> structureSelector = NaturalGeneration.selectors(StructureRegistry.INSTANCE).get(biomeGen, world.provider);
+        structureSelector.updateSaturation(WorldStructureGenerationData.get(world));
 
         float distanceToSpawn = distance(new ChunkPos(world.getSpawnPoint()), chunkPos);
 
         for (int i = 0; i < STRUCTURE_TRIES; i++)
         {
-            Pair<Structure<?>, NaturalGeneration> pair = structureSelector.selectOne(random, world.provider, world.getBiome(chunkPos.getBlock(0, 0, 0)), null, distanceToSpawn);
+            Pair<Structure<?>, NaturalGeneration> pair;
+            WorldgenProfiler.start(null, WorldgenProfiler.Phase.SELECT, Structures.chunkBoundingBox(chunkPos, true));
+            try
+            {
+                pair = structureSelector.selectOne(random, world.provider, world.getBiome(chunkPos.getBlock(0, 0, 0)), null, distanceToSpawn);
+            }
+            finally
+            {
+                WorldgenProfiler.stop();
+            }
 
             if (pair != null)
             {
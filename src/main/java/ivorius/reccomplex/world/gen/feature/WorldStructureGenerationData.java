@@ -8,6 +8,8 @@ package ivorius.reccomplex.world.gen.feature;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
 import ivorius.ivtoolkit.blocks.BlockPositions;
 import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
 import ivorius.ivtoolkit.tools.NBTCompoundObject;
@@ -48,6 +50,8 @@ public class WorldStructureGenerationData extends WorldSavedData
     protected final SetMultimap<ChunkPos, Entry> chunkMap = HashMultimap.create();
 
     protected final SetMultimap<String, StructureEntry> instanceMap = HashMultimap.create();
+    protected final TObjectIntMap<String> instanceCounts = new TObjectIntHashMap<>();
+    protected int instanceCountsVersion;
 
     public WorldStructureGenerationData(String id)
     {
@@ -110,7 +114,11 @@ public class WorldStructureGenerationData extends WorldSavedData
             chunkMap.put(coords, entry);
 
         if (entry instanceof StructureEntry)
-            instanceMap.put(((StructureEntry) entry).getStructureID(), (StructureEntry) entry);
+        {
+            String structureID = ((StructureEntry) entry).getStructureID();
+            if (instanceMap.put(structureID, (StructureEntry) entry))
+                changeInstanceCount(structureID, 1);
+        }
 
         markDirty();
 
@@ -126,7 +134,13 @@ public class WorldStructureGenerationData extends WorldSavedData
     {
         Entry entry = entryMap.remove(id);
         chunkMap.values().removeIf(e -> e.uuid.equals(id));
-        instanceMap.values().removeIf(e -> e.uuid.equals(id));
+
+        if (entry instanceof StructureEntry)
+        {
+            String structureID = ((StructureEntry) entry).getStructureID();
+            if (instanceMap.remove(structureID, entry))
+                changeInstanceCount(structureID, -1);
+        }
 
         if (entry != null)
             markDirty();
@@ -138,6 +152,26 @@ public class WorldStructureGenerationData extends WorldSavedData
         return instanceMap.get(id);
     }
 
+    public int getEntryCount(String id)
+    {
+        return instanceCounts.get(id);
+    }
+
+    /**
+     * @return A number that changes whenever any structure's entry count changes.
+     */
+    public int getEntryCountsVersion()
+    {
+        return instanceCountsVersion;
+    }
+
+    protected void changeInstanceCount(String id, int change)
+    {
+        if (instanceCounts.adjustOrPutValue(id, change, change) <= 0)
+            instanceCounts.remove(id);
+        instanceCountsVersion++;
+    }
+
     public Stream<ChunkPos> checkAllChunks(Stream<ChunkPos> chunks)
     {
         return chunks.filter(this::checkChunk);
@@ -166,6 +200,8 @@ public class WorldStructureGenerationData extends WorldSavedData
         entryMap.clear();
         chunkMap.clear();
         instanceMap.clear();
+        instanceCounts.clear();
+        instanceCountsVersion++;
         NBTCompoundObjects.readListFrom(compound, "entries", StructureEntry::new).forEach(this::addEntry);
         NBTCompoundObjects.readListFrom(compound, "customEntries", CustomEntry::new).forEach(this::addEntry);
 
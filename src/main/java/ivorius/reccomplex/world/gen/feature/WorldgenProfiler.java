@@ -0,0 +1,255 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature;
+
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.utils.LogHistogram;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps track of which structure is in which phase of generation, to blame chunks generated outside of the area being
+ * generated (cascading chunk generation) on the right structure.
+ * While enabled, also times every phase per structure. Disabled, it only keeps the stack of phases and warns about cascading generation, which costs next to nothing.
+ */
+public class WorldgenProfiler
+{
+    public static final String NO_STRUCTURE = "-";
+
+    private static final long NO_CHUNK = Long.MIN_VALUE;
+
+    private static final ThreadLocal<Frames> FRAMES = ThreadLocal.withInitial(Frames::new);
+    private static final ConcurrentMap<String, Timings> timings = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+    private static volatile long enabledTime;
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Starts timing, discarding what was recorded before.
+     */
+    public static void enable()
+    {
+        timings.clear();
+        enabledTime = System.currentTimeMillis();
+        enabled = true;
+    }
+
+    public static void disable()
+    {
+        enabled = false;
+    }
+
+    /**
+     * @param bounds The area the phase may touch, or null if it may touch anything.
+     */
+    public static void start(@Nullable String structure, Phase phase, @Nullable StructureBoundingBox bounds)
+    {
+        Frame frame = FRAMES.get().push();
+        frame.structure = structure;
+        frame.phase = phase;
+        frame.bounds = bounds;
+        frame.warned = false;
+        frame.start = enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Starts a phase of whatever structure is currently generating, within its bounds.
+     */
+    public static void start(Phase phase)
+    {
+        Frames frames = FRAMES.get();
+        Frame parent = frames.peek();
+
+        Frame frame = frames.push();
+        frame.structure = parent != null ? parent.structure : null;
+        frame.phase = phase;
+        frame.bounds = parent != null ? parent.bounds : null;
+        frame.warned = false;
+        frame.start = enabled ? System.nanoTime() : 0;
+    }
+
+    public static void stop()
+    {
+        Frame frame = FRAMES.get().pop();
+
+        if (frame.start != 0)
+            timings(frame.structure).phases[frame.phase.ordinal()].record(System.nanoTime() - frame.start);
+
+        frame.structure = null;
+        frame.bounds = null;
+    }
+
+    protected static Timings timings(@Nullable String structure)
+    {
+        return timings.computeIfAbsent(structure != null ? structure : NO_STRUCTURE, s -> new Timings());
+    }
+
+    /**
+     * Called when a chunk is read from disk, right before it is loaded.
+     */
+    public static void chunkRead(ChunkPos pos)
+    {
+        FRAMES.get().readChunk = ChunkPos.asLong(pos.x, pos.z);
+    }
+
+    /**
+     * Warns about cascading chunk generation even when disabled, but only counts it while enabled.
+     */
+    public static void chunkLoaded(ChunkPos pos)
+    {
+        Frames frames = FRAMES.get();
+
+        // Chunks read from disk already existed and weren't generated for us
+        long readChunk = frames.readChunk;
+        frames.readChunk = NO_CHUNK;
+        if (readChunk == ChunkPos.asLong(pos.x, pos.z))
+            return;
+
+        Frame frame = frames.peek();
+
+        if (frame == null || frame.bounds == null || intersects(frame.bounds, pos))
+            return;
+
+        if (!frame.warned)
+        {
+            frame.warned = true;
+            RecurrentComplex.logger.warn(String.format("Cascading chunk generation happening while %s%s (generated %s)",
+                    frame.phase.action, frame.structure != null ? " " + frame.structure : "", pos));
+        }
+
+        if (enabled)
+            timings(frame.structure).outOfBoundsChunkLoads.incrementAndGet(frame.phase.ordinal());
+    }
+
+    protected static boolean intersects(StructureBoundingBox bounds, ChunkPos pos)
+    {
+        return bounds.minX <= pos.getXEnd() && bounds.maxX >= pos.getXStart()
+                && bounds.minZ <= pos.getZEnd() && bounds.maxZ >= pos.getZStart();
+    }
+
+    /**
+     * Writes one line per structure and phase. Times are in microseconds and include nested phases.
+     */
+    public static void writeCSV(Writer writer) throws IOException
+    {
+        writer.write(String.format("# Recorded for %d s%n", (System.currentTimeMillis() - enabledTime) / 1000));
+        writer.write("structure,phase,count,total_us,mean_us,p50_us,p90_us,p99_us,max_us,out_of_bounds_chunk_loads\n");
+
+        List<String> structures = new ArrayList<>(timings.keySet());
+        Collections.sort(structures);
+
+        for (String structure : structures)
+        {
+            Timings timings = WorldgenProfiler.timings.get(structure);
+
+            for (Phase phase : Phase.values())
+            {
+                LogHistogram histogram = timings.phases[phase.ordinal()];
+                long chunkLoads = timings.outOfBoundsChunkLoads.get(phase.ordinal());
+                long count = histogram.count();
+
+                if (count == 0 && chunkLoads == 0)
+                    continue;
+
+                writer.write(String.format(Locale.ROOT, "\"%s\",%s,%d,%d,%.1f,%d,%d,%d,%d,%d%n",
+                        structure.replace("\"", "\"\""), phase.name().toLowerCase(Locale.ROOT), count,
+                        histogram.sum() / 1000, histogram.mean() / 1000,
+                        histogram.quantile(0.5) / 1000, histogram.quantile(0.9) / 1000, histogram.quantile(0.99) / 1000,
+                        histogram.max() / 1000, chunkLoads));
+            }
+        }
+    }
+
+    public enum Phase
+    {
+        SELECT("selecting structures"),
+        PLACE("placing"),
+        PREPARE("preparing"),
+        GENERATE("generating"),
+        TRANSFORM_BEFORE("transforming"),
+        BLOCKS("placing blocks of"),
+        RELIGHT("relighting"),
+        TRANSFORM_AFTER("transforming"),
+        PERSIST("saving"),
+        DECORATE("simulating vanilla decoration");
+
+        public final String action;
+
+        Phase(String action)
+        {
+            this.action = action;
+        }
+    }
+
+    protected static class Timings
+    {
+        public final LogHistogram[] phases = new LogHistogram[Phase.values().length];
+        public final AtomicLongArray outOfBoundsChunkLoads = new AtomicLongArray(Phase.values().length);
+
+        public Timings()
+        {
+            for (int i = 0; i < phases.length; i++)
+                phases[i] = new LogHistogram();
+        }
+    }
+
+    protected static class Frame
+    {
+        public String structure;
+        public Phase phase;
+        public StructureBoundingBox bounds;
+        public long start;
+        public boolean warned;
+    }
+
+    /**
+     * Reuses its frames, so starting and stopping doesn't allocate.
+     */
+    protected static class Frames
+    {
+        protected Frame[] frames = new Frame[8];
+        protected int depth;
+
+        protected long readChunk = NO_CHUNK;
+
+        public Frame push()
+        {
+            if (depth == frames.length)
+                frames = Arrays.copyOf(frames, depth * 2);
+
+            Frame frame = frames[depth];
+            if (frame == null)
+                frame = frames[depth] = new Frame();
+
+            depth++;
+            return frame;
+        }
+
+        public Frame pop()
+        {
+            return frames[--depth];
+        }
+
+        @Nullable
+        public Frame peek()
+        {
+            return depth > 0 ? frames[depth - 1] : null;
+        }
+    }
+}
@@ -6,8 +6,10 @@
 package ivorius.reccomplex.world.gen.feature.decoration;
 
 import ivorius.reccomplex.RecurrentComplex;
-import ivorius.reccomplex.world.gen.feature.RCWorldgenMonitor;
+import ivorius.reccomplex.world.gen.feature.WorldgenProfiler;
+import ivorius.reccomplex.world.gen.feature.structure.Structures;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.biome.BiomeDecorator;
@@ -65,7 +67,7 @@ public class VanillaDecorationAdapter implements RCBiomeDecorator.Adapter
     @Override
     public void generate(WorldServer worldIn, Random random, Biome biomeIn, BiomeDecorator decorator, BlockPos chunkPos, RCBiomeDecorator.DecorationType type)
     {
-        RCWorldgenMonitor.start("simulating vanilla decoration");
+        WorldgenProfiler.start(null, WorldgenProfiler.Phase.DECORATE, Structures.chunkBoundingBox(new ChunkPos(chunkPos), true));
 
         try
         {
@@ -130,6 +132,6 @@ public class VanillaDecorationAdapter implements RCBiomeDecorator.Adapter
             RecurrentComplex.logger.error("Error trying to emulate vanilla decoration", e);
         }
 
-        RCWorldgenMonitor.stop();
+        WorldgenProfiler.stop();
     }
 }
@@ -0,0 +1,166 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature.selector;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import ivorius.reccomplex.dimensions.DimensionDictionary;
+import ivorius.reccomplex.files.SimpleLeveledRegistry;
+import ivorius.reccomplex.utils.algebra.BoolFunctionExpressionCache;
+import ivorius.reccomplex.utils.presets.PresettedList;
+import ivorius.reccomplex.world.gen.feature.structure.StructureRegistry;
+import ivorius.reccomplex.world.gen.feature.structure.generic.WeightedBiomeMatcher;
+import ivorius.reccomplex.world.gen.feature.structure.generic.WeightedDimensionMatcher;
+import net.minecraft.world.WorldProvider;
+import net.minecraft.world.biome.Biome;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves a generation type's biome and dimension weights once per biome id and dimension, instead of evaluating
+ * the matcher expressions on every query.
+ * Biomes are resolved lazily, so biomes registered late are picked up on first use.
+ * Dimension weights are re-resolved when the dimension's types change.
+ */
+public class GenerationWeightTable
+{
+    private static volatile int globalVersion;
+
+    protected final PresettedList<WeightedBiomeMatcher> biomeWeights;
+    protected final PresettedList<WeightedDimensionMatcher> dimensionWeights;
+
+    protected volatile int version = -1;
+    protected volatile List<WeightedBiomeMatcher> biomeSource;
+    protected volatile List<WeightedDimensionMatcher> dimensionSource;
+    protected volatile boolean biomesMemoizable, dimensionsMemoizable;
+
+    protected volatile double[] biomes = new double[0];
+    protected final Int2ObjectMap<DimensionWeight> dimensions = new Int2ObjectOpenHashMap<>();
+
+    public GenerationWeightTable(PresettedList<WeightedBiomeMatcher> biomeWeights, PresettedList<WeightedDimensionMatcher> dimensionWeights)
+    {
+        this.biomeWeights = biomeWeights;
+        this.dimensionWeights = dimensionWeights;
+    }
+
+    /**
+     * Drops the resolved weights of all tables.
+     */
+    public static void invalidateAll()
+    {
+        globalVersion++;
+    }
+
+    protected static boolean isMemoizable(String expression)
+    {
+        return !expression.contains(BoolFunctionExpressionCache.GLOBAL_PREFIX);
+    }
+
+    protected void validate()
+    {
+        if (version != globalVersion || biomeWeights.getContents() != biomeSource || dimensionWeights.getContents() != dimensionSource)
+            reset();
+    }
+
+    protected synchronized void reset()
+    {
+        List<WeightedBiomeMatcher> biomeContents = biomeWeights.getContents();
+        List<WeightedDimensionMatcher> dimensionContents = dimensionWeights.getContents();
+
+        if (version == globalVersion && biomeContents == biomeSource && dimensionContents == dimensionSource)
+            return;
+
+        biomesMemoizable = biomeContents.stream().allMatch(m -> isMemoizable(m.getBiomeExpression().getExpression()));
+        dimensionsMemoizable = dimensionContents.stream().allMatch(m -> isMemoizable(m.getDimensionExpression().getExpression()));
+
+        biomes = new double[0];
+        dimensions.clear();
+
+        biomeSource = biomeContents;
+        dimensionSource = dimensionContents;
+        version = globalVersion;
+    }
+
+    public double weight(WorldProvider provider, Biome biome)
+    {
+        return weightInBiome(biome) * weightInDimension(provider);
+    }
+
+    public double weightInBiome(Biome biome)
+    {
+        validate();
+
+        int id = Biome.getIdForBiome(biome);
+        if (!biomesMemoizable || id < 0)
+            return StructureSelector.generationWeightInBiome(biomeWeights, biome);
+
+        double[] biomes = this.biomes;
+        if (id < biomes.length && !Double.isNaN(biomes[id]))
+            return biomes[id];
+
+        double weight = StructureSelector.generationWeightInBiome(biomeWeights, biome);
+
+        synchronized (this)
+        {
+            biomes = this.biomes;
+            if (id >= biomes.length)
+            {
+                int length = biomes.length;
+                biomes = Arrays.copyOf(biomes, Math.max(id + 1, length * 2));
+                Arrays.fill(biomes, length, biomes.length, Double.NaN);
+            }
+            biomes[id] = weight;
+            this.biomes = biomes;
+        }
+
+        return weight;
+    }
+
+    public double weightInDimension(WorldProvider provider)
+    {
+        validate();
+
+        if (!dimensionsMemoizable)
+            return StructureSelector.generationWeightInDimension(dimensionWeights, provider);
+
+        Set<String> types = DimensionDictionary.getDimensionTypes(provider);
+
+        synchronized (this)
+        {
+            DimensionWeight weight = dimensions.get(provider.getDimension());
+            if (weight == null || !weight.types.equals(types))
+                dimensions.put(provider.getDimension(), weight = new DimensionWeight(new HashSet<>(types), StructureSelector.generationWeightInDimension(dimensionWeights, provider)));
+            return weight.weight;
+        }
+    }
+
+    protected static class DimensionWeight
+    {
+        public final Set<String> types;
+        public final double weight;
+
+        public DimensionWeight(Set<String> types, double weight)
+        {
+            this.types = types;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Invalidates all tables whenever structures change, since matchers may have been edited in place.
+     */
+    public static class Cache extends SimpleLeveledRegistry.Module<StructureRegistry>
+    {
+        @Override
+        public void invalidate()
+        {
+            invalidateAll();
+        }
+    }
+}
@@ -5,7 +5,10 @@
 
 package ivorius.reccomplex.world.gen.feature.selector;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
 import ivorius.ivtoolkit.random.WeightedSelector;
+import ivorius.reccomplex.world.gen.feature.WorldStructureGenerationData;
 import ivorius.reccomplex.world.gen.feature.structure.Structure;
 import ivorius.reccomplex.world.gen.feature.structure.generic.generation.GenerationType;
 import net.minecraft.world.WorldProvider;
@@ -13,9 +16,8 @@ import net.minecraft.world.biome.Biome;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nullable;
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
+import java.util.*;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -24,9 +26,90 @@ import java.util.stream.IntStream;
  */
 public class MixingStructureSelector<T extends GenerationType & EnvironmentalSelection<C>, C extends MixingStructureSelector.Category> extends StructureSelector<T, C>
 {
+    protected final List<WeightedSelector.SimpleItem<Pair<Structure<?>, T>>> limitedItems = new ArrayList<>();
+    protected final List<String> limitedIDs = new ArrayList<>();
+    protected final int[] limits;
+
+    protected final BitSet saturated = new BitSet();
+    protected WorldStructureGenerationData saturationData;
+    protected int saturationVersion;
+
+    protected Multimap<C, WeightedSelector.SimpleItem<Pair<Structure<?>, T>>> availableStructureInfos;
+
     public MixingStructureSelector(Map<String, Structure<?>> structures, WorldProvider provider, Biome biome, Class<T> typeClass)
+    {
+        this(structures, provider, biome, typeClass, t -> -1);
+    }
+
+    /**
+     * @param spawnLimit The maximum number of instances per world a generation type may spawn, or a negative number if unlimited.
+     */
+    public MixingStructureSelector(Map<String, Structure<?>> structures, WorldProvider provider, Biome biome, Class<T> typeClass, ToIntFunction<T> spawnLimit)
     {
         super(structures, provider, biome, typeClass);
+
+        Map<Structure<?>, String> ids = new IdentityHashMap<>();
+        structures.forEach((id, structure) -> ids.put(structure, id));
+
+        List<Integer> limits = new ArrayList<>();
+        for (WeightedSelector.SimpleItem<Pair<Structure<?>, T>> item : weightedStructureInfos.values())
+        {
+            int limit = spawnLimit.applyAsInt(item.getItem().getRight());
+            if (limit >= 0)
+            {
+                limitedItems.add(item);
+                limitedIDs.add(ids.get(item.getItem().getLeft()));
+                limits.add(limit);
+            }
+        }
+        this.limits = limits.stream().mapToInt(Integer::intValue).toArray();
+
+        availableStructureInfos = weightedStructureInfos;
+    }
+
+    /**
+     * Excludes structures that have reached their spawn limit in the world from selection.
+     * Only re-evaluates limits when the world's entry counts have changed since the last call.
+     */
+    public void updateSaturation(WorldStructureGenerationData data)
+    {
+        if (limitedItems.isEmpty() || (data == saturationData && data.getEntryCountsVersion() == saturationVersion))
+            return;
+
+        saturationData = data;
+        saturationVersion = data.getEntryCountsVersion();
+
+        boolean changed = false;
+        for (int i = 0; i < limits.length; i++)
+        {
+            boolean isSaturated = data.getEntryCount(limitedIDs.get(i)) >= limits[i];
+            if (saturated.get(i) != isSaturated)
+            {
+                saturated.set(i, isSaturated);
+                changed = true;
+            }
+        }
+
+        if (changed)
+            availableStructureInfos = buildAvailableStructureInfos();
+    }
+
+    protected Multimap<C, WeightedSelector.SimpleItem<Pair<Structure<?>, T>>> buildAvailableStructureInfos()
+    {
+        if (saturated.isEmpty())
+            return weightedStructureInfos;
+
+        Set<WeightedSelector.SimpleItem<Pair<Structure<?>, T>>> excluded = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = saturated.nextSetBit(0); i >= 0; i = saturated.nextSetBit(i + 1))
+            excluded.add(limitedItems.get(i));
+
+        Multimap<C, WeightedSelector.SimpleItem<Pair<Structure<?>, T>>> available = ArrayListMultimap.create();
+        weightedStructureInfos.forEach((category, item) ->
+        {
+            if (!excluded.contains(item))
+                available.put(category, item);
+        });
+        return available;
     }
 
     public int structuresInBiome(C category, WorldProvider worldProvider, Biome biome, Float distanceToSpawn, Random random)
@@ -38,7 +121,8 @@ public class MixingStructureSelector<T extends GenerationType & EnvironmentalSel
     {
         return weightedStructureInfos.keySet().stream()
                 .flatMap(category -> IntStream.range(0, structuresInBiome(category, provider, biome, distanceToSpawn, random)).mapToObj(i -> category))
-                .map(category -> WeightedSelector.select(random, weightedStructureInfos.get(category)))
+                .map(category -> selectAvailable(random, category))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
@@ -55,6 +139,20 @@ public class MixingStructureSelector<T extends GenerationType & EnvironmentalSel
         return selectOne(random, WeightedSelector.select(random, list));
     }
 
+    @Nullable
+    @Override
+    public Pair<Structure<?>, T> selectOne(Random random, C c, double totalWeight)
+    {
+        return totalWeight > 0 ? selectAvailable(random, c) : null;
+    }
+
+    @Nullable
+    protected Pair<Structure<?>, T> selectAvailable(Random random, C category)
+    {
+        Collection<WeightedSelector.SimpleItem<Pair<Structure<?>, T>>> items = availableStructureInfos.get(category);
+        return items.isEmpty() ? null : WeightedSelector.select(random, items);
+    }
+
     interface Category
     {
         int structuresInBiome(Biome biome, WorldProvider worldProvider, double totalWeight, Float distanceToSpawn, Random random);
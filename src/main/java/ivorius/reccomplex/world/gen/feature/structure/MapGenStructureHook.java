@@ -5,12 +5,9 @@
 
 package ivorius.reccomplex.world.gen.feature.structure;
 
-import com.google.common.base.Predicates;
-import com.google.common.collect.Collections2;
-import com.google.common.collect.Sets;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
-import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongList;
+import ivorius.reccomplex.utils.accessor.RCAccessorMapGenStructure;
 import ivorius.reccomplex.world.gen.feature.decoration.RCBiomeDecorator;
 import ivorius.reccomplex.world.gen.feature.structure.generic.generation.VanillaDecorationGeneration;
 import net.minecraft.util.math.BlockPos;
@@ -20,12 +17,9 @@ import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.ChunkPrimer;
 import net.minecraft.world.gen.structure.MapGenStructure;
 import net.minecraft.world.gen.structure.StructureStart;
-import net.minecraftforge.fml.relauncher.ReflectionHelper;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nullable;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Random;
 
 public class MapGenStructureHook extends MapGenStructure
@@ -46,35 +40,32 @@ public class MapGenStructureHook extends MapGenStructure
 
     public static Long2ObjectMap<StructureStart> getStructureMap(MapGenStructure gen)
     {
-        return ReflectionHelper.getPrivateValue(MapGenStructure.class, gen, "structureMap", "field_75053_d");
+        return RCAccessorMapGenStructure.getStructureMap(gen);
     }
 
     public static void initializeStructureData(MapGenStructure gen, World world)
     {
-        Method method = ReflectionHelper.findMethod(MapGenStructure.class, "initializeStructureData", "func_143027_a", World.class);
-
-        try
-        {
-            method.invoke(gen, world);
-        }
-        catch (IllegalAccessException | InvocationTargetException e)
-        {
-            e.printStackTrace();
-        }
+        RCAccessorMapGenStructure.initializeStructureData(gen, world);
     }
 
     public static void setStructureStart(MapGenStructure gen, int x, int z, StructureStart start)
     {
-        Method method = ReflectionHelper.findMethod(MapGenStructure.class, "setStructureStart", "func_143026_a", Integer.TYPE, Integer.TYPE, StructureStart.class);
+        RCAccessorMapGenStructure.setStructureStart(gen, x, z, start);
+    }
+
+    /**
+     * Swaps the generator's structure map for one that can tell us which starts are new.
+     */
+    public static TrackingLong2ObjectMap<StructureStart> getTrackingStructureMap(MapGenStructure gen)
+    {
+        Long2ObjectMap<StructureStart> map = getStructureMap(gen);
 
-        try
-        {
-            method.invoke(gen, x, z, start);
-        }
-        catch (IllegalAccessException | InvocationTargetException e)
-        {
-            e.printStackTrace();
-        }
+        if (map instanceof TrackingLong2ObjectMap)
+            return (TrackingLong2ObjectMap<StructureStart>) map;
+
+        TrackingLong2ObjectMap<StructureStart> tracking = new TrackingLong2ObjectMap<>(map);
+        RCAccessorMapGenStructure.setStructureMap(gen, tracking);
+        return tracking;
     }
 
     public static StructureStart getStructureStart(MapGenStructure gen, ChunkPos chunkPos)
@@ -116,16 +107,7 @@ public class MapGenStructureHook extends MapGenStructure
     @Override
     public boolean canSpawnStructureAtCoords(int chunkX, int chunkZ)
     {
-        Method method = ReflectionHelper.findMethod(MapGenStructure.class, "canSpawnStructureAtCoords", "func_75047_a", Integer.TYPE, Integer.TYPE);
-        try
-        {
-            return (boolean) method.invoke(base, chunkX, chunkZ);
-        }
-        catch (IllegalAccessException | InvocationTargetException e)
-        {
-            e.printStackTrace();
-        }
-        return false;
+        return RCAccessorMapGenStructure.canSpawnStructureAtCoords(base, chunkX, chunkZ);
     }
 
     @Override
@@ -145,13 +127,22 @@ public class MapGenStructureHook extends MapGenStructure
         long k = this.rand.nextLong();
 
         initializeStructureData(base, world);
-        Long2ObjectMap<StructureStart> map = getStructureMap(base);
-        LongSet before = new LongOpenHashSet(map.keySet());
+        TrackingLong2ObjectMap<StructureStart> map = getTrackingStructureMap(base);
+        LongList inserted;
 
-        base.generate(worldIn, x, z, primer);
+        LongList previous = map.startTracking();
+        try
+        {
+            base.generate(worldIn, x, z, primer);
+        }
+        finally
+        {
+            inserted = map.stopTracking(previous);
+        }
 
-        Sets.newHashSet(Collections2.filter(map.keySet(), Predicates.not(Predicates.in(before)))).forEach(key -> {
-            StructureStart start = map.get(key);
+        for (int i = 0; i < inserted.size(); i++)
+        {
+            StructureStart start = map.get(inserted.getLong(i));
 
             if (start.isSizeableStructure())
             {
@@ -173,7 +164,7 @@ public class MapGenStructureHook extends MapGenStructure
                     RCBiomeDecorator.generate(selected, server, new ChunkPos(start.getChunkPosX(), start.getChunkPosZ()), rand);
                 }
             }
-        });
+        }
     }
 
     public RCBiomeDecorator.DecorationType getDecorationType(StructureStart start)
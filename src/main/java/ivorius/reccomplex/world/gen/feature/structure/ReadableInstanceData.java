@@ -9,15 +9,25 @@ import ivorius.reccomplex.nbt.NBTStorable;
 import ivorius.reccomplex.world.gen.feature.StructureGenerator;
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nullable;
 
 /**
  * Created by lukas on 08.03.17.
+ * <p>
+ * Read NBT is kept as is and only decoded on load; it is never modified, so it's only copied once written out again.
+ * The extent, if known, is stored next to it so generation can be skipped without decoding.
  */
 public class ReadableInstanceData<T extends NBTStorable>
 {
     private NBTBase instanceDataNBT;
     private T instanceData;
 
+    @Nullable
+    private StructureBoundingBox extent;
+
     public boolean exists()
     {
         return instanceData != null || instanceDataNBT != null;
@@ -28,17 +38,35 @@ public class ReadableInstanceData<T extends NBTStorable>
         this.instanceData = instanceData;
     }
 
+    public void setInstanceData(T instanceData, @Nullable StructureBoundingBox extent)
+    {
+        this.instanceData = instanceData;
+        this.extent = extent;
+    }
+
+    /**
+     * @return The box containing everything the instance generates, or null if unknown
+     */
+    @Nullable
+    public StructureBoundingBox getExtent()
+    {
+        return extent;
+    }
+
     public void writeToNBT(String key, NBTTagCompound compound)
     {
         NBTBase instanceDataNBT = instanceData != null ? instanceData.writeToNBT()
                 : this.instanceDataNBT != null ? this.instanceDataNBT.copy() : null;
         if (instanceDataNBT != null)
             compound.setTag(key, instanceDataNBT);
+        if (extent != null)
+            compound.setTag(key + "Extent", extent.toNBTTagIntArray());
     }
 
     public void readFromNBT(String key, NBTTagCompound compound)
     {
-        instanceDataNBT = compound.hasKey(key) ? compound.getTag(key).copy() : null;
+        instanceDataNBT = compound.hasKey(key) ? compound.getTag(key) : null;
+        extent = compound.hasKey(key + "Extent", Constants.NBT.TAG_INT_ARRAY) ? new StructureBoundingBox(compound.getIntArray(key + "Extent")) : null;
     }
 
     public boolean load(StructureGenerator<T> generator)
@@ -67,5 +95,6 @@ public class ReadableInstanceData<T extends NBTStorable>
     {
         this.instanceData = instanceData.instanceData;
         this.instanceDataNBT = instanceData.instanceDataNBT;
+        this.extent = instanceData.extent;
     }
 }
@@ -12,6 +12,7 @@ import ivorius.reccomplex.world.gen.feature.structure.generic.generation.Generat
 import ivorius.reccomplex.world.gen.feature.structure.generic.transformers.Transformer;
 import org.apache.commons.lang3.tuple.Pair;
 
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -63,8 +64,29 @@ public class StructureRegistry extends SimpleLeveledRegistry<Structure<?>>
     @Override
     protected void invalidateCaches()
     {
-        super.invalidateCaches();
+        // Modules may read generation types right away
         cachedGeneration.clear();
+        super.invalidateCaches();
+    }
+
+    @Override
+    protected void invalidateCaches(String id, @Nullable Structure<?> before, @Nullable Structure<?> after)
+    {
+        cachedGeneration.keySet().removeIf(type -> affects(before, after, type));
+        super.invalidateCaches(id, before, after);
+    }
+
+    /**
+     * @return Whether replacing before with after can change anything cached about generation types of the class.
+     */
+    public static boolean affects(@Nullable Object before, @Nullable Object after, Class<? extends GenerationType> type)
+    {
+        return hasGenerationTypes(before, type) || hasGenerationTypes(after, type);
+    }
+
+    protected static boolean hasGenerationTypes(@Nullable Object structure, Class<? extends GenerationType> type)
+    {
+        return structure instanceof Structure && !((Structure<?>) structure).generationTypes(type).isEmpty();
     }
 
     private static class StructureData
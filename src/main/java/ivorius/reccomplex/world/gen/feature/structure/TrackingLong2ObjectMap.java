@@ -0,0 +1,71 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature.structure;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+
+import javax.annotation.Nullable;
+
+/**
+ * A map that can record which keys get newly inserted while tracking, so callers don't need to diff the whole key set.
+ */
+public class TrackingLong2ObjectMap<V> extends Long2ObjectOpenHashMap<V>
+{
+    @Nullable
+    protected LongList inserted;
+
+    public TrackingLong2ObjectMap(Long2ObjectMap<V> map)
+    {
+        super(map);
+    }
+
+    /**
+     * Starts recording new keys.
+     *
+     * @return The previous recording, to be passed to {@link #stopTracking(LongList)}.
+     */
+    @Nullable
+    public LongList startTracking()
+    {
+        LongList previous = inserted;
+        inserted = new LongArrayList();
+        return previous;
+    }
+
+    /**
+     * @return The keys inserted since the matching {@link #startTracking()}, in insertion order.
+     */
+    public LongList stopTracking(@Nullable LongList previous)
+    {
+        LongList result = inserted != null ? inserted : new LongArrayList();
+        inserted = previous;
+        return result;
+    }
+
+    protected void record(long key)
+    {
+        if (inserted != null && !containsKey(key))
+            inserted.add(key);
+    }
+
+    @Override
+    public V put(long k, V v)
+    {
+        record(k);
+        return super.put(k, v);
+    }
+
+    @Override
+    @Deprecated
+    public V put(Long ok, V v)
+    {
+        record(ok);
+        return super.put(ok, v);
+    }
+}
@@ -55,6 +55,12 @@ public class VariableDomain implements NBTCompoundObject
         return this;
     }
 
+    public VariableDomain unset(String variable)
+    {
+        variables.remove(variable);
+        return this;
+    }
+
     public Stream<VariableDomain> split(String variable)
     {
         return IntStream.of(0, 1)
@@ -27,6 +27,7 @@ import ivorius.reccomplex.utils.RCStructureBoundingBoxes;
 import ivorius.reccomplex.utils.accessor.RCAccessorEntity;
 import ivorius.reccomplex.utils.accessor.RCAccessorWorldServer;
 import ivorius.reccomplex.utils.expression.DependencyExpression;
+import ivorius.reccomplex.world.gen.feature.WorldgenProfiler;
 import ivorius.reccomplex.world.gen.feature.structure.Structure;
 import ivorius.reccomplex.world.gen.feature.structure.StructureRegistry;
 import ivorius.reccomplex.world.gen.feature.structure.Structures;
@@ -42,7 +43,6 @@ import ivorius.reccomplex.world.gen.feature.structure.generic.transformers.RunTr
 import ivorius.reccomplex.world.gen.feature.structure.generic.transformers.Transformer;
 import ivorius.reccomplex.world.gen.feature.structure.generic.transformers.TransformerMulti;
 import ivorius.reccomplex.world.storage.loot.LootGenerationHandler;
-import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
@@ -92,6 +92,9 @@ public class GenericStructure implements Structure<GenericStructure.InstanceData
 
     public JsonObject customData;
 
+    private final PlacementPlan.Cache placementPlans = new PlacementPlan.Cache();
+    private final Map<TransformerMulti, TransformerMulti> fusedTransformers = Collections.synchronizedMap(new WeakHashMap<>());
+
     public static GenericStructure createDefaultStructure()
     {
         GenericStructure genericStructureInfo = new GenericStructure();
@@ -220,7 +223,17 @@ public class GenericStructure implements Structure<GenericStructure.InstanceData
         }
 
         if (transformer != null)
-            transformer.transformer.transform(transformer.instanceData, Transformer.Phase.BEFORE, context, worldData, transformer);
+        {
+            WorldgenProfiler.start(WorldgenProfiler.Phase.TRANSFORM_BEFORE);
+            try
+            {
+                transformer.transformer.transform(transformer.instanceData, Transformer.Phase.BEFORE, context, worldData, transformer);
+            }
+            finally
+            {
+                WorldgenProfiler.stop();
+            }
+        }
 
         StructureBoundingBox relevantSourceArea = context.sourceIntersection(BlockAreas.toBoundingBox(blockCollection.area()));
 
@@ -228,36 +241,39 @@ public class GenericStructure implements Structure<GenericStructure.InstanceData
         {
             context.freezeHeightMap(relevantSourceArea);
 
-            BlockPos.MutableBlockPos worldPos = new BlockPos.MutableBlockPos();
-            for (int pass = 0; pass < 2; pass++)
+            WorldgenProfiler.start(WorldgenProfiler.Phase.BLOCKS);
+            try
             {
-                for (BlockPos sourcePos : RCStructureBoundingBoxes.mutablePositions(relevantSourceArea))
-                {
-                    IvMutableBlockPos.add(context.transform.applyOn(sourcePos, worldPos, areaSize), origin);
-
-                    if (context.includesComplex(worldPos))
-                    {
-                        IBlockState state = PosTransformer.transformBlockState(blockCollection.getBlockState(sourcePos), context.transform);
-
-                        if (pass == getPass(state) && (transformer == null || !transformer.transformer.skipGeneration(transformer.instanceData, context, worldPos, state, worldData, sourcePos)))
-                        {
-                            GeneratingTileEntity<?> generatingTE = generatingTEs.get(sourcePos);
-
-                            //noinspection unchecked
-                            if (asSource || generatingTE == null || ((GeneratingTileEntity) generatingTE).shouldPlaceInWorld(context, instanceData.tileEntities.get(sourcePos)))
-                                setBlock(context, areaSize, worldPos, state, () -> tileEntityCompounds.get(sourcePos));
-                            else
-                                context.setBlock(worldPos, Blocks.AIR.getDefaultState(), 2); // Replace with air
-                        }
-                    }
-                }
+                placeBlocks(context, instanceData, worldData, transformer, generatingTEs, tileEntityCompounds, areaSize, origin, relevantSourceArea);
+            }
+            finally
+            {
+                WorldgenProfiler.stop();
             }
 
-            context.meltHeightMap();
+            WorldgenProfiler.start(WorldgenProfiler.Phase.RELIGHT);
+            try
+            {
+                context.meltHeightMap();
+            }
+            finally
+            {
+                WorldgenProfiler.stop();
+            }
         }
 
         if (transformer != null)
-            transformer.transformer.transform(transformer.instanceData, Transformer.Phase.AFTER, context, worldData, transformer);
+        {
+            WorldgenProfiler.start(WorldgenProfiler.Phase.TRANSFORM_AFTER);
+            try
+            {
+                transformer.transformer.transform(transformer.instanceData, Transformer.Phase.AFTER, context, worldData, transformer);
+            }
+            finally
+            {
+                WorldgenProfiler.stop();
+            }
+        }
 
         for (NBTTagCompound entityCompound : worldData.entities)
         {
@@ -302,6 +318,79 @@ public class GenericStructure implements Structure<GenericStructure.InstanceData
         }
     }
 
+    protected void placeBlocks(@Nonnull StructureSpawnContext context, @Nonnull InstanceData instanceData, IvWorldData worldData, RunTransformer transformer,
+                               Map<BlockPos, GeneratingTileEntity<?>> generatingTEs, Map<BlockPos, NBTTagCompound> tileEntityCompounds, int[] areaSize,
+                               BlockPos origin, StructureBoundingBox relevantSourceArea)
+    {
+        IvBlockCollection blockCollection = worldData.blockCollection;
+        boolean maySkip = transformer != null && transformer.transformer.canSkipGeneration(transformer.instanceData);
+
+        PlacementPlan plan = placementPlans.get(worldDataCompound, context.transform);
+
+        // Solid blocks first, so the rest has something to attach to; the second pass is collected on the way
+        List<BlockPos> deferredSources = new ArrayList<>();
+        List<IBlockState> deferredStates = new ArrayList<>();
+
+        BlockPos.MutableBlockPos worldPos = new BlockPos.MutableBlockPos();
+        for (BlockPos.MutableBlockPos sourcePos : RCStructureBoundingBoxes.mutablePositions(relevantSourceArea))
+        {
+            IvMutableBlockPos.add(context.transform.applyOn(sourcePos, worldPos, areaSize), origin);
+
+            if (context.includesComplex(worldPos))
+            {
+                PlacementPlan.Placement placement = plan.get(blockCollection.getBlockState(sourcePos));
+
+                if (placement.pass == 0)
+                    place(context, instanceData, worldData, transformer, maySkip, generatingTEs, tileEntityCompounds, areaSize, worldPos, sourcePos, placement.state);
+                else
+                {
+                    deferredSources.add(sourcePos.toImmutable());
+                    deferredStates.add(placement.state);
+                }
+            }
+        }
+
+        for (int i = 0; i < deferredSources.size(); i++)
+        {
+            BlockPos sourcePos = deferredSources.get(i);
+            IvMutableBlockPos.add(context.transform.applyOn(sourcePos, worldPos, areaSize), origin);
+            place(context, instanceData, worldData, transformer, maySkip, generatingTEs, tileEntityCompounds, areaSize, worldPos, sourcePos, deferredStates.get(i));
+        }
+    }
+
+    protected void place(@Nonnull StructureSpawnContext context, @Nonnull InstanceData instanceData, IvWorldData worldData, RunTransformer transformer, boolean maySkip,
+                         Map<BlockPos, GeneratingTileEntity<?>> generatingTEs, Map<BlockPos, NBTTagCompound> tileEntityCompounds, int[] areaSize,
+                         BlockPos worldPos, BlockPos sourcePos, IBlockState state)
+    {
+        if (maySkip && transformer.transformer.skipGeneration(transformer.instanceData, context, worldPos, state, worldData, sourcePos))
+            return;
+
+        GeneratingTileEntity<?> generatingTE = generatingTEs.get(sourcePos);
+
+        //noinspection unchecked
+        if (context.generateAsSource || generatingTE == null || ((GeneratingTileEntity) generatingTE).shouldPlaceInWorld(context, instanceData.tileEntities.get(sourcePos)))
+            setBlock(context, areaSize, worldPos, state, () -> tileEntityCompounds.get(sourcePos));
+        else
+            context.setBlock(worldPos, Blocks.AIR.getDefaultState(), 2); // Replace with air
+    }
+
+    /**
+     * Our transformer fused with the foreign one. Fusing is cached per foreign transformer since it's mostly the universal one.
+     */
+    protected TransformerMulti fusedTransformer(@Nonnull TransformerMulti foreignTransformer)
+    {
+        TransformerMulti fused = fusedTransformers.get(foreignTransformer);
+
+        // Our own transformer may have been swapped out since
+        if (fused == null || fused.getTransformers().get(0) != this.transformer)
+        {
+            fused = TransformerMulti.fuse(Arrays.asList(this.transformer, foreignTransformer));
+            fusedTransformers.put(foreignTransformer, fused);
+        }
+
+        return fused;
+    }
+
     @Nullable
     public RunTransformer getRunTransformer(@Nonnull InstanceData instanceData, @Nonnull TransformerMulti foreignTransformer, boolean asSource)
     {
@@ -313,7 +402,7 @@ public class GenericStructure implements Structure<GenericStructure.InstanceData
 
         if (!foreignTransformer.isEmpty(instanceData.foreignTransformerData))
         {
-            TransformerMulti fused = TransformerMulti.fuse(Arrays.asList(this.transformer, foreignTransformer));
+            TransformerMulti fused = fusedTransformer(foreignTransformer);
             return new RunTransformer(fused, fused.fuseDatas(Arrays.asList(instanceData.transformerData, instanceData.foreignTransformerData)));
         }
 
@@ -340,7 +429,7 @@ public class GenericStructure implements Structure<GenericStructure.InstanceData
             instanceData.transformerData = this.transformer.prepareInstanceData(context, worldData);
             instanceData.foreignTransformerData = foreignTransformer.prepareInstanceData(context, worldData);
 
-            TransformerMulti transformer = TransformerMulti.fuse(Arrays.asList(this.transformer, foreignTransformer));
+            TransformerMulti transformer = fusedTransformer(foreignTransformer);
             TransformerMulti.InstanceData cInstanceData = transformer.fuseDatas(Arrays.asList(instanceData.transformerData, instanceData.foreignTransformerData));
 
             if (context.generateMaturity.isSuggest() && !transformer.mayGenerate(cInstanceData, context, worldData))
@@ -397,11 +486,6 @@ public class GenericStructure implements Structure<GenericStructure.InstanceData
         return null;
     }
 
-    private int getPass(IBlockState state)
-    {
-        return (state.isNormalCube() || state.getMaterial() == Material.AIR) ? 0 : 1;
-    }
-
     @Override
     @Nonnull
     public GenericStructure copyAsGenericStructure()
@@ -14,16 +14,18 @@ import ivorius.reccomplex.world.gen.feature.structure.Environment;
 import ivorius.reccomplex.world.gen.feature.structure.VariableDomain;
 
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Created by lukas on 15.04.17.
  */
 public class GenericVariableDomain
 {
+    public static final int SAMPLE_TRIES = 4;
+
     @SerializedName("variables")
     protected final List<Variable> variables = new ArrayList<>();
 
@@ -70,29 +72,198 @@ public class GenericVariableDomain
         return variable.condition.test(environment) ? value ? variable.chance : 1f - variable.chance : (value ? 0 : 1);
     }
 
+    protected List<Variable> unset(Environment environment, boolean logical)
+    {
+        return variables.stream()
+                .filter(variable -> (!logical || variable.affectsLogic) && !environment.variables.isSet(variable.id))
+                .collect(Collectors.toList());
+    }
+
+    protected static boolean test(Variable variable, Environment environment, VariableDomain domain)
+    {
+        VariableDomain cached = environment.variables;
+        environment.variables = domain;
+        try
+        {
+            return variable.condition.test(environment);
+        }
+        finally
+        {
+            environment.variables = cached;
+        }
+    }
+
+    /**
+     * Lazily enumerates every possible assignment of the variables not yet set in the environment.
+     * Variables that can only take one value are not branched on, and conditions that don't read any of the
+     * other enumerated variables are only evaluated once.
+     */
     public Stream<VariableDomain> omega(Environment environment, boolean logical)
     {
-        Stream<VariableDomain> stream = Stream.of(environment.variables.copy());
-        for (GenericVariableDomain.Variable variable : this.variables)
+        return new Omega(environment, unset(environment, logical)).stream();
+    }
+
+    /**
+     * Like {@link #omega(Environment, boolean)}, but if there may be more than limit assignments,
+     * samples up to limit distinct assignments by the variables' chances instead.
+     *
+     * @param limit The maximum number of assignments, or 0 for no limit.
+     */
+    public Stream<VariableDomain> omega(Environment environment, boolean logical, int limit, Random random)
+    {
+        List<Variable> unset = unset(environment, logical);
+        Omega omega = new Omega(environment, unset);
+
+        if (limit <= 0 || omega.bound() <= limit)
+            return omega.stream();
+
+        // Likely assignments come up again and again, give up on finding new ones eventually
+        Set<BitSet> seen = new HashSet<>();
+        List<VariableDomain> samples = new ArrayList<>();
+        for (int tries = 0; samples.size() < limit && tries < limit * SAMPLE_TRIES; tries++)
         {
-            if ((!logical || variable.affectsLogic) && !environment.variables.isSet(variable.id))
+            VariableDomain domain = sample(environment, unset, random);
+
+            BitSet values = new BitSet(unset.size());
+            for (int i = 0; i < unset.size(); i++)
+                values.set(i, domain.get(unset.get(i).id));
+
+            if (seen.add(values))
+                samples.add(domain);
+        }
+
+        return samples.stream();
+    }
+
+    /**
+     * @return A random assignment of the variables not yet set in the environment, without changing the environment.
+     */
+    public VariableDomain sample(Environment environment, boolean logical, Random random)
+    {
+        return sample(environment, unset(environment, logical), random);
+    }
+
+    protected static VariableDomain sample(Environment environment, List<Variable> variables, Random random)
+    {
+        VariableDomain domain = environment.variables.copy();
+        for (Variable variable : variables)
+            domain.set(variable.id, random.nextFloat() < variable.chance && test(variable, environment, domain));
+        return domain;
+    }
+
+    /**
+     * Walks the assignments depth first, in the same order as splitting variable by variable would:
+     * Earlier variables change slowest, false comes before true.
+     * Each variable's condition sees exactly the variables before it, as it would in {@link #fill(VariableDomain, Environment, Random)}.
+     */
+    protected static class Omega implements Iterator<VariableDomain>
+    {
+        protected final Environment environment;
+        protected final List<Variable> variables;
+
+        protected final boolean[] fixed;
+        protected final boolean[] fixedTop;
+
+        protected final boolean[] free;
+        protected final boolean[] values;
+        protected final VariableDomain domain;
+
+        protected boolean hasNext = true;
+
+        public Omega(Environment environment, List<Variable> variables)
+        {
+            this.environment = environment;
+            this.variables = variables;
+
+            int size = variables.size();
+            fixed = new boolean[size];
+            fixedTop = new boolean[size];
+            free = new boolean[size];
+            values = new boolean[size];
+            domain = environment.variables.copy();
+
+            Set<String> previous = new HashSet<>();
+            for (int i = 0; i < size; i++)
+            {
+                Variable variable = variables.get(i);
+
+                // Conditions not reading any earlier variable come out the same in every branch
+                fixed[i] = variable.chance <= 0 || Collections.disjoint(variable.condition.referencedVariables(), previous);
+                if (fixed[i])
+                    fixedTop[i] = variable.chance > 0 && test(variable, environment, domain);
+
+                previous.add(variable.id);
+            }
+
+            descend(0);
+        }
+
+        /**
+         * @return The maximum number of assignments this will enumerate.
+         */
+        public long bound()
+        {
+            int branching = 0;
+            for (int i = 0; i < variables.size(); i++)
+            {
+                if (!fixed[i] || (fixedTop[i] && variables.get(i).chance < 1))
+                    branching++;
+            }
+            return 1L << Math.min(branching, 62);
+        }
+
+        protected void descend(int from)
+        {
+            for (int i = from; i < variables.size(); i++)
+                domain.unset(variables.get(i).id);
+
+            for (int i = from; i < variables.size(); i++)
             {
-                stream = stream.flatMap(d -> {
-                    VariableDomain cached = environment.variables;
-                    environment.variables = d;
+                Variable variable = variables.get(i);
+
+                boolean top = fixed[i] ? fixedTop[i] : variable.chance > 0 && test(variable, environment, domain);
+                boolean bottom = variable.chance < 1;
+
+                free[i] = top && bottom;
+                values[i] = top && !bottom;
+                domain.set(variable.id, values[i]);
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return hasNext;
+        }
+
+        @Override
+        public VariableDomain next()
+        {
+            if (!hasNext)
+                throw new NoSuchElementException();
 
-                    boolean top = variable.chance > 0 && variable.condition.test(environment);
-                    boolean bottom = variable.chance < 1;
+            VariableDomain result = domain.copy();
 
-                    environment.variables = cached;
+            int i = values.length - 1;
+            while (i >= 0 && (!free[i] || values[i]))
+                i--;
 
-                    if (top && bottom)
-                        return d.split(variable.id);
-                    return Stream.of(d.set(variable.id, top));
-                });
+            if (i >= 0)
+            {
+                values[i] = true;
+                domain.set(variables.get(i).id, true);
+                descend(i + 1);
             }
+            else
+                hasNext = false;
+
+            return result;
+        }
+
+        public Stream<VariableDomain> stream()
+        {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
         }
-        return stream;
     }
 
     public static class Variable
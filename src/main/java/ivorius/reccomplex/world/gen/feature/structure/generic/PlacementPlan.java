@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature.structure.generic;
+
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.ivtoolkit.transform.PosTransformer;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers how each block state of a structure's palette is placed under one transform:
+ * the transformed state, and the pass it has to be placed in.
+ * Since palettes are tiny compared to the structures, this replaces the per-voxel transform with a lookup.
+ */
+public class PlacementPlan
+{
+    protected final AxisAlignedTransform2D transform;
+    protected final Map<IBlockState, Placement> placements = new ConcurrentHashMap<>();
+
+    public PlacementPlan(AxisAlignedTransform2D transform)
+    {
+        this.transform = transform;
+    }
+
+    public static int index(AxisAlignedTransform2D transform)
+    {
+        return (transform.getRotation() & 3) << 1 | (transform.isMirrorX() ? 1 : 0);
+    }
+
+    public static int getPass(IBlockState state)
+    {
+        return (state.isNormalCube() || state.getMaterial() == Material.AIR) ? 0 : 1;
+    }
+
+    @Nonnull
+    public Placement get(IBlockState source)
+    {
+        return placements.computeIfAbsent(source, s ->
+        {
+            IBlockState state = PosTransformer.transformBlockState(s, transform);
+            return new Placement(state, getPass(state));
+        });
+    }
+
+    public static class Placement
+    {
+        public final IBlockState state;
+        public final int pass;
+
+        public Placement(IBlockState state, int pass)
+        {
+            this.state = state;
+            this.pass = pass;
+        }
+    }
+
+    /**
+     * One plan per transform, dropped when the structure's block data is replaced.
+     */
+    public static class Cache
+    {
+        protected final PlacementPlan[] plans = new PlacementPlan[8];
+        protected Object source;
+
+        @Nonnull
+        public synchronized PlacementPlan get(Object source, AxisAlignedTransform2D transform)
+        {
+            if (this.source != source)
+            {
+                for (int i = 0; i < plans.length; i++)
+                    plans[i] = null;
+                this.source = source;
+            }
+
+            int index = index(transform);
+            PlacementPlan plan = plans[index];
+            if (plan == null)
+                plans[index] = plan = new PlacementPlan(transform);
+            return plan;
+        }
+    }
+}
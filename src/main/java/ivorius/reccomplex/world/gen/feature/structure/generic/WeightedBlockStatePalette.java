@@ -0,0 +1,142 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature.structure.generic;
+
+import ivorius.ivtoolkit.random.WeightedSelector;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * A list of weighted block states compiled into a cumulative weight table, for drawing from many times over.
+ * Draws consume a single double, like {@link WeightedSelector}, and pick the same item it would.
+ */
+public class WeightedBlockStatePalette
+{
+    protected final List<WeightedBlockState> source;
+
+    protected final WeightedBlockState[] items;
+    protected final IBlockState[] states;
+    protected final double[] weights;
+    protected final Supplier<NBTTagCompound>[] tileEntities;
+
+    protected final double[] cumulativeWeights;
+    protected final double totalWeight;
+
+    public WeightedBlockStatePalette(@Nonnull List<WeightedBlockState> source)
+    {
+        this.source = source;
+
+        items = source.toArray(new WeightedBlockState[source.size()]);
+        states = new IBlockState[items.length];
+        weights = new double[items.length];
+        cumulativeWeights = new double[items.length];
+        //noinspection unchecked
+        tileEntities = new Supplier[items.length];
+
+        double total = 0;
+        for (int i = 0; i < items.length; i++)
+        {
+            WeightedBlockState item = items[i];
+
+            states[i] = item.state;
+            weights[i] = item.getWeight();
+            tileEntities[i] = () -> item.tileEntityInfo;
+
+            total += weights[i];
+            cumulativeWeights[i] = total;
+        }
+        totalWeight = total;
+    }
+
+    /**
+     * @return Whether this palette was compiled from the list as it is now.
+     */
+    public boolean isValid(List<WeightedBlockState> list)
+    {
+        if (list != source || list.size() != items.length)
+            return false;
+
+        for (int i = 0; i < items.length; i++)
+        {
+            WeightedBlockState item = list.get(i);
+            if (item != items[i] || item.state != states[i] || item.getWeight() != weights[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    public boolean isEmpty()
+    {
+        return items.length == 0;
+    }
+
+    /**
+     * @return The index of a random item, or -1 if the palette is empty.
+     */
+    public int select(Random random)
+    {
+        if (items.length == 0)
+            return -1;
+
+        if (totalWeight <= 0)
+            return source.indexOf(WeightedSelector.selectItem(random, source));
+
+        double value = random.nextDouble() * totalWeight;
+
+        // First item whose cumulative weight reaches the value
+        int low = 0, high = items.length - 1;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] < value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * @return The state at the index, or null if there is none.
+     */
+    public IBlockState state(int index)
+    {
+        return index >= 0 ? states[index] : null;
+    }
+
+    public WeightedBlockState item(int index)
+    {
+        return items[index];
+    }
+
+    public Supplier<NBTTagCompound> tileEntity(int index)
+    {
+        return tileEntities[index];
+    }
+
+    /**
+     * Keeps the palette of a single list, recompiling it whenever the list is edited.
+     */
+    public static class Cache
+    {
+        protected volatile WeightedBlockStatePalette palette;
+
+        @Nonnull
+        public WeightedBlockStatePalette get(List<WeightedBlockState> list)
+        {
+            WeightedBlockStatePalette palette = this.palette;
+            if (palette == null || !palette.isValid(list))
+                this.palette = palette = new WeightedBlockStatePalette(list);
+            return palette;
+        }
+    }
+}
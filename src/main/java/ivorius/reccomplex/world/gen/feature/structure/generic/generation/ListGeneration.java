@@ -5,12 +5,15 @@
 
 package ivorius.reccomplex.world.gen.feature.structure.generic.generation;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
 import com.google.gson.*;
 import ivorius.ivtoolkit.blocks.Directions;
 import ivorius.ivtoolkit.maze.classic.MazeRoom;
 import ivorius.ivtoolkit.random.WeightedSelector;
 import ivorius.ivtoolkit.tools.IvTranslations;
 import ivorius.reccomplex.client.rendering.MazeVisualizationContext;
+import ivorius.reccomplex.files.SimpleLeveledRegistry;
 import ivorius.reccomplex.gui.editstructure.gentypes.TableDataSourceStructureListGeneration;
 import ivorius.reccomplex.gui.table.datasource.TableDataSource;
 import ivorius.reccomplex.gui.table.TableDelegate;
@@ -28,6 +31,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -61,9 +65,8 @@ public class ListGeneration extends GenerationType implements WeightedSelector.I
 
     public static Stream<Pair<Structure<?>, ListGeneration>> structures(StructureRegistry registry, final String listID, @Nullable final EnumFacing front)
     {
-        final Predicate<Pair<Structure<?>, ListGeneration>> predicate = input -> listID.equals(input.getRight().listID)
-                && (front == null || input.getLeft().isRotatable() || input.getRight().front == front);
-        return registry.getGenerationTypes(ListGeneration.class).stream().filter(predicate);
+        final Predicate<Pair<Structure<?>, ListGeneration>> predicate = input -> (front == null || input.getLeft().isRotatable() || input.getRight().front == front);
+        return registry.module(Cache.class).get(listID).stream().filter(predicate);
     }
 
     @Nonnull
@@ -158,4 +161,37 @@ public class ListGeneration extends GenerationType implements WeightedSelector.I
             return jsonObject;
         }
     }
+
+    /**
+     * Groups the registry's list generations by listID, so nested generators don't need to scan all structures.
+     */
+    public static class Cache extends SimpleLeveledRegistry.Module<StructureRegistry>
+    {
+        protected Multimap<String, Pair<Structure<?>, ListGeneration>> structures;
+
+        public synchronized Collection<Pair<Structure<?>, ListGeneration>> get(String listID)
+        {
+            if (structures == null)
+            {
+                structures = ArrayListMultimap.create();
+                for (Pair<Structure<?>, ListGeneration> pair : registry.getGenerationTypes(ListGeneration.class))
+                    structures.put(pair.getRight().listID, pair);
+            }
+
+            return structures.get(listID);
+        }
+
+        @Override
+        public synchronized void invalidate()
+        {
+            structures = null;
+        }
+
+        @Override
+        public synchronized void invalidate(String id, @Nullable Object before, @Nullable Object after)
+        {
+            if (StructureRegistry.affects(before, after, ListGeneration.class))
+                invalidate();
+        }
+    }
 }
@@ -5,11 +5,14 @@
 
 package ivorius.reccomplex.world.gen.feature.structure.generic.generation;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
 import com.google.gson.*;
 import ivorius.ivtoolkit.maze.components.MazeRoom;
 import ivorius.ivtoolkit.random.WeightedSelector;
 import ivorius.ivtoolkit.tools.IvTranslations;
 import ivorius.reccomplex.client.rendering.MazeVisualizationContext;
+import ivorius.reccomplex.files.SimpleLeveledRegistry;
 import ivorius.reccomplex.gui.GuiValidityStateIndicator;
 import ivorius.reccomplex.gui.editstructure.gentypes.TableDataSourceMazeGeneration;
 import ivorius.reccomplex.gui.table.TableDelegate;
@@ -28,6 +31,7 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nullable;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -91,12 +95,8 @@ public class MazeGeneration extends GenerationType implements WeightedSelector.I
 
     public static Stream<Pair<Structure<?>, MazeGeneration>> structures(StructureRegistry registry, final String mazeID)
     {
-        final Predicate<Pair<Structure<?>, MazeGeneration>> predicate = input ->
-        {
-            MazeGeneration info = input.getRight();
-            return mazeID.equals(info.mazeID) && info.mazeComponent.isValid();
-        };
-        return registry.getGenerationTypes(MazeGeneration.class).stream().filter(predicate);
+        final Predicate<Pair<Structure<?>, MazeGeneration>> predicate = input -> input.getRight().mazeComponent.isValid();
+        return registry.module(Cache.class).get(mazeID).stream().filter(predicate);
     }
 
     public String getMazeID()
@@ -183,4 +183,37 @@ public class MazeGeneration extends GenerationType implements WeightedSelector.I
             return jsonObject;
         }
     }
+
+    /**
+     * Groups the registry's maze generations by mazeID, so nested generators don't need to scan all structures.
+     */
+    public static class Cache extends SimpleLeveledRegistry.Module<StructureRegistry>
+    {
+        protected Multimap<String, Pair<Structure<?>, MazeGeneration>> structures;
+
+        public synchronized Collection<Pair<Structure<?>, MazeGeneration>> get(String mazeID)
+        {
+            if (structures == null)
+            {
+                structures = ArrayListMultimap.create();
+                for (Pair<Structure<?>, MazeGeneration> pair : registry.getGenerationTypes(MazeGeneration.class))
+                    structures.put(pair.getRight().mazeID, pair);
+            }
+
+            return structures.get(mazeID);
+        }
+
+        @Override
+        public synchronized void invalidate()
+        {
+            structures = null;
+        }
+
+        @Override
+        public synchronized void invalidate(String id, @Nullable Object before, @Nullable Object after)
+        {
+            if (StructureRegistry.affects(before, after, MazeGeneration.class))
+                invalidate();
+        }
+    }
 }
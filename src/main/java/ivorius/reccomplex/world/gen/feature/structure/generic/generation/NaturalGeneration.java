@@ -49,6 +49,8 @@ public class NaturalGeneration extends GenerationType implements EnvironmentalSe
     public final PresettedList<WeightedBiomeMatcher> biomeWeights = new PresettedList<>(BiomeMatcherPresets.instance(), null);
     public final PresettedList<WeightedDimensionMatcher> dimensionWeights = new PresettedList<>(DimensionMatcherPresets.instance(), null);
 
+    protected final GenerationWeightTable weightTable = new GenerationWeightTable(biomeWeights, dimensionWeights);
+
     private Double generationWeight;
 
     public String generationCategory;
@@ -126,7 +128,7 @@ public class NaturalGeneration extends GenerationType implements EnvironmentalSe
     @Override
     public double getGenerationWeight(WorldProvider provider, Biome biome)
     {
-        return getActiveGenerationWeight() * StructureSelector.generationWeight(provider, biome, this.biomeWeights, this.dimensionWeights);
+        return getActiveGenerationWeight() * weightTable.weight(provider, biome);
     }
 
     @Override
@@ -195,7 +197,7 @@ public class NaturalGeneration extends GenerationType implements EnvironmentalSe
 
         public boolean areResolved(World world, String structureID)
         {
-            return WorldStructureGenerationData.get(world).getEntriesByID(structureID).size() < maxCount;
+            return WorldStructureGenerationData.get(world).getEntryCount(structureID) < maxCount;
         }
 
         public enum Context
@@ -261,7 +263,8 @@ public class NaturalGeneration extends GenerationType implements EnvironmentalSe
         public void setRegistry(StructureRegistry registry)
         {
             selectors = new CachedStructureSelectors<>((biome, worldProvider) ->
-                    new MixingStructureSelector<>(registry.activeMap(), worldProvider, biome, NaturalGeneration.class));
+                    new MixingStructureSelector<>(registry.activeMap(), worldProvider, biome, NaturalGeneration.class,
+                            gen -> gen.hasLimitations() ? gen.getLimitations().maxCount : -1));
         }
 
         @Override
@@ -269,5 +272,12 @@ public class NaturalGeneration extends GenerationType implements EnvironmentalSe
         {
             selectors.clear();
         }
+
+        @Override
+        public void invalidate(String id, @Nullable Object before, @Nullable Object after)
+        {
+            if (StructureRegistry.affects(before, after, NaturalGeneration.class))
+                invalidate();
+        }
     }
 }
@@ -9,7 +9,6 @@ import com.google.gson.*;
 import com.google.gson.annotations.SerializedName;
 import ivorius.ivtoolkit.blocks.BlockSurfacePos;
 import ivorius.ivtoolkit.tools.IvTranslations;
-import ivorius.ivtoolkit.world.chunk.Chunks;
 import ivorius.reccomplex.client.rendering.MazeVisualizationContext;
 import ivorius.reccomplex.gui.editstructure.gentypes.TableDataSourceStaticGeneration;
 import ivorius.reccomplex.gui.table.TableDelegate;
@@ -28,13 +27,11 @@ import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Type;
-import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -84,25 +81,14 @@ public class StaticGeneration extends GenerationType
         return gson;
     }
 
-    public static Stream<Triple<Structure<?>, StaticGeneration, BlockSurfacePos>> structuresAt(StructureRegistry registry, ChunkPos chunkPos, final World world, final BlockPos spawnPos)
+    public static StaticGenerationIndex index(StructureRegistry registry, World world, BlockPos spawnPos)
     {
-        final Predicate<Pair<Structure<?>, StaticGeneration>> predicate = input ->
-        {
-            StaticGeneration info = input.getRight();
-
-            return info.dimensionExpression.test(world.provider)
-                    && (info.pattern != null || Chunks.contains(chunkPos, info.getPos(spawnPos)));
-        };
-        Stream<Pair<Structure<?>, StaticGeneration>> statics = registry.getGenerationTypes(StaticGeneration.class).stream().filter(predicate);
+        return registry.module(StaticGenerationIndex.Cache.class).get(world.provider, spawnPos);
+    }
 
-        return statics.flatMap(pair ->
-        {
-            StaticGeneration info = pair.getRight();
-            //noinspection ConstantConditions
-            return info.hasPattern()
-                    ? Chunks.repeatIntersections(chunkPos, info.getPos(spawnPos), info.pattern.repeatX, info.pattern.repeatZ).map(pos -> Triple.of(pair.getLeft(), info, pos))
-                    : Stream.of(Triple.of(pair.getLeft(), info, info.getPos(spawnPos)));
-        });
+    public static Stream<Triple<Structure<?>, StaticGeneration, BlockSurfacePos>> structuresAt(StructureRegistry registry, ChunkPos chunkPos, final World world, final BlockPos spawnPos)
+    {
+        return index(registry, world, spawnPos).structuresAt(chunkPos);
     }
 
     public BlockSurfacePos getPosition()
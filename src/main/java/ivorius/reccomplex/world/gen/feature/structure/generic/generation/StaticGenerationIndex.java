@@ -0,0 +1,175 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature.structure.generic.generation;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import ivorius.ivtoolkit.blocks.BlockSurfacePos;
+import ivorius.ivtoolkit.world.chunk.Chunks;
+import ivorius.reccomplex.files.SimpleLeveledRegistry;
+import ivorius.reccomplex.world.gen.feature.structure.Structure;
+import ivorius.reccomplex.world.gen.feature.structure.StructureRegistry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.WorldProvider;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Spatial index over all static generations that apply to a single dimension.
+ * Exact-position statics are hashed by chunk, patterned statics are grouped by the lattice they repeat on,
+ * so a chunk lookup only touches the statics that can actually intersect it.
+ */
+public class StaticGenerationIndex
+{
+    protected final int dimension;
+    protected final BlockPos spawnPos;
+
+    protected final Long2ObjectMap<List<Entry>> exact = new Long2ObjectOpenHashMap<>();
+    protected final Map<Lattice, List<Entry>> lattices = new HashMap<>();
+
+    public StaticGenerationIndex(Collection<Pair<Structure<?>, StaticGeneration>> statics, WorldProvider provider, BlockPos spawnPos)
+    {
+        this.dimension = provider.getDimension();
+        this.spawnPos = spawnPos.toImmutable();
+
+        int order = 0;
+        for (Pair<Structure<?>, StaticGeneration> pair : statics)
+        {
+            StaticGeneration info = pair.getRight();
+
+            if (!info.dimensionExpression.test(provider))
+            {
+                order++;
+                continue;
+            }
+
+            BlockSurfacePos pos = info.getPos(spawnPos);
+            Entry entry = new Entry(order++, pair.getLeft(), info, pos);
+
+            if (info.hasPattern())
+            {
+                //noinspection ConstantConditions
+                Lattice lattice = new Lattice(info.pattern.repeatX, info.pattern.repeatZ, pos);
+                lattices.computeIfAbsent(lattice, k -> new ArrayList<>()).add(entry);
+            }
+            else
+                exact.computeIfAbsent(ChunkPos.asLong(pos.x >> 4, pos.z >> 4), k -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    public boolean isValid(WorldProvider provider, BlockPos spawnPos)
+    {
+        return provider.getDimension() == dimension && this.spawnPos.equals(spawnPos);
+    }
+
+    public Stream<Triple<Structure<?>, StaticGeneration, BlockSurfacePos>> structuresAt(ChunkPos chunkPos)
+    {
+        List<Entry> exactEntries = exact.get(ChunkPos.asLong(chunkPos.x, chunkPos.z));
+
+        if (exactEntries == null && lattices.isEmpty())
+            return Stream.empty();
+
+        List<Triple<Integer, Entry, BlockSurfacePos>> matches = new ArrayList<>();
+
+        if (exactEntries != null)
+            exactEntries.forEach(entry -> matches.add(Triple.of(entry.order, entry, entry.pos)));
+
+        lattices.forEach((lattice, entries) ->
+                Chunks.repeatIntersections(chunkPos, lattice.origin, lattice.repeatX, lattice.repeatZ).forEach(pos ->
+                        entries.forEach(entry -> matches.add(Triple.of(entry.order, entry, pos)))));
+
+        // Keep registry order so random consumption matches the unindexed path
+        matches.sort(Comparator.comparingInt(Triple::getLeft));
+
+        return matches.stream().map(t -> Triple.of(t.getMiddle().structure, t.getMiddle().generation, t.getRight()));
+    }
+
+    protected static class Entry
+    {
+        public final int order;
+        public final Structure<?> structure;
+        public final StaticGeneration generation;
+        public final BlockSurfacePos pos;
+
+        public Entry(int order, Structure<?> structure, StaticGeneration generation, BlockSurfacePos pos)
+        {
+            this.order = order;
+            this.structure = structure;
+            this.generation = generation;
+            this.pos = pos;
+        }
+    }
+
+    protected static class Lattice
+    {
+        public final int repeatX;
+        public final int repeatZ;
+        public final BlockSurfacePos origin;
+
+        public Lattice(int repeatX, int repeatZ, BlockSurfacePos pos)
+        {
+            this.repeatX = repeatX;
+            this.repeatZ = repeatZ;
+            this.origin = new BlockSurfacePos(normalize(pos.x, repeatX), normalize(pos.z, repeatZ));
+        }
+
+        protected static int normalize(int coord, int repeat)
+        {
+            return repeat > 0 ? Math.floorMod(coord, repeat) : coord;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Lattice lattice = (Lattice) o;
+            return repeatX == lattice.repeatX && repeatZ == lattice.repeatZ && origin.equals(lattice.origin);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(repeatX, repeatZ, origin);
+        }
+    }
+
+    public static class Cache extends SimpleLeveledRegistry.Module<StructureRegistry>
+    {
+        protected Map<Integer, StaticGenerationIndex> indices = new HashMap<>();
+
+        public StaticGenerationIndex get(WorldProvider provider, BlockPos spawnPos)
+        {
+            StaticGenerationIndex index = indices.get(provider.getDimension());
+
+            if (index == null || !index.isValid(provider, spawnPos))
+            {
+                index = new StaticGenerationIndex(registry.getGenerationTypes(StaticGeneration.class), provider, spawnPos);
+                indices.put(provider.getDimension(), index);
+            }
+
+            return index;
+        }
+
+        @Override
+        public void invalidate()
+        {
+            indices.clear();
+        }
+
+        @Override
+        public void invalidate(String id, @Nullable Object before, @Nullable Object after)
+        {
+            if (StructureRegistry.affects(before, after, StaticGeneration.class))
+                invalidate();
+        }
+    }
+}
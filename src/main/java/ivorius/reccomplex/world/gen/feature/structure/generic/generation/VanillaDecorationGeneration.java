@@ -20,6 +20,7 @@ import ivorius.reccomplex.utils.presets.PresettedObjects;
 import ivorius.reccomplex.world.gen.feature.decoration.RCBiomeDecorator;
 import ivorius.reccomplex.world.gen.feature.selector.CachedStructureSelectors;
 import ivorius.reccomplex.world.gen.feature.selector.EnvironmentalSelection;
+import ivorius.reccomplex.world.gen.feature.selector.GenerationWeightTable;
 import ivorius.reccomplex.world.gen.feature.selector.StructureSelector;
 import ivorius.reccomplex.world.gen.feature.structure.Placer;
 import ivorius.reccomplex.world.gen.feature.structure.StructureRegistry;
@@ -50,6 +51,8 @@ public class VanillaDecorationGeneration extends GenerationType implements Envir
     public final PresettedList<WeightedBiomeMatcher> biomeWeights = new PresettedList<>(BiomeMatcherPresets.instance(), null);
     public final PresettedList<WeightedDimensionMatcher> dimensionWeights = new PresettedList<>(DimensionMatcherPresets.instance(), null);
 
+    protected final GenerationWeightTable weightTable = new GenerationWeightTable(biomeWeights, dimensionWeights);
+
     public RCBiomeDecorator.DecorationType type;
 
     public BlockPos spawnShift;
@@ -139,7 +142,7 @@ public class VanillaDecorationGeneration extends GenerationType implements Envir
     @Override
     public double getGenerationWeight(WorldProvider provider, Biome biome)
     {
-        return getActiveGenerationWeight() * StructureSelector.generationWeight(provider, biome, biomeWeights, dimensionWeights);
+        return getActiveGenerationWeight() * weightTable.weight(provider, biome);
     }
 
     @Override
@@ -216,5 +219,12 @@ public class VanillaDecorationGeneration extends GenerationType implements Envir
         {
             selectors.clear();
         }
+
+        @Override
+        public void invalidate(String id, @Nullable Object before, @Nullable Object after)
+        {
+            if (StructureRegistry.affects(before, after, VanillaDecorationGeneration.class))
+                invalidate();
+        }
     }
 }
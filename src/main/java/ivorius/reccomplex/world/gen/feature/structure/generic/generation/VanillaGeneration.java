@@ -204,6 +204,13 @@ public class VanillaGeneration extends GenerationType
             }
         }
 
+        @Override
+        public void invalidate(String id, @Nullable Object before, @Nullable Object after)
+        {
+            if (StructureRegistry.affects(before, after, VanillaGeneration.class))
+                invalidate();
+        }
+
         private void updateVanillaGenerations()
         {
             TemporaryVillagerRegistry.instance().setHandlers(
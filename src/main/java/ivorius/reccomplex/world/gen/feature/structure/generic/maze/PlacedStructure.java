@@ -14,8 +14,11 @@ import ivorius.reccomplex.world.gen.feature.structure.VariableDomain;
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
 import net.minecraftforge.common.util.Constants;
 
+import javax.annotation.Nullable;
+
 /**
  * Created by lukas on 16.04.15.
  */
@@ -27,6 +30,8 @@ public class PlacedStructure implements NBTCompoundObject
     public BlockPos lowerCoord;
 
     public NBTBase instanceData;
+    @Nullable
+    public StructureBoundingBox extent;
 
     public PlacedStructure()
     {
@@ -41,6 +46,12 @@ public class PlacedStructure implements NBTCompoundObject
         this.instanceData = instanceData;
     }
 
+    public PlacedStructure(String structureID, String generationInfoID, AxisAlignedTransform2D transform, BlockPos lowerCoord, NBTBase instanceData, @Nullable StructureBoundingBox extent)
+    {
+        this(structureID, generationInfoID, transform, lowerCoord, instanceData);
+        this.extent = extent;
+    }
+
     @Override
     public void readFromNBT(NBTTagCompound compound)
     {
@@ -49,6 +60,7 @@ public class PlacedStructure implements NBTCompoundObject
         transform = RCAxisAlignedTransform.read(compound, "rotation", "mirrorX");
         lowerCoord = BlockPositions.readFromNBT("lowerCoord", compound);
         instanceData = compound.hasKey("instanceData", Constants.NBT.TAG_COMPOUND) ? compound.getTag("instanceData") : null;
+        extent = compound.hasKey("extent", Constants.NBT.TAG_INT_ARRAY) ? new StructureBoundingBox(compound.getIntArray("extent")) : null;
     }
 
     @Override
@@ -60,5 +72,7 @@ public class PlacedStructure implements NBTCompoundObject
         BlockPositions.writeToNBT("lowerCoord", lowerCoord, compound);
         if (instanceData != null)
             compound.setTag("instanceData", instanceData);
+        if (extent != null)
+            compound.setTag("extent", extent.toNBTTagIntArray());
     }
 }
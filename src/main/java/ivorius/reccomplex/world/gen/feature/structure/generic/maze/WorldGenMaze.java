@@ -53,7 +53,8 @@ public class WorldGenMaze
                 .instanceData(placedComponent.instanceData);
 
         // Never abort on first time to get the entry added
-        if (!context.generateMaturity.isFirstTime() && context.generationBB != null && !context.generationBB.intersectsWith(generator.boundingBox().get()))
+        if (!context.generateMaturity.isFirstTime() && context.generationBB != null
+                && !context.generationBB.intersectsWith(placedComponent.extent != null ? placedComponent.extent : generator.boundingBox().get()))
             return null;
 
         return generator.generate() != null;
@@ -83,12 +84,12 @@ public class WorldGenMaze
 
         BlockPos compLowerPos = getBoundingBox(roomSize, placedComponent, structure, componentInfo.transform).add(shift);
 
-        NBTStorable instanceData = new StructureGenerator<>(structure).seed(random.nextLong()).environment(childEnvironment)
+        StructureGenerator<?> generator = new StructureGenerator<>(structure).seed(random.nextLong()).environment(childEnvironment)
                 .transform(Transforms.apply(componentInfo.transform, transform))
                 .lowerCoord(lowerCoord(structure, compLowerPos, componentInfo.transform, pos, transform))
-                .structureID(componentInfo.structureID)
-                .instanceData().orElse(null);
-        return new PlacedStructure(componentInfo.structureID, componentInfo.structureID, componentInfo.transform, compLowerPos, instanceData.writeToNBT());
+                .structureID(componentInfo.structureID);
+        NBTStorable instanceData = generator.instanceData().orElse(null);
+        return new PlacedStructure(componentInfo.structureID, componentInfo.structureID, componentInfo.transform, compLowerPos, instanceData.writeToNBT(), generator.extent().orElse(null));
     }
 
     protected static BlockPos getBoundingBox(int[] roomSize, PlacedMazeComponent<MazeComponentStructure<Connector>, Connector> placedComponent, Structure structure, AxisAlignedTransform2D transform)
@@ -94,6 +94,14 @@ public abstract class Transformer<S extends NBTStorable>
         return true;
     }
 
+    /**
+     * @return False if skipGeneration will never return true for this instance, so it can be left out of the per-block loop.
+     */
+    public boolean canSkipGeneration(S instanceData)
+    {
+        return true;
+    }
+
     public boolean skipGeneration(S instanceData, StructureLiveContext context, BlockPos pos, IBlockState state, IvWorldData worldData, BlockPos sourcePos)
     {
         return false;
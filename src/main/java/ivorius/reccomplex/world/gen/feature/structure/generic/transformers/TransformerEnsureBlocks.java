@@ -73,6 +73,12 @@ public class TransformerEnsureBlocks extends Transformer<NBTNone>
         return true;
     }
 
+    @Override
+    public boolean canSkipGeneration(NBTNone instanceData)
+    {
+        return false;
+    }
+
     @Override
     public boolean skipGeneration(NBTNone instanceData, StructureLiveContext context, BlockPos pos, IBlockState state, IvWorldData worldData, BlockPos sourcePos)
     {
@@ -169,12 +169,29 @@ public class TransformerMulti extends Transformer<TransformerMulti.InstanceData>
                 .allMatch(input -> input.getLeft().mayGenerate(input.getRight(), context, worldData));
     }
 
+    @Override
+    public boolean canSkipGeneration(InstanceData instanceData)
+    {
+        return !instanceData.deactivated && !instanceData.skippingTransformers().isEmpty();
+    }
+
     @Override
     public boolean skipGeneration(InstanceData instanceData, StructureLiveContext context, BlockPos pos, IBlockState state, IvWorldData worldData, BlockPos sourcePos)
     {
-        //noinspection unchecked
-        return !instanceData.deactivated && instanceData.pairedTransformers.stream()
-                .anyMatch(input -> input.getLeft().skipGeneration(input.getRight(), context, pos, state, worldData, sourcePos));
+        if (instanceData.deactivated)
+            return false;
+
+        List<Pair<Transformer, NBTStorable>> skipping = instanceData.skippingTransformers();
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < skipping.size(); i++)
+        {
+            Pair<Transformer, NBTStorable> pair = skipping.get(i);
+            //noinspection unchecked
+            if (pair.getLeft().skipGeneration(pair.getRight(), context, pos, state, worldData, sourcePos))
+                return true;
+        }
+
+        return false;
     }
 
     @Override
@@ -192,6 +209,26 @@ public class TransformerMulti extends Transformer<TransformerMulti.InstanceData>
         public final List<Pair<Transformer, NBTStorable>> pairedTransformers = new ArrayList<>();
         public boolean deactivated;
 
+        protected List<Pair<Transformer, NBTStorable>> skippingTransformers;
+        protected int skippingTransformersSource = -1;
+
+        /**
+         * The paired transformers that may skip any blocks at all, in order.
+         */
+        public List<Pair<Transformer, NBTStorable>> skippingTransformers()
+        {
+            if (skippingTransformers == null || skippingTransformersSource != pairedTransformers.size())
+            {
+                //noinspection unchecked
+                skippingTransformers = pairedTransformers.stream()
+                        .filter(pair -> pair.getLeft().canSkipGeneration(pair.getRight()))
+                        .collect(Collectors.toList());
+                skippingTransformersSource = pairedTransformers.size();
+            }
+
+            return skippingTransformers;
+        }
+
         public void readFromNBT(StructureLoadContext context, NBTBase nbt, List<Transformer> transformers)
         {
             NBTTagCompound compound = nbt instanceof NBTTagCompound ? (NBTTagCompound) nbt : new NBTTagCompound();
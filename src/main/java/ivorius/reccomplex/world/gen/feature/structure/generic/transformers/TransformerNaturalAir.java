@@ -6,6 +6,8 @@
 package ivorius.reccomplex.world.gen.feature.structure.generic.transformers;
 
 import com.google.gson.*;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import it.unimi.dsi.fastutil.longs.*;
 import ivorius.ivtoolkit.blocks.BlockArea;
 import ivorius.ivtoolkit.blocks.BlockAreas;
 import ivorius.ivtoolkit.blocks.IvBlockCollection;
@@ -27,20 +29,22 @@ import ivorius.reccomplex.world.gen.feature.structure.context.StructurePrepareCo
 import ivorius.reccomplex.world.gen.feature.structure.context.StructureSpawnContext;
 import ivorius.reccomplex.utils.expression.BlockExpression;
 import ivorius.reccomplex.utils.RCBlockLogic;
+import ivorius.reccomplex.utils.RCBlockPositions;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3i;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import javax.annotation.Nullable;
 import java.lang.reflect.Type;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -108,40 +112,134 @@ public class TransformerNaturalAir extends TransformerAbstractCloud<TransformerN
             BlockPos lowerCoord = StructureBoundingBoxes.min(context.boundingBox);
 
             // Remove dying foliage
-            HashSet<BlockPos> check = instanceData.cloud.keySet().stream()
-                    .flatMap(pos -> new BlockArea(pos.subtract(new Vec3i(2, 2, 2)), pos.add(new Vec3i(2, 2, 2))).stream())
-                    .filter(pos -> !instanceData.cloud.containsKey(pos))
-                    .map(pos -> context.transform.apply(pos, areaSize).add(lowerCoord))
-                    .collect(Collectors.toCollection(HashSet::new));
+            LongOpenHashSet sources = new LongOpenHashSet();
+            instanceData.cloud.forEachKey(pos ->
+            {
+                for (int x = -2; x <= 2; x++)
+                    for (int y = -2; y <= 2; y++)
+                        for (int z = -2; z <= 2; z++)
+                            sources.add(RCBlockPositions.toLong(pos.getX() + x, pos.getY() + y, pos.getZ() + z));
+                return true;
+            });
+
+            LongArrayList check = new LongArrayList(sources.size());
+            for (LongIterator iterator = sources.iterator(); iterator.hasNext(); )
+            {
+                BlockPos pos = BlockPos.fromLong(iterator.nextLong());
+                if (!instanceData.cloud.containsKey(pos))
+                    check.add(context.transform.apply(pos, areaSize).add(lowerCoord).toLong());
+            }
+
+            removeFloatingFoliage(world, check, pos -> context.setBlock(pos, Blocks.AIR.getDefaultState(), 2));
+        }
+    }
+
+    /**
+     * Finds all foliage connected to the seeds and removes the parts that aren't attached to anything solid anymore.
+     * Every position is looked at only once; components are labelled as they are found, and floating ones removed at the end.
+     * Components larger than {@link #MAX_TREE_SIZE} are assumed to be grounded.
+     */
+    public static void removeFloatingFoliage(IBlockAccess world, LongList seeds, Consumer<BlockPos> remover)
+    {
+        // >= 0: Component index, or one of the labels below
+        Long2IntOpenHashMap labels = new Long2IntOpenHashMap();
+        labels.defaultReturnValue(UNVISITED);
 
-            Set<BlockPos> remove = new HashSet<>();
-            HashSet<BlockPos> start = new HashSet<>();
+        BooleanArrayList grounded = new BooleanArrayList();
+        List<LongArrayList> components = new ArrayList<>();
 
-            // Do each one separately, since each block needs to be connected to floor separately
-            check.forEach(checking ->
+        LongArrayList queue = new LongArrayList();
+
+        for (int s = 0; s < seeds.size(); s++)
+        {
+            long seed = seeds.getLong(s);
+            if (labels.get(seed) != UNVISITED || classify(world, seed, labels, remover) != FOLIAGE)
+                continue;
+
+            int component = components.size();
+            LongArrayList members = new LongArrayList();
+            components.add(members);
+            grounded.add(false);
+
+            labels.put(seed, component);
+            members.add(seed);
+            queue.clear();
+            queue.add(seed);
+
+            boolean isGrounded = false;
+            for (int q = 0; q < queue.size() && !isGrounded; q++)
             {
-                start.add(checking);
-                if (visitRecursively(start, (changed, pos) ->
-                {
-                    IBlockState state = world.getBlockState(pos);
-                    boolean isFoliage = RCBlockLogic.isFoliage(state, world, pos);
-                    if (!RCBlockLogic.canStay(state, world, pos))
-                        context.setBlock(pos, Blocks.AIR.getDefaultState(), 2);
-                    else if (!isFoliage && !state.getBlock().isReplaceable(world, pos))
-                        return false;
-                    else if (isFoliage && remove.size() < MAX_TREE_SIZE && remove.add(pos))
-                        neighbors(pos).forEach(changed::add);
-
-                    return true;
-                }))
-                {
-                    remove.forEach(pos -> context.setBlock(pos, Blocks.AIR.getDefaultState(), 2));
-                }
-
-                start.clear();
-                remove.clear();
-            });
+                long current = queue.getLong(q);
+
+                for (int x = -1; x <= 1 && !isGrounded; x++)
+                    for (int y = -1; y <= 1 && !isGrounded; y++)
+                        for (int z = -1; z <= 1 && !isGrounded; z++)
+                        {
+                            long neighbor = RCBlockPositions.offset(current, x, y, z);
+                            int label = labels.get(neighbor);
+
+                            if (label == UNVISITED)
+                            {
+                                label = classify(world, neighbor, labels, remover);
+
+                                if (label == FOLIAGE)
+                                {
+                                    labels.put(neighbor, component);
+                                    members.add(neighbor);
+                                    queue.add(neighbor);
+
+                                    if (members.size() > MAX_TREE_SIZE)
+                                        isGrounded = true;
+                                }
+                                else if (label == SOLID)
+                                    isGrounded = true;
+                            }
+                            else if (label == SOLID || (label >= 0 && label != component && grounded.getBoolean(label)))
+                                isGrounded = true;
+                        }
+            }
+
+            grounded.set(component, isGrounded);
         }
+
+        for (int i = 0; i < components.size(); i++)
+        {
+            if (!grounded.getBoolean(i))
+            {
+                LongArrayList members = components.get(i);
+                for (int m = 0; m < members.size(); m++)
+                    remover.accept(BlockPos.fromLong(members.getLong(m)));
+            }
+        }
+    }
+
+    private static final int UNVISITED = -1;
+    private static final int PASSABLE = -2;
+    private static final int SOLID = -3;
+    private static final int FOLIAGE = -4;
+
+    /**
+     * Looks at a position for the first time. Blocks that can't stay are removed right away and count as passable.
+     * Passable and solid positions are labelled; foliage is left for the caller to assign to a component.
+     */
+    private static int classify(IBlockAccess world, long packed, Long2IntOpenHashMap labels, Consumer<BlockPos> remover)
+    {
+        BlockPos immutable = BlockPos.fromLong(packed);
+        IBlockState state = world.getBlockState(immutable);
+
+        int label;
+        if (world instanceof World && !RCBlockLogic.canStay(state, (World) world, immutable))
+        {
+            remover.accept(immutable);
+            label = PASSABLE;
+        }
+        else if (RCBlockLogic.isFoliage(state, world, immutable))
+            return FOLIAGE;
+        else
+            label = state.getBlock().isReplaceable(world, immutable) ? PASSABLE : SOLID;
+
+        labels.put(packed, label);
+        return label;
     }
 
     @SideOnly(Side.CLIENT)
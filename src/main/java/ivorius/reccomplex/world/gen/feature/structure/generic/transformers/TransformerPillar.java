@@ -30,6 +30,7 @@ import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -68,24 +69,31 @@ public class TransformerPillar extends TransformerSingleBlock<NBTNone>
     {
         if (RecurrentComplex.specialRegistry.isSafe(destState.getBlock()))
         {
-            // TODO Fix for partial generation
             World world = context.environment.world;
 
-            int y = coord.getY();
+            // A pillar never leaves its column, so it stays in the chunk that's generating it
+            int x = coord.getX(), z = coord.getZ();
+            Chunk chunk = world.getChunkFromBlockCoords(coord);
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
 
-            do
-            {
-                BlockPos pos = new BlockPos(coord.getX(), y--, coord.getZ());
-                context.setBlock(pos, destState, 2);
+            int minY = context.generationBB != null ? Math.max(context.generationBB.minY, 1) : 1;
+            int maxY = context.generationBB != null ? Math.min(context.generationBB.maxY, coord.getY()) : coord.getY();
 
-                IBlockState blockState = world.getBlockState(pos);
-                if (!(blockState.getBlock().isReplaceable(world, pos) || blockState.getMaterial() == Material.LEAVES || blockState.getBlock().isFoliage(world, pos)))
-                    break;
-            }
-            while (y > 0);
+            // Scan for the ground before placing, so the column is resolved in one pass
+            int bottom = coord.getY();
+            while (bottom > minY && canExtendInto(world, chunk.getBlockState(x & 15, bottom - 1, z & 15), pos.setPos(x, bottom - 1, z)))
+                bottom--;
+
+            for (int y = maxY; y >= bottom; y--)
+                context.setBlock(pos.setPos(x, y, z), destState, 2);
         }
     }
 
+    protected static boolean canExtendInto(World world, IBlockState state, BlockPos pos)
+    {
+        return state.getBlock().isReplaceable(world, pos) || state.getMaterial() == Material.LEAVES || state.getBlock().isFoliage(world, pos);
+    }
+
     @Override
     public NBTNone prepareInstanceData(StructurePrepareContext context, IvWorldData worldData)
     {
@@ -8,7 +8,6 @@ package ivorius.reccomplex.world.gen.feature.structure.generic.transformers;
 import com.google.gson.*;
 import com.google.gson.reflect.TypeToken;
 import ivorius.ivtoolkit.blocks.BlockStates;
-import ivorius.ivtoolkit.random.WeightedSelector;
 import ivorius.ivtoolkit.tools.IvWorldData;
 import ivorius.ivtoolkit.tools.MCRegistry;
 import ivorius.reccomplex.RecurrentComplex;
@@ -20,6 +19,7 @@ import ivorius.reccomplex.json.JsonUtils;
 import ivorius.reccomplex.nbt.NBTNone;
 import ivorius.reccomplex.utils.algebra.ExpressionCache;
 import ivorius.reccomplex.utils.expression.BlockExpression;
+import ivorius.reccomplex.utils.expression.BlockStateMatchTable;
 import ivorius.reccomplex.utils.presets.PresettedList;
 import ivorius.reccomplex.utils.presets.PresettedObjects;
 import ivorius.reccomplex.world.gen.feature.structure.Environment;
@@ -28,6 +28,7 @@ import ivorius.reccomplex.world.gen.feature.structure.context.StructurePrepareCo
 import ivorius.reccomplex.world.gen.feature.structure.context.StructureSpawnContext;
 import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
 import ivorius.reccomplex.world.gen.feature.structure.generic.WeightedBlockState;
+import ivorius.reccomplex.world.gen.feature.structure.generic.WeightedBlockStatePalette;
 import ivorius.reccomplex.world.gen.feature.structure.generic.presets.WeightedBlockStatePresets;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
@@ -53,6 +54,9 @@ public class TransformerReplace extends TransformerSingleBlock<NBTNone>
     public final PresettedList<WeightedBlockState> destination = new PresettedList<>(WeightedBlockStatePresets.instance(), null);
     public BlockExpression sourceMatcher;
 
+    protected final BlockStateMatchTable matchTable = new BlockStateMatchTable();
+    protected final WeightedBlockStatePalette.Cache palette = new WeightedBlockStatePalette.Cache();
+
     public TransformerReplace()
     {
         this(null, BlockExpression.of(RecurrentComplex.specialRegistry, Blocks.WOOL));
@@ -80,19 +84,19 @@ public class TransformerReplace extends TransformerSingleBlock<NBTNone>
     @Override
     public boolean matches(Environment environment, NBTNone instanceData, IBlockState state)
     {
-        return sourceMatcher.test(state);
+        return matchTable.test(sourceMatcher, state);
     }
 
     @Override
     public void transformBlock(NBTNone instanceData, Phase phase, StructureSpawnContext context, RunTransformer transformer, int[] areaSize, BlockPos coord, IBlockState sourceState)
     {
-        WeightedBlockState blockState;
-        if (destination.getContents().size() > 0)
-            blockState = WeightedSelector.selectItem(context.random, destination.getContents());
-        else
-            blockState = new WeightedBlockState(null, null, null);
+        WeightedBlockStatePalette palette = this.palette.get(destination.getContents());
+
+        int index = palette.select(context.random);
+        IBlockState state = palette.state(index);
 
-        setBlock(context, areaSize, coord, blockState, () -> blockState.tileEntityInfo);
+        if (state != null)
+            GenericStructure.setBlock(context, areaSize, coord, state, palette.tileEntity(index));
     }
 
     @Override
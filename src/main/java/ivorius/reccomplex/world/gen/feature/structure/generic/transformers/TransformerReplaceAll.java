@@ -27,6 +27,7 @@ import ivorius.reccomplex.world.gen.feature.structure.context.StructurePrepareCo
 import ivorius.reccomplex.world.gen.feature.structure.context.StructureSpawnContext;
 import ivorius.reccomplex.world.gen.feature.structure.generic.WeightedBlockState;
 import ivorius.reccomplex.utils.expression.BlockExpression;
+import ivorius.reccomplex.utils.expression.BlockStateMatchTable;
 import ivorius.reccomplex.world.gen.feature.structure.generic.presets.WeightedBlockStatePresets;
 import net.minecraft.block.state.IBlockState;
 import ivorius.reccomplex.nbt.NBTStorable;
@@ -54,6 +55,8 @@ public class TransformerReplaceAll extends TransformerSingleBlock<TransformerRep
 
     public BlockExpression sourceMatcher;
 
+    protected final BlockStateMatchTable matchTable = new BlockStateMatchTable();
+
     public TransformerReplaceAll()
     {
         this(null, BlockExpression.of(RecurrentComplex.specialRegistry, Blocks.WOOL, new IntegerRange(0, 15)));
@@ -75,7 +78,7 @@ public class TransformerReplaceAll extends TransformerSingleBlock<TransformerRep
     @Override
     public boolean matches(Environment environment, InstanceData instanceData, IBlockState state)
     {
-        return sourceMatcher.test(state);
+        return matchTable.test(sourceMatcher, state);
     }
 
     @Override
@@ -41,6 +41,8 @@ import java.util.stream.Stream;
  */
 public class SchematicFile
 {
+    public static final int PASSES = 2;
+
     public final List<NBTTagCompound> entityCompounds = new ArrayList<>();
     public final List<NBTTagCompound> tileEntityCompounds = new ArrayList<>();
     public short width, height, length;
@@ -122,6 +124,12 @@ public class SchematicFile
             tileEntityCompounds.add(fixer.process(FixTypes.BLOCK_ENTITY, tileEntities.getCompoundTagAt(i)));
     }
 
+    public BlockPos getBlockPos(int index)
+    {
+        int rest = index / width;
+        return new BlockPos(index % width, rest / length, rest % length);
+    }
+
     public int getBlockIndex(BlockPos pos)
     {
         return pos.getX() + (pos.getY() * length + pos.getZ()) * width;
@@ -159,6 +167,19 @@ public class SchematicFile
      * Mirror is applied first
      */
     public void generate(World world, BlockPos origin, AxisAlignedTransform2D transform)
+    {
+        Map<BlockPos, TileEntity> tileEntities = createTileEntities(world, origin, transform);
+
+        for (int pass = 0; pass < PASSES; pass++)
+        {
+            for (BlockPos sourcePos : area())
+                generate(world, origin, transform, tileEntities, pass, sourcePos);
+        }
+
+        spawnEntities(world, origin, transform);
+    }
+
+    public Map<BlockPos, TileEntity> createTileEntities(World world, BlockPos origin, AxisAlignedTransform2D transform)
     {
         int[] areaSize = {width, height, length};
 
@@ -174,33 +195,41 @@ public class SchematicFile
             if (tileEntity != null)
                 tileEntities.put(src, tileEntity);
         }
+        return tileEntities;
+    }
+
+    /**
+     * Places a single block, if it belongs into the pass.
+     */
+    public void generate(World world, BlockPos origin, AxisAlignedTransform2D transform, Map<BlockPos, TileEntity> tileEntities, int pass, BlockPos sourcePos)
+    {
+        int[] areaSize = {width, height, length};
 
-        for (int pass = 0; pass < 2; pass++)
+        int index = getBlockIndex(sourcePos);
+        IBlockState blockState = PosTransformer.transformBlockState(blockStates[index], transform);
+
+        if (blockState != null && getPass(blockState) == pass)
         {
-            for (BlockPos sourcePos : area())
+            BlockPos worldPos = origin.add(transform.apply(sourcePos, areaSize));
+            world.setBlockState(worldPos, blockState, 2);
+
+            TileEntity tileEntity = tileEntities.get(sourcePos);
+            if (tileEntity != null)
             {
-                int index = getBlockIndex(sourcePos);
-                IBlockState blockState = PosTransformer.transformBlockState(blockStates[index], transform);
-
-                if (blockState != null && getPass(blockState) == pass)
-                {
-                    BlockPos worldPos = origin.add(transform.apply(sourcePos, areaSize));
-                    world.setBlockState(worldPos, blockState, 2);
-
-                    TileEntity tileEntity = tileEntities.get(sourcePos);
-                    if (tileEntity != null)
-                    {
-                        world.setBlockState(worldPos, blockState, 2); // Second time to ensure state, see BlockFurnace
-
-                        RCPosTransformer.transformAdditionalData(tileEntity, transform, areaSize);
-                        RCMover.moveAdditionalData(tileEntity, origin);
-
-                        world.setTileEntity(worldPos, tileEntity);
-                        tileEntity.updateContainingBlockInfo();
-                    }
-                }
+                world.setBlockState(worldPos, blockState, 2); // Second time to ensure state, see BlockFurnace
+
+                RCPosTransformer.transformAdditionalData(tileEntity, transform, areaSize);
+                RCMover.moveAdditionalData(tileEntity, origin);
+
+                world.setTileEntity(worldPos, tileEntity);
+                tileEntity.updateContainingBlockInfo();
             }
         }
+    }
+
+    public void spawnEntities(World world, BlockPos origin, AxisAlignedTransform2D transform)
+    {
+        int[] areaSize = {width, height, length};
 
         for (NBTTagCompound entityCompound : entityCompounds)
         {
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature.villages;
+
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import net.minecraft.nbt.*;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Instance data saved as what sets it apart from the data prepared again from the same seed,
+ * along with a digest of the whole to tell whether rebuilding it came out the same.
+ */
+public class CompactInstanceData
+{
+    protected final NBTTagCompound changed;
+    protected final List<String> removed;
+    protected final HashCode digest;
+
+    public CompactInstanceData(NBTTagCompound changed, List<String> removed, HashCode digest)
+    {
+        this.changed = changed;
+        this.removed = removed;
+        this.digest = digest;
+    }
+
+    /**
+     * @return The instance data relative to the rebuilt data, or null if that isn't any smaller.
+     */
+    @Nullable
+    public static CompactInstanceData of(NBTBase instanceData, @Nullable NBTBase rebuilt)
+    {
+        if (!(instanceData instanceof NBTTagCompound) || !(rebuilt instanceof NBTTagCompound))
+            return null;
+
+        NBTTagCompound compound = (NBTTagCompound) instanceData;
+        NBTTagCompound rebuiltCompound = (NBTTagCompound) rebuilt;
+
+        NBTTagCompound changed = new NBTTagCompound();
+        for (String key : compound.getKeySet())
+        {
+            NBTBase tag = compound.getTag(key);
+            if (!tag.equals(rebuiltCompound.getTag(key)))
+                changed.setTag(key, tag.copy());
+        }
+
+        List<String> removed = rebuiltCompound.getKeySet().stream()
+                .filter(key -> !compound.hasKey(key))
+                .collect(Collectors.toList());
+
+        CompactInstanceData compact = new CompactInstanceData(changed, removed, digest(instanceData));
+        return byteSize(compact.writeToNBT()) < byteSize(compound) ? compact : null;
+    }
+
+    public static CompactInstanceData readFromNBT(NBTTagCompound compound)
+    {
+        List<String> removed = new ArrayList<>();
+        NBTTagList removedList = compound.getTagList("removed", Constants.NBT.TAG_STRING);
+        for (int i = 0; i < removedList.tagCount(); i++)
+            removed.add(removedList.getStringTagAt(i));
+
+        return new CompactInstanceData(compound.getCompoundTag("changed"), removed, HashCode.fromBytes(compound.getByteArray("digest")));
+    }
+
+    /**
+     * A digest of the tag's contents, independent of the order the compounds' keys happen to be in.
+     */
+    public static HashCode digest(NBTBase nbt)
+    {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        digest(nbt, hasher, Funnels.asOutputStream(hasher));
+        return hasher.hash();
+    }
+
+    protected static void digest(NBTBase nbt, Hasher hasher, OutputStream stream)
+    {
+        hasher.putByte(nbt.getId());
+
+        if (nbt instanceof NBTTagCompound)
+        {
+            NBTTagCompound compound = (NBTTagCompound) nbt;
+            hasher.putInt(compound.getSize());
+            compound.getKeySet().stream().sorted().forEach(key ->
+            {
+                hasher.putString(key, StandardCharsets.UTF_8);
+                digest(compound.getTag(key), hasher, stream);
+            });
+        }
+        else if (nbt instanceof NBTTagList)
+        {
+            NBTTagList list = (NBTTagList) nbt;
+            hasher.putInt(list.tagCount());
+            for (int i = 0; i < list.tagCount(); i++)
+                digest(list.get(i), hasher, stream);
+        }
+        else
+        {
+            // A compound with a single key is always written the same
+            NBTTagCompound wrapper = new NBTTagCompound();
+            wrapper.setTag("", nbt);
+            try
+            {
+                CompressedStreamTools.write(wrapper, new DataOutputStream(stream));
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return How many bytes the compound takes up uncompressed.
+     */
+    public static int byteSize(NBTTagCompound compound)
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try
+        {
+            CompressedStreamTools.write(compound, new DataOutputStream(bytes));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.size();
+    }
+
+    /**
+     * @return The instance data, rebuilt from the data prepared again.
+     */
+    public NBTTagCompound apply(NBTTagCompound rebuilt)
+    {
+        NBTTagCompound compound = rebuilt.copy();
+        removed.forEach(compound::removeTag);
+        for (String key : changed.getKeySet())
+            compound.setTag(key, changed.getTag(key).copy());
+        return compound;
+    }
+
+    public boolean matches(NBTBase instanceData)
+    {
+        return digest.equals(digest(instanceData));
+    }
+
+    public NBTTagCompound writeToNBT()
+    {
+        NBTTagCompound compound = new NBTTagCompound();
+
+        compound.setTag("changed", changed);
+        NBTTagList removedList = new NBTTagList();
+        removed.forEach(key -> removedList.appendTag(new NBTTagString(key)));
+        compound.setTag("removed", removedList);
+        compound.setByteArray("digest", digest.asBytes());
+
+        return compound;
+    }
+}
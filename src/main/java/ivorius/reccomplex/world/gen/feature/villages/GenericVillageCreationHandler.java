@@ -105,11 +105,12 @@ public class GenericVillageCreationHandler implements VillagerRegistry.IVillageC
             return null;
 
         GenericVillagePiece genericVillagePiece = GenericVillagePiece.create(structureID, generationID, startPiece, generationDepth);
-        genericVillagePiece.seed = random.nextLong();
 
         if (genericVillagePiece == null)
             return kill(villagePiece);
 
+        genericVillagePiece.seed = random.nextLong();
+
         genericVillagePiece.setIds(structureID, generationID);
         genericVillagePiece.setOrientation(front, transform, strucBB);
 
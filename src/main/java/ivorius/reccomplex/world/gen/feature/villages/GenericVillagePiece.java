@@ -8,6 +8,7 @@ package ivorius.reccomplex.world.gen.feature.villages;
 import ivorius.ivtoolkit.blocks.Directions;
 import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
 import ivorius.ivtoolkit.world.chunk.gen.StructureBoundingBoxes;
+import ivorius.reccomplex.RecurrentComplex;
 import ivorius.reccomplex.nbt.NBTStorable;
 import ivorius.reccomplex.utils.RCAxisAlignedTransform;
 import ivorius.reccomplex.world.gen.feature.StructureGenerator;
@@ -28,6 +29,7 @@ import net.minecraft.world.biome.Biome;
 import net.minecraft.world.gen.structure.StructureBoundingBox;
 import net.minecraft.world.gen.structure.StructureVillagePieces;
 import net.minecraft.world.gen.structure.template.TemplateManager;
+import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -48,6 +50,11 @@ public class GenericVillagePiece extends StructureVillagePieces.Village
 
     public boolean startedGeneration;
     public NBTBase instanceData;
+    /**
+     * If not null, the instance data is saved as this, and rebuilt from the seed after loading.
+     */
+    @Nullable
+    public CompactInstanceData compactInstanceData;
 
     public GenericVillagePiece()
     {
@@ -120,7 +127,20 @@ public class GenericVillagePiece extends StructureVillagePieces.Village
     @Nonnull
     protected Environment environment(WorldServer world, GenerationType generationType)
     {
-        return new Environment(world, biome(world), structureType, generationType);
+        return environment(world, generationType, biome(world));
+    }
+
+    @Nonnull
+    protected Environment environment(WorldServer world, GenerationType generationType, Biome biome)
+    {
+        return new Environment(world, biome, structureType, generationType);
+    }
+
+    @Nullable
+    protected NBTBase prepareInstanceData(Structure<?> structure, Environment environment)
+    {
+        return new StructureGenerator<>(structure).seed(seed).environment(environment).transform(transform).boundingBox(boundingBox)
+                .instanceData().map(NBTStorable::writeToNBT).orElse(null);
     }
 
     public void prepare(WorldServer world)
@@ -135,10 +155,21 @@ public class GenericVillagePiece extends StructureVillagePieces.Village
         if (!(generationType instanceof VanillaGeneration))
             return;
 
-        VanillaGeneration vanillaGenInfo = (VanillaGeneration) generationType;
+        instanceData = prepareInstanceData(structure, environment(world, generationType));
 
-        instanceData = new StructureGenerator<>(structure).seed(seed).environment(environment(world, generationType)).transform(transform).boundingBox(boundingBox)
-                .instanceData().map(NBTStorable::writeToNBT).orElse(null);
+        // After loading, the start piece is gone, so rebuild as we would then
+        compactInstanceData = instanceData != null
+                ? CompactInstanceData.of(instanceData, prepareInstanceData(structure, environment(world, generationType, Environment.getBiome(world, boundingBox))))
+                : null;
+    }
+
+    protected void rebuild(WorldServer world, Structure<?> structure, GenerationType generationType)
+    {
+        NBTBase rebuilt = prepareInstanceData(structure, environment(world, generationType));
+        instanceData = rebuilt instanceof NBTTagCompound ? compactInstanceData.apply((NBTTagCompound) rebuilt) : null;
+
+        if (instanceData == null || !compactInstanceData.matches(instanceData))
+            RecurrentComplex.logger.warn(String.format("Rebuilt instance data of village piece '%s' at %s differs from the original", structureID, boundingBox));
     }
 
     @Override
@@ -179,12 +210,19 @@ public class GenericVillagePiece extends StructureVillagePieces.Village
     {
         if (!startedGeneration)
             prepare(world);
+        else if (instanceData == null && compactInstanceData != null)
+            rebuild(world, structure, generationType);
 
         boolean firstTime = !startedGeneration;
-        Optional<WorldStructureGenerationData.StructureEntry> entry = new StructureGenerator<>(structure).environment(environment(world, generationType))
+        StructureGenerator<T> generator = new StructureGenerator<>(structure).environment(environment(world, generationType))
                 .seed(seed).lowerCoord(StructureBoundingBoxes.min(boundingBox)).transform(transform).generationBB(StructureBoundingBoxes.wholeHeightBoundingBox(world, generationBB))
-                .generationLayer(componentType).structureID(structureID).maturity(firstTime ? StructureSpawnContext.GenerateMaturity.FIRST : StructureSpawnContext.GenerateMaturity.COMPLEMENT)
-                .instanceData(this.instanceData).generate();
+                .generationLayer(componentType).structureID(structureID).maturity(firstTime ? StructureSpawnContext.GenerateMaturity.FIRST : StructureSpawnContext.GenerateMaturity.COMPLEMENT);
+
+        // Loaded anew for every chunk, since generating may change it
+        if (instanceData != null)
+            generator.instanceData(instanceData);
+
+        Optional<WorldStructureGenerationData.StructureEntry> entry = generator.generate();
         entry.ifPresent(structureEntry -> structureEntry.setPreventComplementation(true));
 
         startedGeneration = true;
@@ -202,7 +240,9 @@ public class GenericVillagePiece extends StructureVillagePieces.Village
 
         compound.setLong("seed", seed);
         compound.setBoolean("RcStartGen", startedGeneration);
-        if (instanceData != null)
+        if (compactInstanceData != null)
+            compound.setTag("RcInstCmp", compactInstanceData.writeToNBT());
+        else if (instanceData != null)
             compound.setTag("RcInstDat", instanceData);
     }
 
@@ -221,5 +261,6 @@ public class GenericVillagePiece extends StructureVillagePieces.Village
 
         startedGeneration = compound.getBoolean("RcStartGen");
         instanceData = compound.hasKey("RcInstDat") ? compound.getTag("RcInstDat") : null;
+        compactInstanceData = compound.hasKey("RcInstCmp", Constants.NBT.TAG_COMPOUND) ? CompactInstanceData.readFromNBT(compound.getCompoundTag("RcInstCmp")) : null;
     }
 }
@@ -5,7 +5,6 @@
 
 package ivorius.reccomplex.world.gen.feature.villages;
 
-import ivorius.ivtoolkit.lang.IvClasses;
 import ivorius.reccomplex.RecurrentComplex;
 import net.minecraft.world.gen.structure.StructureVillagePieces;
 import org.objectweb.asm.ClassVisitor;
@@ -15,8 +14,6 @@ import org.objectweb.asm.Type;
 import org.objectweb.asm.util.CheckClassAdapter;
 
 import javax.annotation.Nullable;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -33,6 +30,7 @@ public class VanillaGenerationClassFactory extends ClassLoader
 
     protected Map<String, Class<?>> loaded = new HashMap<>();
     protected Set<String> failed = new HashSet<>();
+    protected Map<Class<?>, PieceFactory> factories = new HashMap<>();
 
     public VanillaGenerationClassFactory()
     {
@@ -47,31 +45,22 @@ public class VanillaGenerationClassFactory extends ClassLoader
     @Nullable
     public GenericVillagePiece create(String structureID, String generationID)
     {
-        Class<? extends GenericVillagePiece> aClass = getClass(structureID, generationID);
-
-        return aClass != null ? IvClasses.instantiate(aClass) : null;
+        PieceFactory factory = factory(structureID, generationID);
+        return factory != null ? factory.create() : null;
     }
 
     @Nullable
     public GenericVillagePiece create(String structureID, String generationID, StructureVillagePieces.Start start, int generationDepth)
     {
-        Class<? extends GenericVillagePiece> aClass = getClass(structureID, generationID);
-
-        if (aClass != null)
-        {
-            try
-            {
-                Constructor<? extends GenericVillagePiece> constructor;
-                constructor = aClass.getConstructor(StructureVillagePieces.Start.class, Integer.TYPE);
-                return constructor.newInstance(start, generationDepth);
-            }
-            catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | InstantiationException e)
-            {
-                e.printStackTrace();
-            }
-        }
+        PieceFactory factory = factory(structureID, generationID);
+        return factory != null ? factory.create(start, generationDepth) : null;
+    }
 
-        return null;
+    @Nullable
+    public PieceFactory factory(String structureID, String generationID)
+    {
+        Class<? extends GenericVillagePiece> aClass = getClass(structureID, generationID);
+        return aClass != null ? factories.computeIfAbsent(aClass, this::createFactory) : null;
     }
 
     public Class<? extends GenericVillagePiece> getClass(String structureID, String generationID)
@@ -130,6 +119,21 @@ public class VanillaGenerationClassFactory extends ClassLoader
         }
     }
 
+    @Nullable
+    protected PieceFactory createFactory(Class<?> pieceClass)
+    {
+        try
+        {
+            String className = pieceClass.getName() + "$Factory";
+            return (PieceFactory) define(className, createFactoryBinary(className.replaceAll("\\.", "/"), Type.getInternalName(pieceClass))).newInstance();
+        }
+        catch (Exception t)
+        {
+            RecurrentComplex.logger.error("Can't load dynamic piece factory class", t);
+            return null;
+        }
+    }
+
     protected String classNameForStructure(String structureID, String generationID)
     {
         return "ivorius.reccomplex.dynamic.vanillagen." + structureID + "_" + generationID;
@@ -171,4 +175,67 @@ public class VanillaGenerationClassFactory extends ClassLoader
 
         return writer.toByteArray();
     }
+
+    /**
+     * Calls the piece's constructors directly, rather than reflectively.
+     * The lambda metafactory can't do this, since its classes are defined in our parent loader, which can't see the pieces.
+     */
+    protected byte[] createFactoryBinary(String className, String pieceClassName)
+    {
+        ClassWriter writer = new ClassWriter(0);
+        ClassVisitor cw = new CheckClassAdapter(writer);
+        cw.visit(V1_5, ACC_PUBLIC, className, null, Type.getInternalName(Object.class), new String[]{Type.getInternalName(PieceFactory.class)});
+
+        {
+            // empty constructor
+            String descriptor = Type.getMethodDescriptor(Type.VOID_TYPE);
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", descriptor, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", descriptor, false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(1, 1);
+            mv.visitEnd();
+        }
+
+        {
+            // create()
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "create", Type.getMethodDescriptor(Type.getType(GenericVillagePiece.class)), null, null);
+            mv.visitCode();
+            mv.visitTypeInsn(NEW, pieceClassName);
+            mv.visitInsn(DUP);
+            mv.visitMethodInsn(INVOKESPECIAL, pieceClassName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), false);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(2, 1);
+            mv.visitEnd();
+        }
+
+        {
+            // create(start, generationDepth)
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "create", Type.getMethodDescriptor(Type.getType(GenericVillagePiece.class), Type.getType(StructureVillagePieces.Start.class), Type.INT_TYPE), null, null);
+            mv.visitCode();
+            mv.visitTypeInsn(NEW, pieceClassName);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitMethodInsn(INVOKESPECIAL, pieceClassName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(StructureVillagePieces.Start.class), Type.INT_TYPE), false);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(4, 3);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Implemented by a generated class per piece class, see {@link #createFactoryBinary(String, String)}.
+     */
+    public interface PieceFactory
+    {
+        GenericVillagePiece create();
+
+        GenericVillagePiece create(StructureVillagePieces.Start start, int generationDepth);
+    }
 }
@@ -246,7 +246,7 @@ public class WorldScriptMazeGenerator implements WorldScript<WorldScriptMazeGene
         final int[] outsideBoundsLower = IvVecMathHelper.sub(boundsLower, oneArray);
 
         List<MazeComponentStructure<Connector>> transformedComponents = MazeGeneration.structures(StructureRegistry.INSTANCE, mazeID)
-                .flatMap(pair -> pair.getLeft().declaredVariables().omega(environment, true)
+                .flatMap(pair -> pair.getLeft().declaredVariables().omega(environment, true, RCConfig.mazeVariableAssignments, random)
                         .flatMap(domain -> WorldGenMaze.transforms(pair.getLeft(), pair.getRight(), transform, factory, environment.copy(domain), blockedConnections))
                 )
                 .collect(Collectors.toList());
@@ -33,12 +33,14 @@ import net.minecraft.nbt.NBTTagList;
 import net.minecraft.nbt.NBTTagString;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
 import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -204,9 +206,9 @@ public class WorldScriptStructureGenerator implements WorldScript<WorldScriptStr
                     BlockPos strucCoord = transform.apply(structureShift, new int[]{1, 1, 1})
                             .subtract(transform.apply(BlockPos.ORIGIN, strucSize)).add(pos);
 
+                    StructureGenerator<?> generator = new StructureGenerator<>(structure).seed(random.nextLong()).environment(context.environment).transform(strucTransform).lowerCoord(strucCoord).asSource(context.generateAsSource);
                     instanceData = new WorldScriptStructureGenerator.InstanceData(structureID, null, strucCoord, strucTransform,
-                            new StructureGenerator<>(structure).seed(random.nextLong()).environment(context.environment).transform(strucTransform).lowerCoord(strucCoord).asSource(context.generateAsSource)
-                                    .instanceData().orElse(null));
+                            generator.instanceData().orElse(null), generator.extent().orElse(null));
                 }
             }
         }
@@ -243,9 +245,10 @@ public class WorldScriptStructureGenerator implements WorldScript<WorldScriptStr
                 BlockPos strucCoord = transform.apply(structureShift.add(generationInfo.shift), new int[]{1, 1, 1})
                         .subtract(transform.apply(BlockPos.ORIGIN, strucSize)).add(pos);
 
+                StructureGenerator<?> generator = new StructureGenerator<>(structure).seed(random.nextLong()).environment(context.environment).transform(strucTransform).asSource(context.generateAsSource)
+                        .lowerCoord(strucCoord);
                 instanceData = new WorldScriptStructureGenerator.InstanceData(structureID, generationInfo.id(), strucCoord, strucTransform,
-                        new StructureGenerator<>(structure).seed(random.nextLong()).environment(context.environment).transform(strucTransform).asSource(context.generateAsSource)
-                                .lowerCoord(strucCoord).instanceData().orElse(null));
+                        generator.instanceData().orElse(null), generator.extent().orElse(null));
             }
         }
 
@@ -266,6 +269,11 @@ public class WorldScriptStructureGenerator implements WorldScript<WorldScriptStr
         if (structure == null || !structureData.exists())
             return;
 
+        // Never skip on first time to get the entry added
+        StructureBoundingBox extent = structureData.getExtent();
+        if (!context.generateMaturity.isFirstTime() && context.generationBB != null && extent != null && !context.generationBB.intersectsWith(extent))
+            return;
+
         generate(context, instanceData, structure, structureData, instanceData.generationInfoID);
     }
 
@@ -306,13 +314,18 @@ public class WorldScriptStructureGenerator implements WorldScript<WorldScriptStr
         }
 
         public InstanceData(String structureID, String generationInfoID, BlockPos lowerCoord, AxisAlignedTransform2D structureTransform, NBTStorable structureData)
+        {
+            this(structureID, generationInfoID, lowerCoord, structureTransform, structureData, null);
+        }
+
+        public InstanceData(String structureID, String generationInfoID, BlockPos lowerCoord, AxisAlignedTransform2D structureTransform, NBTStorable structureData, @Nullable StructureBoundingBox extent)
         {
             this.structureID = structureID;
             this.generationInfoID = generationInfoID;
             this.lowerCoord = lowerCoord;
             this.structureTransform = structureTransform;
             //noinspection unchecked
-            ((ReadableInstanceData) this.structureData).setInstanceData(structureData);
+            ((ReadableInstanceData) this.structureData).setInstanceData(structureData, extent);
         }
 
         public InstanceData(NBTTagCompound compound)
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.storage;
+
+import ivorius.reccomplex.RCConfig;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.capability.RCEntityInfo;
+import ivorius.reccomplex.operation.IncrementalOperation;
+import ivorius.reccomplex.operation.Operation;
+import ivorius.reccomplex.operation.OperationPasteClipboard;
+import ivorius.reccomplex.operation.OperationScheduler;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.util.Constants;
+import org.apache.commons.io.FileUtils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A spilled clipboard is shared by the player who copied it and every paste made from it, so none of them can delete
+ * its folder on their own. Instead, folders that nothing refers to anymore are collected whenever one may have been let go.
+ */
+public class ClipboardDirectories
+{
+    @Nullable
+    public static String of(@Nullable Operation operation)
+    {
+        return operation instanceof OperationPasteClipboard ? ((OperationPasteClipboard) operation).clipboard.directoryName() : null;
+    }
+
+    /**
+     * @return The folders of all clipboards held by players, online or saved, and their previewed and scheduled operations.
+     */
+    public static Set<String> referenced(MinecraftServer server) throws IOException
+    {
+        Set<String> referenced = new HashSet<>();
+
+        for (WorldServer world : server.worlds)
+            for (IncrementalOperation operation : OperationScheduler.get(world).operations())
+                add(referenced, of(operation));
+
+        for (EntityPlayerMP player : server.getPlayerList().getPlayers())
+            add(referenced, RCEntityInfo.get(player, null));
+
+        // Players that are online were saved with an older state, which can only keep more folders
+        if (RCConfig.savePlayerCache)
+        {
+            File[] files = new File(server.getEntityWorld().getSaveHandler().getWorldDirectory(), "playerdata").listFiles((dir, name) -> name.endsWith(".dat"));
+            if (files != null)
+            {
+                for (File file : files)
+                    add(referenced, savedEntityInfo(file));
+            }
+        }
+
+        return referenced;
+    }
+
+    /**
+     * Deletes the folders of all clipboards that can't be pasted anymore.
+     * Keeps all of them if any player's saved data can't be read, since it might refer to any of them.
+     */
+    public static void deleteUnreferenced(MinecraftServer server)
+    {
+        File[] directories = new File(server.getEntityWorld().getSaveHandler().getWorldDirectory(), SectionClipboard.DIRECTORY).listFiles(File::isDirectory);
+        if (directories == null || directories.length == 0)
+            return;
+
+        Set<String> referenced;
+        try
+        {
+            referenced = referenced(server);
+        }
+        catch (IOException e)
+        {
+            RecurrentComplex.logger.warn("Could not read saved player data, keeping all clipboards", e);
+            return;
+        }
+
+        for (File directory : directories)
+        {
+            if (referenced.contains(directory.getName()))
+                continue;
+
+            try
+            {
+                FileUtils.deleteDirectory(directory);
+            }
+            catch (IOException e)
+            {
+                RecurrentComplex.logger.warn("Could not delete clipboard at " + directory, e);
+            }
+        }
+    }
+
+    @Nullable
+    protected static RCEntityInfo savedEntityInfo(File file) throws IOException
+    {
+        NBTTagCompound compound;
+        try (InputStream stream = new FileInputStream(file))
+        {
+            compound = CompressedStreamTools.readCompressed(stream);
+        }
+
+        NBTTagCompound capabilities = compound.getCompoundTag("ForgeCaps");
+        String key = new ResourceLocation(RecurrentComplex.MOD_ID, RCEntityInfo.CAPABILITY_KEY).toString();
+        if (!capabilities.hasKey(key, Constants.NBT.TAG_COMPOUND))
+            return null;
+
+        RCEntityInfo entityInfo = new RCEntityInfo();
+        entityInfo.readFromNBT(capabilities.getCompoundTag(key));
+        return entityInfo;
+    }
+
+    protected static void add(Set<String> referenced, @Nullable RCEntityInfo entityInfo)
+    {
+        if (entityInfo == null)
+            return;
+
+        if (entityInfo.getClipboard() != null)
+            add(referenced, entityInfo.getClipboard().directoryName());
+        add(referenced, of(entityInfo.danglingOperation));
+    }
+
+    protected static void add(Set<String> referenced, @Nullable String directoryName)
+    {
+        if (directoryName != null)
+            referenced.add(directoryName);
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.storage;
+
+import ivorius.ivtoolkit.blocks.BlockArea;
+import ivorius.ivtoolkit.blocks.IvBlockCollection;
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.ivtoolkit.tools.IvWorldData;
+import ivorius.ivtoolkit.tools.NBTCompoundObject;
+import ivorius.ivtoolkit.tools.NBTTagLists;
+import ivorius.ivtoolkit.transform.Movable;
+import ivorius.ivtoolkit.world.MockWorld;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.files.loading.ResourceDirectory;
+import ivorius.reccomplex.temp.RCMover;
+import ivorius.reccomplex.utils.RCAxisAlignedTransform;
+import ivorius.reccomplex.world.gen.feature.structure.Structures;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagDouble;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * A clipboard captured one 16x16x16 chunk section at a time, so neither copying nor pasting ever needs the
+ * whole area in memory at once.
+ * Sections are spilled to the world folder as they are captured, if a directory is given.
+ */
+public class SectionClipboard implements NBTCompoundObject
+{
+    public static final int SECTION_SIZE = 16;
+    public static final String DIRECTORY = "reccomplex-clipboard";
+
+    protected int[] size = {0, 0, 0};
+    protected final List<Section> sections = new ArrayList<>();
+
+    /**
+     * Name of the folder the sections are spilled to, relative to the world save's clipboard directory.
+     * Stored relative so that copies of the world don't refer to the original's folder.
+     */
+    @Nullable
+    protected String directoryName;
+
+    /**
+     * Where the folder is, if not in the world save. Not saved.
+     */
+    @Nullable
+    protected File baseDirectory;
+
+    public SectionClipboard()
+    {
+    }
+
+    /**
+     * Wraps an old style clipboard, captured in one piece.
+     */
+    public static SectionClipboard of(NBTTagCompound worldData)
+    {
+        SectionClipboard clipboard = new SectionClipboard();
+        clipboard.size = Structures.size(worldData, new int[]{0, 0, 0});
+        clipboard.sections.add(new Section(BlockPos.ORIGIN, clipboard.size, worldData, null));
+        return clipboard;
+    }
+
+    public static String newDirectoryName()
+    {
+        return UUID.randomUUID().toString();
+    }
+
+    public static SectionClipboard capture(MockWorld world, BlockArea area, @Nullable String directoryName) throws IOException
+    {
+        return capture(world, area, null, directoryName);
+    }
+
+    /**
+     * @param baseDirectory Where to spill the sections to instead of the world save, e.g. without a server.
+     */
+    public static SectionClipboard capture(MockWorld world, BlockArea area, @Nullable File baseDirectory, @Nullable String directoryName) throws IOException
+    {
+        SectionClipboard clipboard = new SectionClipboard();
+        clipboard.directoryName = directoryName;
+        clipboard.baseDirectory = baseDirectory;
+        File directory = clipboard.directory();
+
+        BlockPos lower = area.getLowerCorner();
+        BlockPos higher = area.getHigherCorner();
+        clipboard.size = area.areaSize();
+
+        if (directory != null && !directory.mkdirs() && !directory.isDirectory())
+            throw new IOException("Could not create clipboard directory " + directory);
+
+        // Entities overlapping several sections would be captured once per section
+        Set<UUID> capturedEntities = new HashSet<>();
+
+        for (int sectionX = lower.getX() >> 4; sectionX <= higher.getX() >> 4; sectionX++)
+        {
+            for (int sectionY = lower.getY() >> 4; sectionY <= higher.getY() >> 4; sectionY++)
+            {
+                for (int sectionZ = lower.getZ() >> 4; sectionZ <= higher.getZ() >> 4; sectionZ++)
+                {
+                    BlockPos sectionLower = new BlockPos(Math.max(sectionX << 4, lower.getX()), Math.max(sectionY << 4, lower.getY()), Math.max(sectionZ << 4, lower.getZ()));
+                    BlockPos sectionHigher = new BlockPos(Math.min((sectionX << 4) + SECTION_SIZE - 1, higher.getX()), Math.min((sectionY << 4) + SECTION_SIZE - 1, higher.getY()), Math.min((sectionZ << 4) + SECTION_SIZE - 1, higher.getZ()));
+                    BlockArea sectionArea = new BlockArea(sectionLower, sectionHigher);
+
+                    IvWorldData worldData = IvWorldData.capture(world, sectionArea, true);
+                    worldData.entities.removeIf(entity -> entity.hasUniqueId("UUID") && !capturedEntities.add(entity.getUniqueId("UUID")));
+
+                    clipboard.add(sectionLower.subtract(lower), sectionArea.areaSize(), worldData.createTagCompound());
+                }
+            }
+        }
+
+        return clipboard;
+    }
+
+    @Nullable
+    protected File directory()
+    {
+        if (directoryName == null)
+            return null;
+
+        return new File(baseDirectory != null ? baseDirectory : new File(ResourceDirectory.getServerDirectory(), DIRECTORY), directoryName);
+    }
+
+    /**
+     * @return The folder's name, or null if the sections are kept in memory.
+     * @see ClipboardDirectories
+     */
+    @Nullable
+    public String directoryName()
+    {
+        return directoryName;
+    }
+
+    protected void add(BlockPos offset, int[] size, NBTTagCompound worldData) throws IOException
+    {
+        File directory = directory();
+        if (directory != null)
+        {
+            String file = String.format("section_%d.nbt", sections.size());
+            try (OutputStream stream = new FileOutputStream(new File(directory, file)))
+            {
+                CompressedStreamTools.writeCompressed(worldData, stream);
+            }
+            sections.add(new Section(offset, size, null, file));
+        }
+        else
+            sections.add(new Section(offset, size, worldData, null));
+    }
+
+    public int[] size()
+    {
+        return size.clone();
+    }
+
+    public int sectionCount()
+    {
+        return sections.size();
+    }
+
+    public Section section(int index)
+    {
+        return sections.get(index);
+    }
+
+    /**
+     * @return Whether all spilled sections can still be read.
+     */
+    public boolean exists()
+    {
+        File directory = sections.stream().anyMatch(section -> section.file != null) ? directory() : null;
+        return sections.stream().allMatch(section -> section.file == null || (directory != null && new File(directory, section.file).isFile()));
+    }
+
+    @Nonnull
+    public NBTTagCompound load(Section section) throws IOException
+    {
+        if (section.worldData != null)
+            return section.worldData;
+
+        File directory = directory();
+        if (directory == null)
+            throw new FileNotFoundException(section.file);
+
+        try (InputStream stream = new FileInputStream(new File(directory, section.file)))
+        {
+            return CompressedStreamTools.readCompressed(stream);
+        }
+    }
+
+    /**
+     * Loads all sections, merged back into one piece.
+     */
+    @Nonnull
+    public NBTTagCompound loadAll(World world) throws IOException
+    {
+        if (sections.size() == 1 && sections.get(0).offset.equals(BlockPos.ORIGIN))
+            return load(sections.get(0));
+
+        IvWorldData merged = new IvWorldData(new IvBlockCollection(size[0], size[1], size[2]), new ArrayList<>(), new ArrayList<>());
+
+        for (Section section : sections)
+        {
+            IvWorldData worldData = new IvWorldData(load(section), RecurrentComplex.specialRegistry.itemHidingMode());
+            BlockPos offset = section.offset;
+
+            for (BlockPos pos : worldData.blockCollection.area())
+                merged.blockCollection.setBlockState(pos.add(offset), worldData.blockCollection.getBlockState(pos));
+
+            for (NBTTagCompound tileEntityCompound : worldData.tileEntities)
+            {
+                tileEntityCompound = RCMover.setTileEntityPos(tileEntityCompound, RCMover.getTileEntityPos(tileEntityCompound).add(offset));
+
+                TileEntity tileEntity = RecurrentComplex.specialRegistry.loadTileEntity(world, tileEntityCompound);
+                if (tileEntity instanceof Movable)
+                {
+                    RCMover.moveAdditionalData(tileEntity, offset);
+                    tileEntityCompound = tileEntity.writeToNBT(new NBTTagCompound());
+                }
+
+                merged.tileEntities.add(tileEntityCompound);
+            }
+
+            for (NBTTagCompound entityCompound : worldData.entities)
+                merged.entities.add(moveEntity(entityCompound, offset));
+        }
+
+        return merged.createTagCompound();
+    }
+
+    protected static NBTTagCompound moveEntity(NBTTagCompound entityCompound, BlockPos offset)
+    {
+        NBTTagCompound compound = entityCompound.copy();
+
+        NBTTagList pos = compound.getTagList("Pos", Constants.NBT.TAG_DOUBLE);
+        NBTTagList movedPos = new NBTTagList();
+        movedPos.appendTag(new NBTTagDouble(pos.getDoubleAt(0) + offset.getX()));
+        movedPos.appendTag(new NBTTagDouble(pos.getDoubleAt(1) + offset.getY()));
+        movedPos.appendTag(new NBTTagDouble(pos.getDoubleAt(2) + offset.getZ()));
+        compound.setTag("Pos", movedPos);
+
+        // Hanging entities
+        if (compound.hasKey("TileX", Constants.NBT.TAG_INT))
+        {
+            compound.setInteger("TileX", compound.getInteger("TileX") + offset.getX());
+            compound.setInteger("TileY", compound.getInteger("TileY") + offset.getY());
+            compound.setInteger("TileZ", compound.getInteger("TileZ") + offset.getZ());
+        }
+
+        return compound;
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound compound)
+    {
+        size = compound.getIntArray("size");
+        if (size.length != 3)
+            size = new int[]{0, 0, 0};
+
+        directoryName = compound.hasKey("directory", Constants.NBT.TAG_STRING) ? compound.getString("directory") : null;
+
+        sections.clear();
+        NBTTagLists.compoundsFrom(compound, "sections").stream().map(Section::new).forEach(sections::add);
+    }
+
+    @Override
+    public void writeToNBT(NBTTagCompound compound)
+    {
+        compound.setIntArray("size", size);
+
+        if (directoryName != null)
+            compound.setString("directory", directoryName);
+
+        NBTTagLists.writeTo(compound, "sections", sections.stream().map(Section::writeToNBT).collect(Collectors.toList()));
+    }
+
+    public static class Section
+    {
+        public final BlockPos offset;
+        public final int[] size;
+
+        @Nullable
+        protected final NBTTagCompound worldData;
+        @Nullable
+        protected final String file;
+
+        public Section(BlockPos offset, int[] size, @Nullable NBTTagCompound worldData, @Nullable String file)
+        {
+            this.offset = offset;
+            this.size = size;
+            this.worldData = worldData;
+            this.file = file;
+        }
+
+        public Section(NBTTagCompound compound)
+        {
+            int[] offset = compound.getIntArray("offset");
+            this.offset = offset.length == 3 ? new BlockPos(offset[0], offset[1], offset[2]) : BlockPos.ORIGIN;
+            this.size = compound.getIntArray("size");
+            this.worldData = compound.hasKey("worldData", Constants.NBT.TAG_COMPOUND) ? compound.getCompoundTag("worldData") : null;
+            this.file = compound.hasKey("file", Constants.NBT.TAG_STRING) ? compound.getString("file") : null;
+        }
+
+        /**
+         * @return Where the section lands when the whole clipboard is pasted at the origin with the transform.
+         */
+        public BlockPos lowerCoord(AxisAlignedTransform2D transform, int[] clipboardSize)
+        {
+            BlockPos higher = offset.add(size[0] - 1, size[1] - 1, size[2] - 1);
+
+            BlockPos.MutableBlockPos first = RCAxisAlignedTransform.apply(offset, new BlockPos.MutableBlockPos(), clipboardSize, transform);
+            BlockPos.MutableBlockPos second = RCAxisAlignedTransform.apply(higher, new BlockPos.MutableBlockPos(), clipboardSize, transform);
+
+            return new BlockPos(Math.min(first.getX(), second.getX()), Math.min(first.getY(), second.getY()), Math.min(first.getZ(), second.getZ()));
+        }
+
+        public NBTTagCompound writeToNBT()
+        {
+            NBTTagCompound compound = new NBTTagCompound();
+
+            compound.setIntArray("offset", new int[]{offset.getX(), offset.getY(), offset.getZ()});
+            compound.setIntArray("size", size);
+            if (worldData != null)
+                compound.setTag("worldData", worldData);
+            if (file != null)
+                compound.setString("file", file);
+
+            return compound;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.client.rendering;
+
+import net.minecraft.util.EnumFacing;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Quad counts and closed surfaces, which is why the mesher stays clear of GL.
+ */
+public class GreedyMesherTest
+{
+    private static void assertWatertight(GreedyMesher.Mesh mesh)
+    {
+        for (EnumFacing direction : EnumFacing.VALUES)
+            assertEquals(direction.toString(), mesh.area(direction), mesh.area(direction.getOpposite()), 0);
+    }
+
+    private static float surfaceArea(GreedyMesher.Mesh mesh)
+    {
+        float area = 0;
+        for (EnumFacing direction : EnumFacing.VALUES)
+            area += mesh.area(direction);
+        return area;
+    }
+
+    @Test
+    public void singleCell()
+    {
+        GreedyMesher.Mesh mesh = GreedyMesher.mesh(new int[]{1, 1, 1}, (x, y, z) -> true);
+
+        assertEquals(6, mesh.quadCount());
+        assertEquals(6, surfaceArea(mesh), 0);
+        assertWatertight(mesh);
+    }
+
+    @Test
+    public void solidBoxIsOneQuadPerSide()
+    {
+        GreedyMesher.Mesh mesh = GreedyMesher.mesh(new int[]{5, 3, 7}, (x, y, z) -> true);
+
+        assertEquals(6, mesh.quadCount());
+        assertEquals(2 * (5 * 3 + 3 * 7 + 5 * 7), surfaceArea(mesh), 0);
+        assertWatertight(mesh);
+    }
+
+    @Test
+    public void quadsSpanTheirCells()
+    {
+        GreedyMesher.Mesh mesh = GreedyMesher.mesh(new int[]{3, 4, 5}, (x, y, z) -> x == 1);
+
+        for (int quad = 0; quad < mesh.quadCount(); quad++)
+        {
+            EnumFacing direction = mesh.direction(quad);
+            if (direction == EnumFacing.WEST)
+                assertEquals(1, mesh.get(quad, 1), 0);
+            if (direction == EnumFacing.EAST)
+                assertEquals(2, mesh.get(quad, 1), 0);
+        }
+        assertEquals(6, mesh.quadCount());
+    }
+
+    @Test
+    public void separateCellsDontMerge()
+    {
+        GreedyMesher.Mesh mesh = GreedyMesher.mesh(new int[]{3, 1, 1}, (x, y, z) -> x != 1);
+
+        assertEquals(12, mesh.quadCount());
+        assertEquals(12, surfaceArea(mesh), 0);
+        assertWatertight(mesh);
+    }
+
+    @Test
+    public void emptyHasNoQuads()
+    {
+        GreedyMesher.Mesh mesh = GreedyMesher.mesh(new int[]{4, 4, 4}, (x, y, z) -> false);
+
+        assertEquals(0, mesh.quadCount());
+    }
+
+    @Test
+    public void lShape()
+    {
+        GreedyMesher.Mesh mesh = GreedyMesher.mesh(new int[]{2, 2, 1}, (x, y, z) -> x == 0 || y == 0);
+
+        // Three cells with two shared sides: 18 - 2 * 2 faces
+        assertEquals(14, surfaceArea(mesh), 0);
+        assertEquals(10, mesh.quadCount());
+        assertWatertight(mesh);
+    }
+
+    @Test
+    public void randomOccupancyIsWatertight()
+    {
+        int[] size = {16, 12, 9};
+        boolean[] occupied = new boolean[size[0] * size[1] * size[2]];
+        Random random = new Random(0);
+        for (int i = 0; i < occupied.length; i++)
+            occupied[i] = random.nextFloat() < 0.4f;
+
+        GreedyMesher.Mesh mesh = GreedyMesher.mesh(size, (x, y, z) -> occupied[x + size[0] * (y + size[1] * z)]);
+
+        int faces = 0;
+        for (int z = 0; z < size[2]; z++)
+            for (int y = 0; y < size[1]; y++)
+                for (int x = 0; x < size[0]; x++)
+                {
+                    if (!occupied[x + size[0] * (y + size[1] * z)])
+                        continue;
+
+                    for (EnumFacing direction : EnumFacing.VALUES)
+                    {
+                        int nx = x + direction.getFrontOffsetX(), ny = y + direction.getFrontOffsetY(), nz = z + direction.getFrontOffsetZ();
+                        if (nx < 0 || ny < 0 || nz < 0 || nx >= size[0] || ny >= size[1] || nz >= size[2]
+                                || !occupied[nx + size[0] * (ny + size[1] * nz)])
+                            faces++;
+                    }
+                }
+
+        assertEquals(faces, surfaceArea(mesh), 0);
+        assertWatertight(mesh);
+    }
+
+    @Test
+    public void meshesGivenFaces()
+    {
+        // Only the top of a 4x4 floor, like a selection seen from above
+        GreedyMesher.Mesh mesh = GreedyMesher.mesh(new int[]{4, 1, 4}, (x, y, z, direction) -> direction == EnumFacing.UP);
+
+        assertEquals(1, mesh.quadCount());
+        assertEquals(EnumFacing.UP, mesh.direction(0));
+        assertEquals(16, mesh.area(EnumFacing.UP), 0);
+        assertEquals(1, mesh.get(0, 2), 0);
+        assertEquals(1, mesh.get(0, 5), 0);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.files.loading;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link FileLoader#tryLoadChanges} against a full reload, over two folders that may provide the same ids.
+ */
+public class FileLoaderChangesTest
+{
+    private static final LeveledRegistry.Level LEVEL = LeveledRegistry.Level.CUSTOM;
+    private static final FileLoadContext CONTEXT = new FileLoadContext("test", true, LEVEL);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    protected FileLoader loader;
+    protected RecordingAdapter adapter;
+    protected Path first, second;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        loader = new FileLoader();
+        loader.register(adapter = new RecordingAdapter());
+
+        first = folder.newFolder("first").toPath();
+        second = folder.newFolder("second").toPath();
+
+        write(first, "a", "a1");
+        write(first, "b", "b1");
+        write(second, "b", "b2");
+
+        loader.tryLoadAll(first, CONTEXT);
+        loader.tryLoadAll(second, CONTEXT);
+        adapter.events.clear();
+    }
+
+    protected static Path write(Path folder, String id, String content) throws IOException
+    {
+        return Files.write(folder.resolve(id + ".txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void touch(Path path) throws IOException
+    {
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 10000));
+    }
+
+    protected int loadChanges()
+    {
+        return loader.tryLoadChanges(Arrays.asList(Pair.of(first, CONTEXT), Pair.of(second, CONTEXT)), LEVEL);
+    }
+
+    @Test
+    public void nothingChanged()
+    {
+        assertEquals(0, loadChanges());
+        assertEquals(Collections.emptyList(), adapter.events);
+    }
+
+    @Test
+    public void touchedAfterFullLoad() throws IOException
+    {
+        touch(first.resolve("a.txt"));
+
+        assertEquals(0, loadChanges());
+        assertEquals(Collections.emptyList(), adapter.events);
+    }
+
+    @Test
+    public void changed() throws IOException
+    {
+        touch(write(first, "a", "a one"));
+
+        assertEquals(1, loadChanges());
+        assertEquals(Arrays.asList("unload a", "load a a one"), adapter.events);
+    }
+
+    @Test
+    public void changedIdProvidedTwiceReloadsBothInOrder() throws IOException
+    {
+        touch(write(second, "b", "b two"));
+
+        assertEquals(1, loadChanges());
+        assertEquals(Arrays.asList("unload b", "load b b1", "load b b two"), adapter.events);
+    }
+
+    @Test
+    public void added() throws IOException
+    {
+        write(second, "c", "c2");
+
+        assertEquals(1, loadChanges());
+        assertEquals(Arrays.asList("unload c", "load c c2"), adapter.events);
+    }
+
+    @Test
+    public void removed() throws IOException
+    {
+        Files.delete(first.resolve("b.txt"));
+
+        assertEquals(1, loadChanges());
+        assertEquals(Arrays.asList("unload b", "load b b2"), adapter.events);
+    }
+
+    @Test
+    public void changesAreRememberedForTheNextCheck() throws IOException
+    {
+        touch(write(first, "a", "a one"));
+        loadChanges();
+        adapter.events.clear();
+
+        touch(first.resolve("a.txt"));
+
+        assertEquals(0, loadChanges());
+        assertEquals(Collections.emptyList(), adapter.events);
+    }
+
+    @ParametersAreNonnullByDefault
+    protected static class RecordingAdapter extends FileLoaderAdapter
+    {
+        public final List<String> events = new ArrayList<>();
+
+        public RecordingAdapter()
+        {
+            super("txt");
+        }
+
+        @Override
+        protected boolean loadFile(Path path, String id, FileLoadContext context) throws Exception
+        {
+            events.add("load " + id + " " + new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            return true;
+        }
+
+        @Override
+        void clearFiles(LeveledRegistry.Level level)
+        {
+            events.add("clear");
+        }
+
+        @Override
+        void unloadFile(String id, LeveledRegistry.Level level)
+        {
+            events.add("unload " + id);
+        }
+    }
+}
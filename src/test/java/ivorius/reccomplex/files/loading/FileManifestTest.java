@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.files.loading;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+public class FileManifestTest
+{
+    private static final FileLoadContext ACTIVE = new FileLoadContext("test", true, LeveledRegistry.Level.CUSTOM);
+    private static final FileLoadContext INACTIVE = new FileLoadContext("test", false, LeveledRegistry.Level.CUSTOM);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    protected Path write(String name, String content) throws IOException
+    {
+        return Files.write(folder.getRoot().toPath().resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void touch(Path path) throws IOException
+    {
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 10000));
+    }
+
+    @Test
+    public void hashesOnFirstRecord() throws IOException
+    {
+        Path path = write("a.txt", "content");
+
+        FileManifest.Entry entry = new FileManifest().record(path, ACTIVE, null);
+
+        assertNotNull(entry.hash);
+        assertEquals(Files.size(path), entry.size);
+    }
+
+    @Test
+    public void keepsHashForSameStats() throws IOException
+    {
+        Path path = write("a.txt", "content");
+        FileManifest.Entry previous = new FileManifest().record(path, ACTIVE, null);
+
+        FileManifest.Entry current = new FileManifest().record(path, ACTIVE, previous);
+
+        assertSame(previous.hash, current.hash);
+        assertTrue(current.isUnchanged(previous));
+    }
+
+    @Test
+    public void touchedFileIsUnchanged() throws IOException
+    {
+        Path path = write("a.txt", "content");
+        FileManifest.Entry previous = new FileManifest().record(path, ACTIVE, null);
+
+        touch(path);
+        FileManifest.Entry current = new FileManifest().record(path, ACTIVE, previous);
+
+        assertNotEquals(previous.lastModified, current.lastModified);
+        assertTrue(current.isUnchanged(previous));
+    }
+
+    @Test
+    public void rewrittenFileOfSameSizeIsChanged() throws IOException
+    {
+        Path path = write("a.txt", "content");
+        FileManifest.Entry previous = new FileManifest().record(path, ACTIVE, null);
+
+        write("a.txt", "CONTENT");
+        touch(path);
+        FileManifest.Entry current = new FileManifest().record(path, ACTIVE, previous);
+
+        assertEquals(previous.size, current.size);
+        assertFalse(current.isUnchanged(previous));
+    }
+
+    @Test
+    public void deactivatedFileIsChanged() throws IOException
+    {
+        Path path = write("a.txt", "content");
+        FileManifest.Entry previous = new FileManifest().record(path, ACTIVE, null);
+
+        FileManifest.Entry current = new FileManifest().record(path, INACTIVE, previous);
+
+        assertFalse(current.isUnchanged(previous));
+    }
+
+    @Test
+    public void removesBySuffix() throws IOException
+    {
+        FileManifest manifest = new FileManifest();
+        Path a = write("a.txt", "a"), b = write("b.json", "b");
+        manifest.record(a, ACTIVE, null);
+        manifest.record(b, ACTIVE, null);
+
+        manifest.removeSuffix("txt");
+
+        assertNull(manifest.get(a));
+        assertNotNull(manifest.get(b));
+    }
+}
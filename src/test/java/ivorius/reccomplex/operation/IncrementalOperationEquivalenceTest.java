@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.operation;
+
+import ivorius.ivtoolkit.blocks.BlockArea;
+import ivorius.ivtoolkit.blocks.IvBlockCollection;
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.reccomplex.benchmark.HeadlessWorld;
+import ivorius.reccomplex.benchmark.NoiseTerrain;
+import ivorius.reccomplex.benchmark.SyntheticStructures;
+import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import ivorius.reccomplex.world.gen.feature.structure.schematics.SchematicFile;
+import net.minecraft.block.Block;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldServer;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Operations stepped with a tiny budget against the same operations performed in one go, each at its own copy of the terrain.
+ */
+public class IncrementalOperationEquivalenceTest
+{
+    private static final int[] SIZE = {40, 24, 40};
+    // Reaches past everything placed at the copy and the transformers' effects around it
+    private static final int[] EXTENT = {SIZE[0] * 2 + 16, SIZE[1] * 2 + 16, SIZE[2] * 2 + 16};
+    private static final int MARGIN = 16;
+    // Every copy lies on the terrain's period, far from the others
+    private static final int SPACING = 1024;
+
+    private static WorldServer world;
+    private static int nextCopy;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        world = HeadlessWorld.get();
+        assertEquals(0, SPACING % HeadlessWorld.TERRAIN.size[0]);
+    }
+
+    protected static BlockPos nextCopy()
+    {
+        return new BlockPos(65536 + SPACING * nextCopy++, NoiseTerrain.SEA_LEVEL - 8, 0);
+    }
+
+    protected static int stepUntilDone(IncrementalOperation operation)
+    {
+        int steps = 0;
+
+        operation.begin(world);
+        while (!operation.isDone())
+        {
+            operation.step(world, 0);
+            steps++;
+        }
+
+        return steps;
+    }
+
+    /**
+     * Performs the operation once in one go and once stepped, as well as leaving a third copy of the terrain untouched.
+     */
+    protected static void assertEquivalent(Function<BlockPos, IncrementalOperation> operation)
+    {
+        BlockPos performed = nextCopy(), stepped = nextCopy(), untouched = nextCopy();
+
+        operation.apply(performed).perform(world);
+        int steps = stepUntilDone(operation.apply(stepped));
+
+        assertTrue(steps > 1);
+
+        boolean changed = false;
+        BlockPos lower = new BlockPos(-MARGIN, -performed.getY(), -MARGIN);
+        BlockPos higher = new BlockPos(EXTENT[0], EXTENT[1], EXTENT[2]);
+        for (BlockPos pos : BlockPos.getAllInBoxMutable(lower, higher))
+        {
+            int state = Block.getStateId(world.getBlockState(performed.add(pos)));
+
+            assertEquals(pos.toString(), state, Block.getStateId(world.getBlockState(stepped.add(pos))));
+            changed |= state != Block.getStateId(world.getBlockState(untouched.add(pos)));
+        }
+
+        assertTrue(changed);
+    }
+
+    protected static BlockArea area(BlockPos lowerCoord)
+    {
+        return new BlockArea(lowerCoord, lowerCoord.add(SIZE[0] - 1, SIZE[1] - 1, SIZE[2] - 1));
+    }
+
+    protected static SchematicFile schematic()
+    {
+        IvBlockCollection blocks = SyntheticStructures.worldData(0, SIZE).blockCollection;
+
+        SchematicFile file = new SchematicFile((short) SIZE[0], (short) SIZE[1], (short) SIZE[2]);
+        for (BlockPos pos : blocks.area())
+            file.setBlockState(pos, blocks.getBlockState(pos));
+        return file;
+    }
+
+    protected static OperationGenerateStructure structure(BlockPos lowerCoord)
+    {
+        GenericStructure structure = SyntheticStructures.structure(0, SIZE);
+        return new OperationGenerateStructure(structure, null, AxisAlignedTransform2D.ORIGINAL, lowerCoord, false)
+                .withSeed("equivalence").prepare(world);
+    }
+
+    @Test
+    public void clearsTheSame()
+    {
+        assertEquivalent(lowerCoord -> new OperationClearArea(area(lowerCoord)));
+    }
+
+    @Test
+    public void generatesSchematicsTheSame()
+    {
+        SchematicFile file = schematic();
+        assertEquivalent(lowerCoord -> new OperationGenerateSchematic(file, AxisAlignedTransform2D.from(1, false), lowerCoord));
+    }
+
+    @Test
+    public void generatesStructuresTheSame()
+    {
+        assertEquivalent(IncrementalOperationEquivalenceTest::structure);
+    }
+
+    @Test
+    public void generatesStructuresAsSourceTheSame()
+    {
+        GenericStructure structure = SyntheticStructures.structure(0, SIZE);
+        assertEquivalent(lowerCoord -> new OperationGenerateStructure(structure, null, AxisAlignedTransform2D.ORIGINAL, lowerCoord, true)
+                .withSeed("equivalence").prepare(world));
+    }
+
+    @Test
+    public void performsMultipleTheSame()
+    {
+        SchematicFile file = schematic();
+        assertEquivalent(lowerCoord -> new OperationMulti(
+                new OperationClearArea(area(lowerCoord)),
+                new OperationGenerateSchematic(file, AxisAlignedTransform2D.ORIGINAL, lowerCoord.add(4, 4, 4)),
+                structure(lowerCoord.add(SIZE[0] / 2, 0, SIZE[2] / 2))
+        ));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.operation;
+
+import ivorius.ivtoolkit.blocks.BlockArea;
+import ivorius.ivtoolkit.blocks.IvBlockCollection;
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.ivtoolkit.tools.IvWorldData;
+import ivorius.ivtoolkit.world.MockWorld;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.benchmark.HeadlessWorld;
+import ivorius.reccomplex.benchmark.SyntheticStructures;
+import ivorius.reccomplex.world.storage.SectionClipboard;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldServer;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pasting a clipboard that is spilled to disk, under the heap cap of the test task.
+ */
+public class OperationPasteClipboardTest
+{
+    private static final long HEAP_CAP = 1L << 30;
+    private static final int[] SIZE = {256, 128, 256};
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static WorldServer world;
+    private static SectionClipboard clipboard;
+
+    @BeforeClass
+    public static void setUp() throws IOException
+    {
+        world = HeadlessWorld.get();
+
+        // Only the sections are kept once captured
+        MockWorld source = new MockWorld.WorldData(SyntheticStructures.worldData(0, SIZE));
+        clipboard = SectionClipboard.capture(source, new BlockArea(BlockPos.ORIGIN, new BlockPos(SIZE[0] - 1, SIZE[1] - 1, SIZE[2] - 1)),
+                folder.getRoot(), SectionClipboard.newDirectoryName());
+    }
+
+    protected static int paste(OperationPasteClipboard operation)
+    {
+        int steps = 0;
+
+        operation.begin(world);
+        while (!operation.isDone())
+        {
+            operation.step(world, TimeUnit.MILLISECONDS.toNanos(1));
+            steps++;
+        }
+
+        return steps;
+    }
+
+    protected static void assertPasted(BlockPos lowerCoord) throws IOException
+    {
+        for (int i = 0; i < clipboard.sectionCount(); i++)
+        {
+            SectionClipboard.Section section = clipboard.section(i);
+            IvBlockCollection blocks = new IvWorldData(clipboard.load(section), RecurrentComplex.specialRegistry.itemHidingMode()).blockCollection;
+
+            for (BlockPos pos : blocks.area())
+                assertEquals(pos.add(section.offset).toString(), blocks.getBlockState(pos), world.getBlockState(lowerCoord.add(section.offset).add(pos)));
+        }
+    }
+
+    @Test
+    public void runsUnderTheHeapCap()
+    {
+        assertTrue(Runtime.getRuntime().maxMemory() <= HEAP_CAP);
+    }
+
+    @Test
+    public void pastesAsSourceSectionBySection() throws IOException
+    {
+        BlockPos lowerCoord = new BlockPos(4096, 0, 0);
+
+        int steps = paste(new OperationPasteClipboard(clipboard, AxisAlignedTransform2D.ORIGINAL, lowerCoord, true));
+
+        assertTrue(steps > 1);
+        assertPasted(lowerCoord);
+    }
+
+    @Test
+    public void pastesMergedChunkByChunk() throws IOException
+    {
+        BlockPos lowerCoord = new BlockPos(8192, 0, 0);
+
+        int steps = paste(new OperationPasteClipboard(clipboard, AxisAlignedTransform2D.ORIGINAL, lowerCoord, false));
+
+        // One chunk per step at the least
+        assertTrue(steps > 1);
+        assertPasted(lowerCoord);
+    }
+
+    @Test
+    public void resumesMergedPasteAfterSaving() throws IOException
+    {
+        BlockPos lowerCoord = new BlockPos(12288, 0, 0);
+        OperationPasteClipboard operation = new OperationPasteClipboard(clipboard, AxisAlignedTransform2D.ORIGINAL, lowerCoord, false);
+
+        operation.begin(world);
+        operation.step(world, 0);
+
+        OperationPasteClipboard loaded = (OperationPasteClipboard) OperationRegistry.readOperation(OperationRegistry.writeOperation(operation));
+        loaded.clipboard = clipboard; // The saved clipboard looks in the world save
+        while (!loaded.isDone())
+            loaded.step(world, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertPasted(lowerCoord);
+    }
+}
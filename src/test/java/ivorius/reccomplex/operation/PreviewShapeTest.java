@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.operation;
+
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.ivtoolkit.tools.IvWorldData;
+import ivorius.reccomplex.benchmark.Headless;
+import ivorius.reccomplex.benchmark.SyntheticStructures;
+import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Level of detail previews of a structure much too big to send to clients whole.
+ */
+public class PreviewShapeTest
+{
+    private static final int[] SIZE = {200, 100, 200};
+
+    private static IvWorldData worldData;
+    private static GenericStructure structure;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        Headless.init();
+
+        worldData = SyntheticStructures.worldData(0, SIZE);
+        structure = new GenericStructure();
+        structure.worldDataCompound = worldData.createTagCompound();
+
+        // Built once per structure, so time the encoding without it
+        PreviewShape.of(structure);
+    }
+
+    @Test
+    public void levelsCoverTheStructure()
+    {
+        PreviewShape shape = new PreviewShape(worldData.blockCollection);
+
+        assertArrayEquals(SIZE, shape.cells(0));
+        for (int level = 0; level < shape.levels(); level++)
+        {
+            int[] cells = shape.cells(level);
+            for (int axis = 0; axis < 3; axis++)
+            {
+                assertTrue(cells[axis] << level >= SIZE[axis]);
+                assertTrue((cells[axis] - 1) << level < SIZE[axis]);
+            }
+            assertEquals((cells[0] * cells[1] * cells[2] + 7) / 8, shape.byteSize(level));
+        }
+
+        int[] coarsest = shape.cells(shape.levels() - 1);
+        assertEquals(1, coarsest[0] * coarsest[1] * coarsest[2]);
+    }
+
+    @Test
+    public void coarserLevelsContainFinerOnes()
+    {
+        PreviewShape shape = new PreviewShape(worldData.blockCollection);
+
+        for (int level = 1; level < shape.levels(); level++)
+        {
+            int[] finerCells = shape.cells(level - 1), cells = shape.cells(level);
+            BitSet finer = shape.occupancy(level - 1), coarser = shape.occupancy(level);
+
+            for (int i = finer.nextSetBit(0); i >= 0; i = finer.nextSetBit(i + 1))
+            {
+                int x = i % finerCells[0], y = (i / finerCells[0]) % finerCells[1], z = i / (finerCells[0] * finerCells[1]);
+                assertTrue(coarser.get(PreviewShape.index(cells, x >> 1, y >> 1, z >> 1)));
+            }
+            assertTrue(coarser.cardinality() <= finer.cardinality());
+        }
+    }
+
+    @Test
+    public void finestLevelIsTheFinestThatFits()
+    {
+        PreviewShape shape = new PreviewShape(worldData.blockCollection);
+        int budget = OperationRegistry.MAX_PREVIEW_BYTES - OperationRegistry.PREVIEW_SHAPE_OVERHEAD;
+
+        int level = shape.finestLevel(budget);
+
+        assertTrue(shape.byteSize(level) <= budget);
+        assertTrue(level == 0 || shape.byteSize(level - 1) > budget);
+
+        // 4 million blocks: the full occupancy is 500 kB, which fits
+        assertEquals(0, level);
+        assertEquals(shape.levels() - 1, shape.finestLevel(0));
+    }
+
+    @Test
+    public void levelsWithinBudgetCanBeSent()
+    {
+        PreviewShape shape = new PreviewShape(worldData.blockCollection);
+        int budget = OperationRegistry.MAX_PREVIEW_BYTES - OperationRegistry.PREVIEW_SHAPE_OVERHEAD;
+
+        for (int level = 0; level < shape.levels(); level++)
+        {
+            if (shape.byteSize(level) > budget)
+                continue;
+
+            NBTTagCompound nbt = OperationRegistry.writeOperation(new OperationPreviewShape(shape, level, AxisAlignedTransform2D.ORIGINAL, BlockPos.ORIGIN));
+            assertTrue("Level " + level + " doesn't fit", OperationRegistry.canSend(nbt));
+        }
+    }
+
+    @Test
+    public void previewFits()
+    {
+        OperationGenerateStructure operation = new OperationGenerateStructure(structure, null, AxisAlignedTransform2D.ORIGINAL, BlockPos.ORIGIN, false);
+
+        NBTTagCompound preview = OperationRegistry.previewOperation(operation);
+
+        assertNotNull(preview);
+        assertTrue(OperationRegistry.canSend(preview));
+        assertTrue(OperationRegistry.readOperation(preview) instanceof OperationPreviewShape);
+    }
+
+    @Test(timeout = 10000)
+    public void buildsTheShapeQuickly()
+    {
+        new PreviewShape(worldData.blockCollection);
+    }
+
+    @Test(timeout = 2000)
+    public void encodesFromTheCacheQuickly()
+    {
+        OperationGenerateStructure operation = new OperationGenerateStructure(structure, null, AxisAlignedTransform2D.ORIGINAL, BlockPos.ORIGIN, false);
+
+        for (int i = 0; i < 10; i++)
+            assertNotNull(OperationRegistry.previewOperation(operation));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature.structure;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * What {@link MapGenStructureHook#generate} relies on to intercept every new structure start exactly once.
+ */
+public class TrackingLong2ObjectMapTest
+{
+    private static TrackingLong2ObjectMap<String> map()
+    {
+        Long2ObjectOpenHashMap<String> existing = new Long2ObjectOpenHashMap<>();
+        existing.put(1, "old");
+        return new TrackingLong2ObjectMap<>(existing);
+    }
+
+    @Test
+    public void keepsExistingEntries()
+    {
+        TrackingLong2ObjectMap<String> map = map();
+        assertEquals("old", map.get(1));
+
+        LongList previous = map.startTracking();
+        assertTrue(map.stopTracking(previous).isEmpty());
+    }
+
+    @Test
+    public void recordsEachNewKeyOnce()
+    {
+        TrackingLong2ObjectMap<String> map = map();
+
+        LongList previous = map.startTracking();
+        map.put(2, "a");
+        map.put(3, "b");
+        map.put(2, "a again");
+        map.put(1, "old again");
+        LongList inserted = map.stopTracking(previous);
+
+        assertEquals(new LongArrayList(new long[]{2, 3}), inserted);
+    }
+
+    @Test
+    public void ignoresPutsWhileNotTracking()
+    {
+        TrackingLong2ObjectMap<String> map = map();
+        map.put(2, "a");
+
+        LongList previous = map.startTracking();
+        map.put(2, "cleared");
+        assertTrue(map.stopTracking(previous).isEmpty());
+    }
+
+    @Test
+    public void recordsBoxedPuts()
+    {
+        TrackingLong2ObjectMap<String> map = map();
+
+        LongList previous = map.startTracking();
+        //noinspection deprecation
+        map.put(Long.valueOf(4), "boxed");
+        assertEquals(new LongArrayList(new long[]{4}), map.stopTracking(previous));
+    }
+
+    @Test
+    public void nestedTrackingReportsEachKeyToOneCallOnly()
+    {
+        TrackingLong2ObjectMap<String> map = map();
+
+        // Chained chunk generation: generating one chunk generates another from inside
+        LongList outer = map.startTracking();
+        map.put(2, "outer");
+
+        LongList inner = map.startTracking();
+        map.put(3, "inner");
+        LongList innerInserted = map.stopTracking(inner);
+
+        map.put(4, "outer after");
+        LongList outerInserted = map.stopTracking(outer);
+
+        assertEquals(new LongArrayList(new long[]{3}), innerInserted);
+        assertEquals(new LongArrayList(new long[]{2, 4}), outerInserted);
+
+        LongList after = map.startTracking();
+        assertNull(after);
+        assertTrue(map.stopTracking(after).isEmpty());
+    }
+}
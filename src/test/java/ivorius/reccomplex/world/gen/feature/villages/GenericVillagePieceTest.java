@@ -0,0 +1,177 @@
+/*
+ *  Copyright (c) 2014, Lukas Tenbrink.
+ *  * http://ivorius.net
+ */
+
+package ivorius.reccomplex.world.gen.feature.villages;
+
+import ivorius.ivtoolkit.math.AxisAlignedTransform2D;
+import ivorius.reccomplex.RecurrentComplex;
+import ivorius.reccomplex.benchmark.HeadlessWorld;
+import ivorius.reccomplex.benchmark.SyntheticStructures;
+import ivorius.reccomplex.files.loading.LeveledRegistry;
+import ivorius.reccomplex.world.gen.feature.structure.StructureRegistry;
+import ivorius.reccomplex.world.gen.feature.structure.Structures;
+import ivorius.reccomplex.world.gen.feature.structure.generic.GenericStructure;
+import ivorius.reccomplex.world.gen.feature.structure.generic.generation.VanillaGeneration;
+import net.minecraft.block.Block;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.gen.structure.MapGenStructureIO;
+import net.minecraft.world.gen.structure.StructureBoundingBox;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Village pieces saved compactly, against the full instance data they were saved with before.
+ */
+public class GenericVillagePieceTest
+{
+    private static final String STRUCTURE_ID = "village_piece_test";
+    private static final String GENERATION_ID = "village";
+    private static final int[] SIZE = {24, 12, 20};
+
+    // A multiple of the terrain's period, so pieces this far apart generate onto the same ground
+    private static final int TERRAIN_PERIOD = HeadlessWorld.TERRAIN.size[0] * 4;
+
+    private static WorldServer world;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        world = HeadlessWorld.get();
+
+        GenericStructure structure = SyntheticStructures.structure(0, SIZE);
+        structure.generationTypes.add(new VanillaGeneration(GENERATION_ID, 1.0, 1, 1, 1, 1, EnumFacing.NORTH, BlockPos.ORIGIN, ""));
+        StructureRegistry.INSTANCE.register(STRUCTURE_ID, RecurrentComplex.MOD_ID, structure, false, LeveledRegistry.Level.CUSTOM);
+
+        MapGenStructureIO.registerStructureComponent(VanillaGenerationClassFactory.instance().getClass(STRUCTURE_ID, GENERATION_ID), "Rc:" + STRUCTURE_ID + "_" + GENERATION_ID);
+    }
+
+    protected static GenericVillagePiece piece(long seed, BlockPos lowerCoord)
+    {
+        GenericVillagePiece piece = GenericVillagePiece.create(STRUCTURE_ID, GENERATION_ID);
+        assertNotNull(piece);
+
+        piece.seed = seed;
+        piece.setIds(STRUCTURE_ID, GENERATION_ID);
+        piece.setOrientation(EnumFacing.NORTH, AxisAlignedTransform2D.ORIGINAL, Structures.boundingBox(lowerCoord, SIZE));
+        return piece;
+    }
+
+    /**
+     * @return The areas the piece is asked to generate in, one per chunk, as when the chunks populate.
+     */
+    protected static List<StructureBoundingBox> chunks(GenericVillagePiece piece)
+    {
+        StructureBoundingBox boundingBox = piece.getBoundingBox();
+        List<StructureBoundingBox> chunks = new ArrayList<>();
+
+        for (int chunkX = (boundingBox.minX - 8) >> 4; chunkX <= (boundingBox.maxX - 8) >> 4; chunkX++)
+            for (int chunkZ = (boundingBox.minZ - 8) >> 4; chunkZ <= (boundingBox.maxZ - 8) >> 4; chunkZ++)
+                chunks.add(Structures.chunkBoundingBox(new ChunkPos(chunkX, chunkZ), true));
+
+        return chunks;
+    }
+
+    protected static void generate(GenericVillagePiece piece, List<StructureBoundingBox> chunks)
+    {
+        for (StructureBoundingBox chunk : chunks)
+            piece.addComponentParts(world, new Random(0), chunk);
+    }
+
+    protected static GenericVillagePiece reload(GenericVillagePiece piece)
+    {
+        return (GenericVillagePiece) MapGenStructureIO.getStructureComponent(piece.createStructureNBT(), world);
+    }
+
+    @Test
+    public void generatesTheSameAfterLoadingCompactly()
+    {
+        BlockPos fullLower = new BlockPos(TERRAIN_PERIOD * 8 + 4, 0, 4);
+        GenericVillagePiece full = piece(1, fullLower), compact = piece(1, fullLower.add(TERRAIN_PERIOD, 0, 0));
+
+        List<StructureBoundingBox> fullChunks = chunks(full), compactChunks = chunks(compact);
+        assertTrue(fullChunks.size() > 1);
+
+        // As before: the full instance data, never saved
+        generate(full, fullChunks);
+
+        generate(compact, compactChunks.subList(0, 1));
+        NBTTagCompound saved = compact.createStructureNBT();
+        assertTrue(saved.hasKey("RcInstCmp"));
+        assertFalse(saved.hasKey("RcInstDat"));
+
+        GenericVillagePiece loaded = reload(compact);
+        generate(loaded, compactChunks.subList(1, compactChunks.size()));
+
+        assertEquals(full.instanceData, loaded.instanceData);
+        assertEquals(full.getBoundingBox().minY, loaded.getBoundingBox().minY);
+
+        StructureBoundingBox first = fullChunks.get(0), last = fullChunks.get(fullChunks.size() - 1);
+        for (BlockPos pos : BlockPos.getAllInBox(new BlockPos(first.minX, 0, first.minZ), new BlockPos(last.maxX, world.getHeight() - 1, last.maxZ)))
+            assertEquals(pos.toString(), Block.getStateId(world.getBlockState(pos)), Block.getStateId(world.getBlockState(pos.add(TERRAIN_PERIOD, 0, 0))));
+    }
+
+    @Test
+    public void compactVillageIsSmaller()
+    {
+        int fullBytes = 0, compactBytes = 0;
+
+        // A full village's worth of pieces, each saved after its first chunk
+        for (int i = 0; i < 16; i++)
+        {
+            GenericVillagePiece piece = piece(i, new BlockPos(-TERRAIN_PERIOD * 8 + (i % 4) * 32, 0, (i / 4) * 32));
+            generate(piece, chunks(piece).subList(0, 1));
+
+            NBTTagCompound compact = piece.createStructureNBT();
+            NBTTagCompound full = compact.copy();
+            full.removeTag("RcInstCmp");
+            full.setTag("RcInstDat", piece.instanceData);
+
+            assertTrue(compact.hasKey("RcInstCmp"));
+            compactBytes += CompactInstanceData.byteSize(compact);
+            fullBytes += CompactInstanceData.byteSize(full);
+        }
+
+        assertTrue(String.format("%d bytes compact, %d in full", compactBytes, fullBytes), compactBytes < fullBytes);
+    }
+
+    @Test
+    public void loadsFullInstanceData()
+    {
+        GenericVillagePiece piece = piece(2, new BlockPos(TERRAIN_PERIOD * 16 + 4, 0, 4));
+        generate(piece, chunks(piece).subList(0, 1));
+        piece.compactInstanceData = null;
+
+        GenericVillagePiece loaded = reload(piece);
+
+        assertNull(loaded.compactInstanceData);
+        assertEquals(piece.instanceData, loaded.instanceData);
+    }
+
+    @Test
+    public void rebuildsCompactInstanceData()
+    {
+        GenericVillagePiece piece = piece(3, new BlockPos(TERRAIN_PERIOD * 24 + 4, 0, 4));
+        List<StructureBoundingBox> chunks = chunks(piece);
+        generate(piece, chunks.subList(0, 1));
+
+        GenericVillagePiece loaded = reload(piece);
+        assertNull(loaded.instanceData);
+
+        generate(loaded, chunks.subList(1, 2));
+
+        assertEquals(piece.instanceData, loaded.instanceData);
+        assertTrue(loaded.compactInstanceData.matches(loaded.instanceData));
+    }
+}